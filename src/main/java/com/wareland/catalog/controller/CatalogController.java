@@ -2,8 +2,10 @@ package com.wareland.catalog.controller;
 
 import com.wareland.catalog.dto.CatalogPropertyResponse;
 import com.wareland.catalog.dto.CatalogSearchRequest;
+import com.wareland.catalog.dto.TopRatedPropertyResponse;
 import com.wareland.catalog.service.CatalogService;
 import com.wareland.common.response.ApiResponse;
+import com.wareland.review.dto.RatingDistributionResponse;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -58,4 +60,24 @@ public class CatalogController {
         }
         return ResponseEntity.ok(ApiResponse.success(detail));
     }
+
+    // GET /api/catalog/properties/{propertyId}/ratings
+    @GetMapping("/properties/{propertyId}/ratings")
+    public ResponseEntity<ApiResponse<RatingDistributionResponse>> getRatingDistribution(@PathVariable int propertyId) {
+        return ResponseEntity.ok(ApiResponse.success(catalogService.getRatingDistribution(propertyId)));
+    }
+
+    // GET /api/catalog/top-rated
+    @GetMapping("/top-rated")
+    public ResponseEntity<ApiResponse<List<TopRatedPropertyResponse>>> getTopRated(
+            @RequestParam(value = "limit", defaultValue = "10") int limit,
+            @RequestParam(value = "minPrice", required = false) Double minPrice,
+            @RequestParam(value = "maxPrice", required = false) Double maxPrice
+    ) {
+        List<TopRatedPropertyResponse> data = catalogService.getTopRated(limit, minPrice, maxPrice);
+        if (data.isEmpty()) {
+            return ResponseEntity.ok(ApiResponse.success("Properti tidak tersedia", data));
+        }
+        return ResponseEntity.ok(ApiResponse.success(data));
+    }
 }
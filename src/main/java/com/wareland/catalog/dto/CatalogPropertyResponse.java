@@ -12,7 +12,13 @@ public class CatalogPropertyResponse {
     private double price;
     private String description;
     private String imageUrl;
+    // URL per ukuran tampilan (list, card, detail); sama dengan imageUrl untuk gambar eksternal
+    private String thumbnailUrl;
+    private String cardUrl;
+    private String detailUrl;
     private SellerInfo seller;
+    // true jika listing sudah dihapus seller (tidak lagi tampil di katalog)
+    private boolean archived;
 
     public CatalogPropertyResponse() {
     }
@@ -66,6 +72,30 @@ public class CatalogPropertyResponse {
         this.imageUrl = imageUrl;
     }
 
+    public String getThumbnailUrl() {
+        return thumbnailUrl;
+    }
+
+    public void setThumbnailUrl(String thumbnailUrl) {
+        this.thumbnailUrl = thumbnailUrl;
+    }
+
+    public String getCardUrl() {
+        return cardUrl;
+    }
+
+    public void setCardUrl(String cardUrl) {
+        this.cardUrl = cardUrl;
+    }
+
+    public String getDetailUrl() {
+        return detailUrl;
+    }
+
+    public void setDetailUrl(String detailUrl) {
+        this.detailUrl = detailUrl;
+    }
+
     public SellerInfo getSeller() {
         return seller;
     }
@@ -74,6 +104,14 @@ public class CatalogPropertyResponse {
         this.seller = seller;
     }
 
+    public boolean isArchived() {
+        return archived;
+    }
+
+    public void setArchived(boolean archived) {
+        this.archived = archived;
+    }
+
     /**
      * Inner class untuk informasi seller.
      */
@@ -86,6 +124,10 @@ public class CatalogPropertyResponse {
         private String userRole;
         private LocalDateTime createdAt;
         private LocalDateTime updatedAt;
+        // Reputasi seller dari seluruh listing ACTIVE; rating null jika belum ada review
+        private long reviewCount;
+        private Double averageRating;
+        private Double reputationScore;
 
         public SellerInfo() {
         }
@@ -165,5 +207,29 @@ public class CatalogPropertyResponse {
         public void setUpdatedAt(LocalDateTime updatedAt) {
             this.updatedAt = updatedAt;
         }
+
+        public long getReviewCount() {
+            return reviewCount;
+        }
+
+        public void setReviewCount(long reviewCount) {
+            this.reviewCount = reviewCount;
+        }
+
+        public Double getAverageRating() {
+            return averageRating;
+        }
+
+        public void setAverageRating(Double averageRating) {
+            this.averageRating = averageRating;
+        }
+
+        public Double getReputationScore() {
+            return reputationScore;
+        }
+
+        public void setReputationScore(Double reputationScore) {
+            this.reputationScore = reputationScore;
+        }
     }
 }
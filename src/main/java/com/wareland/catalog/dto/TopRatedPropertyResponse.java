@@ -0,0 +1,42 @@
+package com.wareland.catalog.dto;
+
+/**
+ * Item leaderboard top-rated: data katalog listing beserta statistik rating-nya.
+ */
+public class TopRatedPropertyResponse {
+
+    private int rank;
+    private double score;
+    private double averageRating;
+    private long reviewCount;
+    private CatalogPropertyResponse property;
+
+    public TopRatedPropertyResponse(int rank, double score, double averageRating, long reviewCount,
+                                    CatalogPropertyResponse property) {
+        this.rank = rank;
+        this.score = score;
+        this.averageRating = averageRating;
+        this.reviewCount = reviewCount;
+        this.property = property;
+    }
+
+    public int getRank() {
+        return rank;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public double getAverageRating() {
+        return averageRating;
+    }
+
+    public long getReviewCount() {
+        return reviewCount;
+    }
+
+    public CatalogPropertyResponse getProperty() {
+        return property;
+    }
+}
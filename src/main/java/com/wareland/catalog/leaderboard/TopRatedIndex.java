@@ -0,0 +1,411 @@
+package com.wareland.catalog.leaderboard;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.wareland.property.dto.ListingRatingView;
+import com.wareland.property.dto.ListingScoreView;
+import com.wareland.property.event.PropertyChangedEvent;
+import com.wareland.property.repository.PropertyRepository;
+import com.wareland.review.event.ReviewChangedEvent;
+
+/**
+ * Leaderboard listing dengan rating terbaik, dipelihara secara inkremental di memori.
+ *
+ * Skor memakai rata-rata Bayesian: (w * m + total rating) / (w + jumlah review), dengan m
+ * rata-rata global dan w bobot prior. Listing dengan satu review bintang 5 tidak langsung
+ * mengalahkan listing dengan ratusan review bagus. Urutan disimpan di skip list sehingga
+ * top-k cukup dibaca dari kepala set (O(k)), tanpa agregat ke tabel reviews.
+ *
+ * Untuk filter harga, listing juga dikelompokkan per bucket harga (kelipatan dua: [2^b, 2^(b+1)))
+ * dengan urutan skor sendiri. Top-k berfilter menggabungkan kepala bucket dalam rentang; hanya
+ * dua bucket di tepi rentang yang perlu melewati entry di luar rentang.
+ *
+ * m ditetapkan saat rebuild dan dianggap konstan sampai rebuild berikutnya, agar satu review
+ * baru tidak mengubah skor seluruh listing.
+ */
+@Component
+public class TopRatedIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(TopRatedIndex.class);
+    // Prior jika belum ada review sama sekali
+    private static final double DEFAULT_PRIOR_MEAN = 3.0;
+    private static final double SCORE_TOLERANCE = 1e-9;
+
+    private static final Comparator<Entry> BY_SCORE = Comparator
+            .comparingDouble(Entry::getScore).reversed()
+            .thenComparingInt(Entry::getPropertyId);
+
+    private final PropertyRepository propertyRepository;
+    private final double priorWeight;
+    private final long minReviews;
+
+    private volatile State state;
+    // ID event terakhir yang diterapkan; setiap mutasi mendapat ID berurutan
+    private long lastEventId;
+    // Selama rebuild: listing yang berubah beserta ID event terakhirnya, dibaca ulang dari database
+    private Map<Integer, Long> changedDuringRebuild;
+    private final Object rebuildLock = new Object();
+
+    public TopRatedIndex(
+            PropertyRepository propertyRepository,
+            @Value("${app.catalog.top-rated.prior-weight:10}") double priorWeight,
+            @Value("${app.catalog.top-rated.min-reviews:1}") long minReviews
+    ) {
+        this.propertyRepository = propertyRepository;
+        this.priorWeight = priorWeight;
+        this.minReviews = Math.max(1, minReviews);
+        this.state = new State(DEFAULT_PRIOR_MEAN);
+    }
+
+    /**
+     * Top listing berdasarkan skor, opsional dibatasi rentang harga.
+     * Tanpa filter harga cukup membaca k elemen pertama; dengan filter, kepala setiap bucket harga
+     * dalam rentang digabung (k-way merge), sehingga biayanya O(k log jumlah bucket) ditambah
+     * entry di luar rentang pada dua bucket tepi.
+     */
+    public List<Entry> top(int limit, Double minPrice, Double maxPrice) {
+        State current = state;
+        List<Entry> result = new ArrayList<>(limit);
+        if (minPrice == null && maxPrice == null) {
+            for (Entry entry : current.ranking) {
+                if (result.size() >= limit) {
+                    break;
+                }
+                result.add(entry);
+            }
+            return result;
+        }
+        if (minPrice != null && maxPrice != null && minPrice > maxPrice) {
+            return result;
+        }
+
+        ConcurrentNavigableMap<Integer, NavigableSet<Entry>> buckets = current.byPriceBucket;
+        if (minPrice != null && maxPrice != null) {
+            buckets = buckets.subMap(bucketOf(minPrice), true, bucketOf(maxPrice), true);
+        } else if (minPrice != null) {
+            buckets = buckets.tailMap(bucketOf(minPrice), true);
+        } else {
+            buckets = buckets.headMap(bucketOf(maxPrice), true);
+        }
+        PriorityQueue<BucketCursor> heads = new PriorityQueue<>(Comparator.comparing(BucketCursor::head, BY_SCORE));
+        for (NavigableSet<Entry> bucket : buckets.values()) {
+            BucketCursor cursor = new BucketCursor(bucket.iterator(), minPrice, maxPrice);
+            if (cursor.advance()) {
+                heads.add(cursor);
+            }
+        }
+        // Listing yang berpindah bucket saat dibaca bisa terlihat di dua bucket
+        Set<Integer> seen = new HashSet<>();
+        while (result.size() < limit && !heads.isEmpty()) {
+            BucketCursor cursor = heads.poll();
+            if (seen.add(cursor.head.propertyId)) {
+                result.add(cursor.head);
+            }
+            if (cursor.advance()) {
+                heads.add(cursor);
+            }
+        }
+        return result;
+    }
+
+    public double getPriorMean() {
+        return state.priorMean;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReviewChanged(ReviewChangedEvent event) {
+        int previous = event.getPreviousRating();
+        int current = event.getRating();
+        long countDelta = (current > 0 ? 1 : 0) - (previous > 0 ? 1 : 0);
+        long sumDelta = current - previous;
+        applyDelta(event.getPropertyId(), countDelta, sumDelta);
+    }
+
+    /**
+     * Menambahkan delta jumlah & total rating ke listing (misalnya review hasil import massal).
+     */
+    public void applyDelta(Integer propertyId, long countDelta, long sumDelta) {
+        if (countDelta == 0 && sumDelta == 0) {
+            return;
+        }
+        mutate(propertyId, s -> s.update(propertyId, null, countDelta, sumDelta));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPropertyChanged(PropertyChangedEvent event) {
+        Integer propertyId = event.getPropertyId();
+        if (event.getType() == PropertyChangedEvent.Type.DELETED) {
+            mutate(propertyId, s -> s.remove(propertyId));
+        } else {
+            double price = event.getPrice();
+            mutate(propertyId, s -> s.update(propertyId, price, 0, 0));
+        }
+    }
+
+    /**
+     * Membangun ulang leaderboard dari agregat database, sekaligus menghitung ulang rata-rata global.
+     *
+     * Perubahan yang masuk selama pembacaan tidak diputar ulang sebagai delta (delta yang sudah
+     * commit sebelum snapshot query akan terhitung dua kali). Listing yang berubah dibaca ulang
+     * dengan nilai absolut setelah state baru dipasang; listing yang berubah lagi selama
+     * pembacaan ulang (ID event lebih baru) dibaca ulang pada putaran berikutnya.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                changedDuringRebuild = new HashMap<>();
+            }
+            try {
+                rebuildSnapshot();
+            } finally {
+                synchronized (this) {
+                    changedDuringRebuild = null;
+                }
+            }
+        }
+    }
+
+    private void rebuildSnapshot() {
+        List<ListingRatingView> rows = new ArrayList<>();
+        long totalCount = 0;
+        long totalSum = 0;
+        try (Stream<ListingRatingView> aggregates = propertyRepository.streamRatingAggregates()) {
+            for (ListingRatingView row : (Iterable<ListingRatingView>) aggregates::iterator) {
+                rows.add(row);
+                totalCount += row.getReviewCount();
+                totalSum += row.getRatingSum();
+            }
+        }
+
+        State rebuilt = new State(totalCount == 0 ? DEFAULT_PRIOR_MEAN : (double) totalSum / totalCount);
+        for (ListingRatingView row : rows) {
+            rebuilt.put(rebuilt.entryOf(row));
+        }
+
+        Set<Integer> changed;
+        long readFrom;
+        synchronized (this) {
+            changed = new HashSet<>(changedDuringRebuild.keySet());
+            readFrom = lastEventId;
+            state = rebuilt;
+        }
+        while (!changed.isEmpty()) {
+            Map<Integer, ListingRatingView> current = new HashMap<>();
+            for (ListingRatingView row : propertyRepository.findRatingAggregates(changed)) {
+                current.put(row.getPropertyId(), row);
+            }
+            Set<Integer> changedAgain = new HashSet<>();
+            synchronized (this) {
+                for (Integer propertyId : changed) {
+                    if (changedDuringRebuild.get(propertyId) > readFrom) {
+                        changedAgain.add(propertyId);
+                        continue;
+                    }
+                    rebuilt.remove(propertyId);
+                    ListingRatingView row = current.get(propertyId);
+                    if (row != null) {
+                        rebuilt.put(rebuilt.entryOf(row));
+                    }
+                }
+                readFrom = lastEventId;
+            }
+            changed = changedAgain;
+        }
+        log.info("Leaderboard top-rated dibangun ulang: {} listing, prior mean {}", rows.size(), rebuilt.priorMean);
+    }
+
+    /**
+     * Membandingkan top-k in-memory dengan agregat SQL memakai prior yang sama.
+     */
+    @Transactional(readOnly = true)
+    public boolean verify(int k) {
+        State current = state;
+        List<ListingScoreView> expected = propertyRepository.findTopRatedScores(
+                priorWeight, current.priorMean, minReviews, PageRequest.of(0, k));
+        List<Entry> actual = top(k, null, null);
+        if (expected.size() != actual.size()) {
+            log.warn("Leaderboard tidak konsisten: {} entry di memori, {} entry di database", actual.size(), expected.size());
+            return false;
+        }
+        for (int i = 0; i < expected.size(); i++) {
+            ListingScoreView row = expected.get(i);
+            Entry entry = actual.get(i);
+            if (!row.getPropertyId().equals(entry.propertyId)
+                    || Math.abs(row.getScore() - entry.score) > SCORE_TOLERANCE) {
+                log.warn("Leaderboard tidak konsisten pada posisi {}: memori #{} ({}), database #{} ({})",
+                        i + 1, entry.propertyId, entry.score, row.getPropertyId(), row.getScore());
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private synchronized void mutate(Integer propertyId, Consumer<State> mutation) {
+        lastEventId++;
+        mutation.accept(state);
+        if (changedDuringRebuild != null) {
+            changedDuringRebuild.put(propertyId, lastEventId);
+        }
+    }
+
+    // Bucket b berisi harga [2^b, 2^(b+1)); harga di bawah 1 masuk satu bucket terbawah
+    private static int bucketOf(double price) {
+        return price < 1 ? -1 : Math.getExponent(price);
+    }
+
+    private double score(State target, long count, long sum) {
+        return (priorWeight * target.priorMean + sum) / (priorWeight + count);
+    }
+
+    /**
+     * Snapshot leaderboard: entry per listing dan urutan skornya.
+     * Seluruh mutasi dijalankan di bawah lock TopRatedIndex; pembaca tidak memakai lock.
+     */
+    private final class State {
+
+        private final double priorMean;
+        private final Map<Integer, Entry> entries = new ConcurrentHashMap<>();
+        private final NavigableSet<Entry> ranking = new ConcurrentSkipListSet<>(BY_SCORE);
+        private final ConcurrentNavigableMap<Integer, NavigableSet<Entry>> byPriceBucket =
+                new ConcurrentSkipListMap<>();
+
+        private State(double priorMean) {
+            this.priorMean = priorMean;
+        }
+
+        // price null = harga tidak berubah; review untuk listing yang tidak dikenal diabaikan
+        private void update(Integer propertyId, Double price, long countDelta, long sumDelta) {
+            Entry previous = entries.get(propertyId);
+            if (previous == null && price == null) {
+                return;
+            }
+            long count = (previous != null ? previous.reviewCount : 0) + countDelta;
+            long sum = (previous != null ? previous.ratingSum : 0) + sumDelta;
+            double newPrice = price != null ? price : previous.price;
+            remove(propertyId);
+            put(new Entry(propertyId, newPrice, count, sum, score(this, count, sum)));
+        }
+
+        private Entry entryOf(ListingRatingView row) {
+            long count = row.getReviewCount();
+            long sum = row.getRatingSum();
+            return new Entry(row.getPropertyId(), row.getPrice(), count, sum, score(this, count, sum));
+        }
+
+        private void put(Entry entry) {
+            entries.put(entry.propertyId, entry);
+            if (entry.reviewCount >= minReviews) {
+                ranking.add(entry);
+                byPriceBucket.computeIfAbsent(bucketOf(entry.price), b -> new ConcurrentSkipListSet<>(BY_SCORE))
+                        .add(entry);
+            }
+        }
+
+        // Bucket kosong dibiarkan; jumlahnya dibatasi rentang eksponen harga
+        private void remove(Integer propertyId) {
+            Entry previous = entries.remove(propertyId);
+            if (previous != null && ranking.remove(previous)) {
+                byPriceBucket.get(bucketOf(previous.price)).remove(previous);
+            }
+        }
+    }
+
+    /**
+     * Posisi baca pada satu bucket harga: entry berikutnya dalam rentang harga, urut skor.
+     */
+    private static final class BucketCursor {
+
+        private final Iterator<Entry> iterator;
+        private final Double minPrice;
+        private final Double maxPrice;
+        private Entry head;
+
+        private BucketCursor(Iterator<Entry> iterator, Double minPrice, Double maxPrice) {
+            this.iterator = iterator;
+            this.minPrice = minPrice;
+            this.maxPrice = maxPrice;
+        }
+
+        private Entry head() {
+            return head;
+        }
+
+        private boolean advance() {
+            while (iterator.hasNext()) {
+                Entry entry = iterator.next();
+                if ((minPrice == null || entry.price >= minPrice) && (maxPrice == null || entry.price <= maxPrice)) {
+                    head = entry;
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Entry immutable; perubahan dilakukan dengan mengganti entry di set.
+     */
+    public static final class Entry {
+
+        private final int propertyId;
+        private final double price;
+        private final long reviewCount;
+        private final long ratingSum;
+        private final double score;
+
+        private Entry(int propertyId, double price, long reviewCount, long ratingSum, double score) {
+            this.propertyId = propertyId;
+            this.price = price;
+            this.reviewCount = reviewCount;
+            this.ratingSum = ratingSum;
+            this.score = score;
+        }
+
+        public int getPropertyId() {
+            return propertyId;
+        }
+
+        public double getPrice() {
+            return price;
+        }
+
+        public long getReviewCount() {
+            return reviewCount;
+        }
+
+        public double getAverageRating() {
+            return reviewCount == 0 ? 0.0 : (double) ratingSum / reviewCount;
+        }
+
+        public double getScore() {
+            return score;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.wareland.catalog.leaderboard;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Job pemeliharaan leaderboard: rebuild terjadwal (memperbarui rata-rata global)
+ * dan cek konsistensi berkala terhadap agregat SQL. Jika cek gagal, leaderboard dibangun ulang.
+ */
+@Component
+public class TopRatedRebuildJob {
+
+    private static final Logger log = LoggerFactory.getLogger(TopRatedRebuildJob.class);
+
+    private final TopRatedIndex index;
+    private final int verifySize;
+    private final Counter mismatches;
+
+    public TopRatedRebuildJob(
+            TopRatedIndex index,
+            MeterRegistry meterRegistry,
+            @Value("${app.catalog.top-rated.verify-size:100}") int verifySize
+    ) {
+        this.index = index;
+        this.verifySize = verifySize;
+        this.mismatches = Counter.builder("catalog.top_rated.mismatches").register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${app.catalog.top-rated.rebuild-cron:0 30 3 * * *}")
+    public void scheduledRebuild() {
+        index.rebuild();
+    }
+
+    @Scheduled(
+            fixedDelayString = "${app.catalog.top-rated.verify-interval-ms:900000}",
+            initialDelayString = "${app.catalog.top-rated.verify-interval-ms:900000}"
+    )
+    public void scheduledVerify() {
+        if (!index.verify(verifySize)) {
+            mismatches.increment();
+            log.warn("Leaderboard top-rated berbeda dari agregat database, rebuild dijalankan");
+            index.rebuild();
+        }
+    }
+}
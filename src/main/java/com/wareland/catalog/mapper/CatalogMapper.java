@@ -4,17 +4,60 @@ import org.springframework.stereotype.Component;
 
 import com.wareland.catalog.dto.CatalogPropertyResponse;
 import com.wareland.catalog.dto.CatalogPropertyResponse.SellerInfo;
+import com.wareland.image.service.ImageService;
+import com.wareland.image.storage.ImageVariant;
+import com.wareland.property.model.ArchivedProperty;
 import com.wareland.property.model.Property;
+import com.wareland.property.model.PropertyStatus;
+import com.wareland.user.dto.SellerReputation;
 import com.wareland.user.model.Seller;
+import com.wareland.user.service.SellerReputationService;
 
 @Component
 public class CatalogMapper {
 
+    private final ImageService imageService;
+    private final SellerReputationService sellerReputationService;
+
+    public CatalogMapper(ImageService imageService, SellerReputationService sellerReputationService) {
+        this.imageService = imageService;
+        this.sellerReputationService = sellerReputationService;
+    }
+
     public CatalogPropertyResponse toResponse(Property property) {
         if (property == null) return null;
-        
+
+        CatalogPropertyResponse response = toResponse(
+                property.getPropertyId() == null ? 0 : property.getPropertyId(),
+                property.getAddress(),
+                property.getPrice(),
+                property.getDescription(),
+                property.getImageUrl(),
+                property.getSeller()
+        );
+        response.setArchived(property.getStatus() != PropertyStatus.ACTIVE);
+        return response;
+    }
+
+    // Listing arsip: seller dimuat terpisah karena arsip hanya menyimpan ID seller
+    public CatalogPropertyResponse toResponse(ArchivedProperty property, Seller seller) {
+        if (property == null) return null;
+
+        CatalogPropertyResponse response = toResponse(
+                property.getPropertyId(),
+                property.getAddress(),
+                property.getPrice(),
+                property.getDescription(),
+                property.getImageUrl(),
+                seller
+        );
+        response.setArchived(true);
+        return response;
+    }
+
+    private CatalogPropertyResponse toResponse(int propertyId, String address, double price,
+                                               String description, String imageUrl, Seller seller) {
         SellerInfo sellerInfo = null;
-        Seller seller = property.getSeller();
         if (seller != null) {
             sellerInfo = new SellerInfo(
                     seller.getUserId(),
@@ -26,15 +69,26 @@ public class CatalogMapper {
                     seller.getCreatedAt(),
                     seller.getUpdatedAt()
             );
+            SellerReputation reputation = sellerReputationService.reputationOf(seller);
+            sellerInfo.setReviewCount(reputation.getReviewCount());
+            sellerInfo.setAverageRating(reputation.getAverageRating());
+            sellerInfo.setReputationScore(reputation.getReputationScore());
         }
         
-        return new CatalogPropertyResponse(
-                property.getPropertyId() == null ? 0 : property.getPropertyId(),
-                property.getAddress(),
-                property.getPrice(),
-                property.getDescription(),
-                property.getImageUrl(),
+        CatalogPropertyResponse response = new CatalogPropertyResponse(
+                propertyId,
+                address,
+                price,
+                description,
+                imageUrl,
                 sellerInfo
         );
+
+        if (imageUrl != null && !imageUrl.isBlank()) {
+            response.setThumbnailUrl(imageService.variantUrlFor(imageUrl, ImageVariant.THUMBNAIL));
+            response.setCardUrl(imageService.variantUrlFor(imageUrl, ImageVariant.CARD));
+            response.setDetailUrl(imageService.variantUrlFor(imageUrl, ImageVariant.DETAIL));
+        }
+        return response;
     }
 }
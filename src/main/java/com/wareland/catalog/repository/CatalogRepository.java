@@ -1,55 +1,92 @@
 package com.wareland.catalog.repository;
 
+import com.wareland.property.model.ArchivedProperty;
 import com.wareland.property.model.Property;
+import com.wareland.property.model.PropertyStatus;
+import com.wareland.property.repository.ArchivedPropertyRepository;
 import com.wareland.property.repository.PropertyRepository;
+import com.wareland.user.model.Seller;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.TypedQuery;
 import org.springframework.stereotype.Repository;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 /**
  * Adapter repository untuk membaca data Property sebagai katalog publik.
  * BUKAN Spring Data JPA repository langsung.
+ * Query katalog hanya membaca listing ACTIVE; listing yang sudah diarsipkan
+ * hanya bisa diambil per ID lewat {@link #findArchivedById(int)}.
  */
 @Repository
 public class CatalogRepository {
 
     private final PropertyRepository propertyRepository;
+    private final ArchivedPropertyRepository archivedPropertyRepository;
 
     @PersistenceContext
     private EntityManager em;
 
-    public CatalogRepository(PropertyRepository propertyRepository) {
+    public CatalogRepository(PropertyRepository propertyRepository,
+                             ArchivedPropertyRepository archivedPropertyRepository) {
         this.propertyRepository = propertyRepository;
+        this.archivedPropertyRepository = archivedPropertyRepository;
     }
 
     public List<Property> findAll() {
-        return propertyRepository.findAll();
+        return propertyRepository.findByStatus(PropertyStatus.ACTIVE);
     }
 
+    // Lookup per primary key; listing DELISTED yang belum dipindah ke arsip tetap ditemukan
     public Optional<Property> findById(int propertyId) {
         return propertyRepository.findById(propertyId);
     }
 
+    // Listing ACTIVE beserta seller-nya dalam satu query (urutan hasil tidak dijamin)
+    public List<Property> findActiveByIds(Collection<Integer> propertyIds) {
+        if (propertyIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        TypedQuery<Property> q = em.createQuery(
+                "SELECT p FROM Property p JOIN FETCH p.seller "
+                        + "WHERE p.propertyId IN :ids AND p.status = :status",
+                Property.class
+        );
+        q.setParameter("ids", propertyIds);
+        q.setParameter("status", PropertyStatus.ACTIVE);
+        return q.getResultList();
+    }
+
+    public Optional<ArchivedProperty> findArchivedById(int propertyId) {
+        return archivedPropertyRepository.findById(propertyId);
+    }
+
+    // Seller listing arsip bisa saja sudah dihapus
+    public Optional<Seller> findSellerById(Long sellerId) {
+        return Optional.ofNullable(sellerId == null ? null : em.find(Seller.class, sellerId));
+    }
+
     public List<Property> searchByKeyword(String keyword) {
         if (keyword == null || keyword.isBlank()) {
             return new ArrayList<>();
         }
         String like = "%" + keyword.trim().toLowerCase() + "%";
         TypedQuery<Property> q = em.createQuery(
-                "SELECT p FROM Property p WHERE LOWER(p.address) LIKE :kw OR LOWER(p.description) LIKE :kw",
+                "SELECT p FROM Property p WHERE p.status = :status "
+                        + "AND (LOWER(p.address) LIKE :kw OR LOWER(p.description) LIKE :kw)",
                 Property.class
         );
+        q.setParameter("status", PropertyStatus.ACTIVE);
         q.setParameter("kw", like);
         return q.getResultList();
     }
 
     public List<Property> filterByCriteria(String keyword, Double minPrice, Double maxPrice) {
-        StringBuilder jpql = new StringBuilder("SELECT p FROM Property p WHERE 1=1");
+        StringBuilder jpql = new StringBuilder("SELECT p FROM Property p WHERE p.status = :status");
         boolean useKeyword = keyword != null && !keyword.isBlank();
         if (useKeyword) {
             jpql.append(" AND (LOWER(p.address) LIKE :kw OR LOWER(p.description) LIKE :kw)");
@@ -62,6 +99,7 @@ public class CatalogRepository {
         }
 
         TypedQuery<Property> q = em.createQuery(jpql.toString(), Property.class);
+        q.setParameter("status", PropertyStatus.ACTIVE);
         if (useKeyword) {
             q.setParameter("kw", "%" + keyword.trim().toLowerCase() + "%");
         }
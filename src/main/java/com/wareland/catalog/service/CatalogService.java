@@ -2,24 +2,42 @@ package com.wareland.catalog.service;
 
 import com.wareland.catalog.dto.CatalogPropertyResponse;
 import com.wareland.catalog.dto.CatalogSearchRequest;
+import com.wareland.catalog.dto.TopRatedPropertyResponse;
+import com.wareland.catalog.leaderboard.TopRatedIndex;
 import com.wareland.catalog.mapper.CatalogMapper;
 import com.wareland.catalog.repository.CatalogRepository;
+import com.wareland.common.exception.BadRequestException;
 import com.wareland.property.model.Property;
+import com.wareland.review.dto.RatingDistributionResponse;
+import com.wareland.review.rating.RatingDistributionStore;
+import com.wareland.review.rating.RatingHistogram;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
+@Transactional(readOnly = true)
 public class CatalogService {
 
+    private static final int MAX_TOP_RATED = 100;
+
     private final CatalogRepository catalogRepository;
     private final CatalogMapper catalogMapper;
+    private final RatingDistributionStore ratingDistributionStore;
+    private final TopRatedIndex topRatedIndex;
 
-    public CatalogService(CatalogRepository catalogRepository, CatalogMapper catalogMapper) {
+    public CatalogService(CatalogRepository catalogRepository, CatalogMapper catalogMapper,
+                          RatingDistributionStore ratingDistributionStore, TopRatedIndex topRatedIndex) {
         this.catalogRepository = Objects.requireNonNull(catalogRepository);
         this.catalogMapper = Objects.requireNonNull(catalogMapper);
+        this.ratingDistributionStore = Objects.requireNonNull(ratingDistributionStore);
+        this.topRatedIndex = Objects.requireNonNull(topRatedIndex);
     }
 
     public List<CatalogPropertyResponse> showAllProperties() {
@@ -40,6 +58,51 @@ public class CatalogService {
     public CatalogPropertyResponse getPropertyDetail(int propertyId) {
         return catalogRepository.findById(propertyId)
                 .map(catalogMapper::toResponse)
+                // Jalur lambat: listing yang sudah dipindah ke tabel arsip
+                .or(() -> catalogRepository.findArchivedById(propertyId)
+                        .map(archived -> catalogMapper.toResponse(archived,
+                                catalogRepository.findSellerById(archived.getSellerId()).orElse(null))))
                 .orElse(null); // katalog publik: jika kosong, bukan error
     }
+
+    // Dibaca dari histogram in-memory, tanpa query ke tabel reviews
+    public RatingDistributionResponse getRatingDistribution(int propertyId) {
+        long[] counts = new long[RatingHistogram.STARS];
+        RatingHistogram histogram = ratingDistributionStore.find(propertyId);
+        if (histogram == null) {
+            return new RatingDistributionResponse(propertyId, counts, 0, 0.0);
+        }
+        for (int star = 1; star <= RatingHistogram.STARS; star++) {
+            counts[star - 1] = histogram.count(star);
+        }
+        return new RatingDistributionResponse(propertyId, counts, histogram.total(), histogram.average());
+    }
+
+    // Urutan dari leaderboard in-memory; detail listing dimuat sekaligus dalam satu query
+    public List<TopRatedPropertyResponse> getTopRated(int limit, Double minPrice, Double maxPrice) {
+        if (limit < 1 || limit > MAX_TOP_RATED) {
+            throw new BadRequestException("Limit harus antara 1 hingga " + MAX_TOP_RATED);
+        }
+        List<TopRatedIndex.Entry> entries = topRatedIndex.top(limit, minPrice, maxPrice);
+        Map<Integer, Property> properties = catalogRepository
+                .findActiveByIds(entries.stream().map(TopRatedIndex.Entry::getPropertyId).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(Property::getPropertyId, Function.identity()));
+
+        List<TopRatedPropertyResponse> result = new ArrayList<>(entries.size());
+        for (TopRatedIndex.Entry entry : entries) {
+            Property property = properties.get(entry.getPropertyId());
+            if (property == null) {
+                continue; // baru saja di-delist
+            }
+            result.add(new TopRatedPropertyResponse(
+                    result.size() + 1,
+                    entry.getScore(),
+                    entry.getAverageRating(),
+                    entry.getReviewCount(),
+                    catalogMapper.toResponse(property)
+            ));
+        }
+        return result;
+    }
 }
@@ -0,0 +1,12 @@
+package com.wareland.common.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Mengaktifkan job terjadwal (@Scheduled) untuk pekerjaan background aplikasi.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
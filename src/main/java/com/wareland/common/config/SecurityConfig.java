@@ -1,5 +1,10 @@
 package com.wareland.common.config;
 
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -8,12 +13,16 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import com.wareland.common.security.CalibratedBCryptPasswordEncoder;
 import com.wareland.common.security.JwtAuthenticationFilter;
 
+import jakarta.servlet.DispatcherType;
+
 /**
  * Konfigurasi keamanan aplikasi WareLand menggunakan JWT.
  */
@@ -21,6 +30,9 @@ import com.wareland.common.security.JwtAuthenticationFilter;
 @EnableWebSecurity
 public class SecurityConfig {
 
+    private static final Logger log = LoggerFactory.getLogger(SecurityConfig.class);
+    private static final String BCRYPT_ID = "bcrypt";
+
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
 
     public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter) {
@@ -42,6 +54,9 @@ public class SecurityConfig {
 
                 // Aturan otorisasi endpoint
                 .authorizeHttpRequests(auth -> auth
+                        // Dispatch lanjutan dari response async (streaming/SSE) sudah diotorisasi
+                        // pada request awal; filter JWT tidak dijalankan ulang di dispatch ini
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
                         // Izinkan preflight request
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
                         // Endpoint publik autentikasi
@@ -49,8 +64,13 @@ public class SecurityConfig {
                                 "/api/auth/register",
                                 "/api/auth/login"
                         ).permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/auth/availability").permitAll()
                         // Katalog properti bersifat publik
                         .requestMatchers("/api/catalog/**").permitAll()
+                        // Gambar property bersifat publik
+                        .requestMatchers(HttpMethod.GET, "/api/images/**").permitAll()
+                        // Endpoint administrasi (migrasi data, dsb.)
+                        .requestMatchers("/api/admin/**").hasRole("ADMIN")
                         // Endpoint lain wajib autentikasi
                         .anyRequest().authenticated()
                 );
@@ -65,10 +85,28 @@ public class SecurityConfig {
     }
 
     /**
-     * Password encoder default untuk hashing password user.
+     * Password encoder untuk hashing password user.
+     *
+     * Hash disimpan dengan prefix id ("{bcrypt}$2a$12$...") sehingga algoritma dan cost-nya
+     * terbaca dari hash itu sendiri. Cost BCrypt dikalibrasi saat startup (strength = 0)
+     * agar satu hash memakan kira-kira target-ms di hardware yang sedang dipakai.
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            @Value("${app.security.password-hashing.bcrypt-strength:0}") int strength,
+            @Value("${app.security.password-hashing.target-ms:100}") long targetMs,
+            @Value("${app.security.password-hashing.min-strength:10}") int minStrength,
+            @Value("${app.security.password-hashing.max-strength:14}") int maxStrength
+    ) {
+        int cost = strength > 0
+                ? strength
+                : CalibratedBCryptPasswordEncoder.calibrate(targetMs, minStrength, maxStrength);
+        log.info("BCrypt cost factor: {}{}", cost, strength > 0 ? " (dikonfigurasi)" : " (hasil kalibrasi)");
+
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(
+                BCRYPT_ID, Map.of(BCRYPT_ID, new CalibratedBCryptPasswordEncoder(cost)));
+        // Hash lama tanpa prefix id tetap bisa diverifikasi, lalu di-rehash saat login
+        encoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        return encoder;
     }
 }
@@ -0,0 +1,18 @@
+package com.wareland.common.exception;
+
+/**
+ * Exception saat server sedang penuh dan request sebaiknya diulang beberapa saat lagi.
+ */
+public class ServiceUnavailableException extends BusinessException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
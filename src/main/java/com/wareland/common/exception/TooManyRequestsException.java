@@ -0,0 +1,18 @@
+package com.wareland.common.exception;
+
+/**
+ * Exception saat client melampaui batas rate limit dan harus menunggu sebelum mencoba lagi.
+ */
+public class TooManyRequestsException extends BusinessException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,64 @@
+package com.wareland.common.ratelimit;
+
+/**
+ * Parameter token bucket beserta backoff eksponensial untuk kegagalan beruntun.
+ */
+public class BucketPolicy {
+
+    private final String name;
+    private final int capacity;
+    private final double refillPerSecond;
+    // Jumlah kegagalan beruntun yang masih ditoleransi sebelum backoff berlaku
+    private final int freeFailures;
+    private final long backoffBaseMs;
+    private final long backoffMaxMs;
+
+    public BucketPolicy(String name, int capacity, double refillPerSecond,
+                        int freeFailures, long backoffBaseMs, long backoffMaxMs) {
+        this.name = name;
+        this.capacity = capacity;
+        this.refillPerSecond = refillPerSecond;
+        this.freeFailures = freeFailures;
+        this.backoffBaseMs = backoffBaseMs;
+        this.backoffMaxMs = backoffMaxMs;
+    }
+
+    /**
+     * Lama blokir setelah kegagalan ke-n: base * 2^(n - freeFailures), dibatasi backoffMaxMs.
+     */
+    public long backoffMs(int failures) {
+        int exponent = failures - freeFailures;
+        if (exponent < 0) {
+            return 0;
+        }
+        // Cegah overflow saat base digeser terlalu jauh
+        if (exponent >= Long.numberOfLeadingZeros(backoffBaseMs) - 1) {
+            return backoffMaxMs;
+        }
+        return Math.min(backoffMaxMs, backoffBaseMs << exponent);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public double getRefillPerSecond() {
+        return refillPerSecond;
+    }
+
+    public int getFreeFailures() {
+        return freeFailures;
+    }
+
+    public long getBackoffBaseMs() {
+        return backoffBaseMs;
+    }
+
+    public long getBackoffMaxMs() {
+        return backoffMaxMs;
+    }
+}
@@ -0,0 +1,27 @@
+package com.wareland.common.ratelimit;
+
+/**
+ * Penyimpanan state token bucket. Implementasi default ada di memori (per instance);
+ * implementasi lain (misal Redis) bisa didaftarkan sebagai bean @Primary untuk berbagi
+ * state antar instance.
+ */
+public interface BucketStore {
+
+    /**
+     * Mengambil satu token dari bucket. Mengembalikan 0 jika diizinkan, atau lama tunggu (ms)
+     * sampai percobaan berikutnya boleh dilakukan.
+     */
+    long tryAcquire(String key, BucketPolicy policy, long nowMs);
+
+    /**
+     * Mencatat kegagalan (misal password salah); kegagalan beruntun memicu backoff eksponensial.
+     * Catatan kegagalan berkurang dengan laju refill bucket, sehingga kegagalan lama terlupakan
+     * walaupun tidak pernah diikuti percobaan yang berhasil.
+     */
+    void recordFailure(String key, BucketPolicy policy, long nowMs);
+
+    /**
+     * Menghapus catatan kegagalan setelah percobaan berhasil.
+     */
+    void recordSuccess(String key, BucketPolicy policy);
+}
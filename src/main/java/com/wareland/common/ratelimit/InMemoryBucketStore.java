@@ -0,0 +1,172 @@
+package com.wareland.common.ratelimit;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * BucketStore in-memory dengan lock striping.
+ *
+ * Key dibagi ke beberapa stripe berdasarkan hash; setiap stripe memiliki lock dan map LRU
+ * sendiri yang dibatasi ukurannya, sehingga memori tetap terbatas walaupun penyerang
+ * memakai jutaan username/IP berbeda. Bucket yang lama tidak dipakai dibuang berkala.
+ */
+@Component
+public class InMemoryBucketStore implements BucketStore {
+
+    private static final int STRIPES = 64;
+
+    private final Stripe[] stripes;
+    private final long idleMs;
+
+    public InMemoryBucketStore(
+            MeterRegistry meterRegistry,
+            @Value("${app.security.rate-limit.max-keys:100000}") int maxKeys,
+            @Value("${app.security.rate-limit.idle-ms:1800000}") long idleMs
+    ) {
+        this.stripes = new Stripe[STRIPES];
+        int perStripe = Math.max(1, (maxKeys + STRIPES - 1) / STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(perStripe);
+        }
+        this.idleMs = idleMs;
+
+        Gauge.builder("auth.rate_limit.buckets", this, InMemoryBucketStore::size)
+                .description("Jumlah bucket rate limit yang tersimpan di memori")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public long tryAcquire(String key, BucketPolicy policy, long nowMs) {
+        String bucketKey = bucketKey(key, policy);
+        Stripe stripe = stripeOf(bucketKey);
+        synchronized (stripe) {
+            Bucket bucket = stripe.computeIfAbsent(bucketKey, k -> new Bucket(policy.getCapacity(), nowMs));
+            bucket.lastSeen = nowMs;
+            if (bucket.blockedUntil > nowMs) {
+                return bucket.blockedUntil - nowMs;
+            }
+            bucket.refill(policy, nowMs);
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return 0;
+            }
+            // Waktu sampai satu token terisi kembali
+            return (long) Math.ceil((1 - bucket.tokens) * 1000 / policy.getRefillPerSecond());
+        }
+    }
+
+    @Override
+    public void recordFailure(String key, BucketPolicy policy, long nowMs) {
+        String bucketKey = bucketKey(key, policy);
+        Stripe stripe = stripeOf(bucketKey);
+        synchronized (stripe) {
+            Bucket bucket = stripe.computeIfAbsent(bucketKey, k -> new Bucket(policy.getCapacity(), nowMs));
+            bucket.lastSeen = nowMs;
+            bucket.refill(policy, nowMs);
+            bucket.failures++;
+            long backoff = policy.backoffMs((int) Math.ceil(bucket.failures));
+            if (backoff > 0) {
+                bucket.blockedUntil = Math.max(bucket.blockedUntil, nowMs + backoff);
+            }
+        }
+    }
+
+    @Override
+    public void recordSuccess(String key, BucketPolicy policy) {
+        String bucketKey = bucketKey(key, policy);
+        Stripe stripe = stripeOf(bucketKey);
+        synchronized (stripe) {
+            Bucket bucket = stripe.get(bucketKey);
+            if (bucket != null) {
+                bucket.failures = 0;
+                bucket.blockedUntil = 0;
+            }
+        }
+    }
+
+    /**
+     * Membuang bucket yang tidak dipakai lebih lama dari idle-ms.
+     * Bucket yang masih diblokir dipertahankan agar backoff tidak bisa di-reset dengan menunggu.
+     */
+    @Scheduled(fixedDelayString = "${app.security.rate-limit.cleanup-interval-ms:60000}")
+    public void evictIdle() {
+        long now = System.currentTimeMillis();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                Iterator<Bucket> iterator = stripe.values().iterator();
+                while (iterator.hasNext()) {
+                    Bucket bucket = iterator.next();
+                    if (now - bucket.lastSeen > idleMs && bucket.blockedUntil <= now) {
+                        iterator.remove();
+                    }
+                }
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    private static String bucketKey(String key, BucketPolicy policy) {
+        return policy.getName() + ':' + key;
+    }
+
+    private Stripe stripeOf(String bucketKey) {
+        return stripes[(bucketKey.hashCode() & 0x7fffffff) % STRIPES];
+    }
+
+    private static final class Bucket {
+        private double tokens;
+        private long lastRefill;
+        private long lastSeen;
+        // Berkurang seiring bucket terisi, sehingga kegagalan lama tidak menumpuk selamanya
+        private double failures;
+        private long blockedUntil;
+
+        private Bucket(int capacity, long nowMs) {
+            this.tokens = capacity;
+            this.lastRefill = nowMs;
+            this.lastSeen = nowMs;
+        }
+
+        // Token bertambah dan catatan kegagalan berkurang dengan laju yang sama
+        private void refill(BucketPolicy policy, long nowMs) {
+            if (nowMs > lastRefill) {
+                double refilled = (nowMs - lastRefill) * policy.getRefillPerSecond() / 1000;
+                tokens = Math.min(policy.getCapacity(), tokens + refilled);
+                failures = Math.max(0, failures - refilled);
+                lastRefill = nowMs;
+            }
+        }
+    }
+
+    // Map LRU dengan access order: bucket yang paling lama tidak dipakai dibuang saat penuh
+    private static final class Stripe extends LinkedHashMap<String, Bucket> {
+        private final int capacity;
+
+        private Stripe(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+            return size() > capacity;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.wareland.common.ratelimit;
+
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.wareland.common.exception.TooManyRequestsException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Rate limiter untuk endpoint login, dengan bucket per identifier (username/email)
+ * dan per IP client. Dicek sebelum query user maupun verifikasi BCrypt,
+ * sehingga percobaan credential stuffing ditolak dengan biaya minimal.
+ *
+ * IP client diambil dari request setelah header X-Forwarded-For diproses oleh container;
+ * header hanya dipercaya jika datang dari proxy yang terdaftar (lihat server.forward-headers-strategy).
+ */
+@Component
+public class LoginRateLimiter {
+
+    // Username maksimal 50 dan email 100 karakter; sisanya tidak perlu disimpan sebagai key
+    private static final int MAX_IDENTIFIER_LENGTH = 128;
+
+    private final BucketStore bucketStore;
+    private final BucketPolicy identifierPolicy;
+    private final BucketPolicy ipPolicy;
+    private final Counter identifierRejected;
+    private final Counter ipRejected;
+
+    public LoginRateLimiter(
+            BucketStore bucketStore,
+            MeterRegistry meterRegistry,
+            @Value("${app.security.rate-limit.login.identifier.capacity:10}") int identifierCapacity,
+            @Value("${app.security.rate-limit.login.identifier.refill-per-second:0.1}") double identifierRefill,
+            @Value("${app.security.rate-limit.login.identifier.free-failures:5}") int identifierFreeFailures,
+            @Value("${app.security.rate-limit.login.ip.capacity:30}") int ipCapacity,
+            @Value("${app.security.rate-limit.login.ip.refill-per-second:1.0}") double ipRefill,
+            @Value("${app.security.rate-limit.login.ip.free-failures:20}") int ipFreeFailures,
+            @Value("${app.security.rate-limit.login.backoff-base-ms:1000}") long backoffBaseMs,
+            @Value("${app.security.rate-limit.login.backoff-max-ms:900000}") long backoffMaxMs
+    ) {
+        this.bucketStore = bucketStore;
+        this.identifierPolicy = new BucketPolicy("login-id", identifierCapacity, identifierRefill,
+                identifierFreeFailures, backoffBaseMs, backoffMaxMs);
+        this.ipPolicy = new BucketPolicy("login-ip", ipCapacity, ipRefill,
+                ipFreeFailures, backoffBaseMs, backoffMaxMs);
+        this.identifierRejected = rejectedCounter(meterRegistry, "identifier");
+        this.ipRejected = rejectedCounter(meterRegistry, "ip");
+    }
+
+    /**
+     * Melempar TooManyRequestsException (429) jika identifier atau IP sedang dibatasi.
+     */
+    public void checkAllowed(String identifier, String clientIp) {
+        long now = System.currentTimeMillis();
+        // IP dicek lebih dulu: percobaan yang ditolak karena IP tidak mengurangi token identifier,
+        // sehingga banjir request dari satu IP tidak ikut mengunci akun korban
+        long ipWait = bucketStore.tryAcquire(clientIp, ipPolicy, now);
+        if (ipWait > 0) {
+            ipRejected.increment();
+            throw tooManyRequests(ipWait);
+        }
+        long identifierWait = bucketStore.tryAcquire(normalize(identifier), identifierPolicy, now);
+        if (identifierWait > 0) {
+            identifierRejected.increment();
+            throw tooManyRequests(identifierWait);
+        }
+    }
+
+    public void recordFailure(String identifier, String clientIp) {
+        long now = System.currentTimeMillis();
+        bucketStore.recordFailure(normalize(identifier), identifierPolicy, now);
+        bucketStore.recordFailure(clientIp, ipPolicy, now);
+    }
+
+    // Hanya catatan identifier yang di-reset; satu akun valid tidak boleh membersihkan backoff IP.
+    // Kegagalan IP berkurang sendiri seiring bucket IP terisi kembali
+    public void recordSuccess(String identifier) {
+        bucketStore.recordSuccess(normalize(identifier), identifierPolicy);
+    }
+
+    private static TooManyRequestsException tooManyRequests(long waitMs) {
+        return new TooManyRequestsException(
+                "Terlalu banyak percobaan login, silakan coba lagi nanti",
+                Math.max(1, (waitMs + 999) / 1000));
+    }
+
+    private static String normalize(String identifier) {
+        if (identifier == null) {
+            return "";
+        }
+        String normalized = identifier.trim().toLowerCase(Locale.ROOT);
+        return normalized.length() > MAX_IDENTIFIER_LENGTH
+                ? normalized.substring(0, MAX_IDENTIFIER_LENGTH)
+                : normalized;
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String key) {
+        return Counter.builder("auth.rate_limit.rejected")
+                .description("Jumlah percobaan login yang ditolak rate limiter")
+                .tag("key", key)
+                .register(meterRegistry);
+    }
+}
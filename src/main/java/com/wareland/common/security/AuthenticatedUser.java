@@ -0,0 +1,69 @@
+package com.wareland.common.security;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+import com.wareland.user.model.User;
+import com.wareland.user.model.UserRole;
+
+/**
+ * Principal hasil verifikasi JWT. Berisi identitas user dari claim token
+ * sehingga service tidak perlu memuat ulang user dari database.
+ *
+ * userId/role/name bisa null untuk token lama yang hanya berisi subject (username).
+ */
+public class AuthenticatedUser implements AuthenticatedPrincipal {
+
+    private final Long userId;
+    private final String username;
+    private final UserRole role;
+    private final String name;
+    // Token epoch saat token diterbitkan (0 untuk token tanpa claim epoch)
+    private final int tokenEpoch;
+
+    public AuthenticatedUser(Long userId, String username, UserRole role, String name) {
+        this(userId, username, role, name, 0);
+    }
+
+    public AuthenticatedUser(Long userId, String username, UserRole role, String name, int tokenEpoch) {
+        this.userId = userId;
+        this.username = username;
+        this.role = role;
+        this.name = name;
+        this.tokenEpoch = tokenEpoch;
+    }
+
+    public static AuthenticatedUser of(User user) {
+        return new AuthenticatedUser(user.getUserId(), user.getUsername(), user.getUserRole(), user.getName(),
+                user.getTokenEpoch());
+    }
+
+    // Claim lengkap tersedia (token diterbitkan setelah claim uid/role/name ditambahkan)
+    public boolean hasIdentityClaims() {
+        return userId != null && role != null && name != null;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public UserRole getRole() {
+        return role;
+    }
+
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    public String getDisplayName() {
+        return name;
+    }
+
+    public int getTokenEpoch() {
+        return tokenEpoch;
+    }
+}
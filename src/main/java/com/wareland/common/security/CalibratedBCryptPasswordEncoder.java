@@ -0,0 +1,59 @@
+package com.wareland.common.security;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * BCrypt encoder dengan cost factor yang bisa dikalibrasi terhadap hardware saat startup.
+ *
+ * upgradeEncoding bawaan BCryptPasswordEncoder hanya me-rehash hash dengan cost lebih rendah.
+ * Hasil kalibrasi bisa berbeda ±1 antar instance atau antar restart (durasi di sekitar target
+ * tidak stabil); jika hash dengan cost berbeda juga di-rehash, instance yang berbeda akan
+ * saling menimpa hash yang sama di setiap login.
+ */
+public class CalibratedBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    // Password contoh untuk pengukuran; isinya tidak berpengaruh pada durasi BCrypt
+    private static final String SAMPLE_PASSWORD = "calibration-Sample-123";
+    private static final int SAMPLES_PER_COST = 2;
+
+    private final int strength;
+
+    public CalibratedBCryptPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    /**
+     * Cost factor tertinggi dalam [minStrength, maxStrength] yang durasi hash-nya masih
+     * di bawah targetMs pada mesin ini. Durasi BCrypt berlipat dua setiap kenaikan cost,
+     * jadi pengukuran berhenti begitu target terlampaui.
+     */
+    public static int calibrate(long targetMs, int minStrength, int maxStrength) {
+        // Pemanasan JIT dengan cost terendah
+        measureMs(4);
+        int chosen = minStrength;
+        for (int cost = minStrength; cost <= maxStrength; cost++) {
+            if (measureMs(cost) > targetMs) {
+                break;
+            }
+            chosen = cost;
+        }
+        return chosen;
+    }
+
+    // Durasi tercepat dari beberapa percobaan, agar gangguan sesaat tidak menurunkan cost
+    private static long measureMs(int cost) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(cost);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < SAMPLES_PER_COST; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            best = Math.min(best, (System.nanoTime() - start) / 1_000_000);
+        }
+        return best;
+    }
+}
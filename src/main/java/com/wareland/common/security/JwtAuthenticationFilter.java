@@ -1,17 +1,21 @@
 package com.wareland.common.security;
 
 import java.io.IOException;
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
 
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import com.wareland.user.repository.RevokedTokenRepository;
-
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -24,14 +28,21 @@ import jakarta.servlet.http.HttpServletResponse;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider tokenProvider;
-    private final RevokedTokenRepository revokedTokenRepository;
+    private final RevokedTokenRegistry revokedTokenRegistry;
+    private final TokenEpochRegistry tokenEpochRegistry;
+    // Admin tidak memiliki role tersendiri; username yang dikonfigurasi mendapat ROLE_ADMIN
+    private final Set<String> adminUsernames;
 
     public JwtAuthenticationFilter(
             JwtTokenProvider tokenProvider,
-            RevokedTokenRepository revokedTokenRepository
+            RevokedTokenRegistry revokedTokenRegistry,
+            TokenEpochRegistry tokenEpochRegistry,
+            @Value("${app.security.admin-usernames:}") Set<String> adminUsernames
     ) {
         this.tokenProvider = tokenProvider;
-        this.revokedTokenRepository = revokedTokenRepository;
+        this.revokedTokenRegistry = revokedTokenRegistry;
+        this.tokenEpochRegistry = tokenEpochRegistry;
+        this.adminUsernames = adminUsernames;
     }
 
     @Override
@@ -45,18 +56,22 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         if (header != null && header.startsWith("Bearer ")) {
             String token = header.substring(7);
+            // Digest dihitung sekali untuk cek revocation dan cache claim
+            TokenDigest digest = TokenDigest.of(token);
 
-            // Tolak token yang sudah di-revoke dan tidak valid
-            if (!revokedTokenRepository.existsByToken(token)
-                    && tokenProvider.validateToken(token)) {
-
-                String username = tokenProvider.getUsername(token);
+            // Tolak token yang sudah di-revoke (cek in-memory) dan tidak valid
+            AuthenticatedUser principal = revokedTokenRegistry.isRevoked(digest)
+                    ? null
+                    : tokenProvider.authenticate(token, digest);
 
+            // Token yang diterbitkan sebelum logout semua perangkat / ganti password ikut ditolak
+            if (principal != null && !tokenEpochRegistry.isStale(principal)) {
+                // authentication.getName() tetap mengembalikan username
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(
-                                username,
+                                principal,
                                 null,
-                                Collections.emptyList()
+                                authoritiesOf(principal)
                         );
 
                 authentication.setDetails(
@@ -73,6 +88,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private List<GrantedAuthority> authoritiesOf(AuthenticatedUser principal) {
+        List<GrantedAuthority> authorities = new ArrayList<>(2);
+        if (principal.getRole() != null) {
+            authorities.add(new SimpleGrantedAuthority("ROLE_" + principal.getRole().name()));
+        }
+        if (adminUsernames.contains(principal.getUsername())) {
+            authorities.add(new SimpleGrantedAuthority("ROLE_ADMIN"));
+        }
+        return authorities;
+    }
+
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request)
             throws ServletException {
@@ -1,5 +1,6 @@
 package com.wareland.common.security;
 
+import java.time.Instant;
 import java.util.Date;
 
 import javax.crypto.SecretKey;
@@ -7,38 +8,65 @@ import javax.crypto.SecretKey;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import com.wareland.user.model.UserRole;
+
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
 
 /**
  * Provider untuk pembuatan dan validasi JWT token.
+ *
+ * Parser dibuat sekali dan dipakai bersama (thread-safe). Principal hasil verifikasi
+ * di-cache per digest token sehingga signature tidak diverifikasi ulang di setiap request.
  */
 @Component
 public class JwtTokenProvider {
 
+    // Claim tambahan agar identitas user bisa dibaca tanpa query ke database
+    private static final String CLAIM_USER_ID = "uid";
+    private static final String CLAIM_ROLE = "role";
+    private static final String CLAIM_NAME = "name";
+    private static final String CLAIM_TOKEN_EPOCH = "tep";
+
     private final SecretKey key;
     private final long expirationMs;
+    private final JwtParser parser;
+    // Null jika cache dinonaktifkan (max-entries = 0)
+    private final VerifiedClaimsCache claimsCache;
 
     public JwtTokenProvider(
             @Value("${app.jwt.secret:change-this-secret-key}") String secret,
-            @Value("${app.jwt.expiration-ms:604800000}") long expirationMs
+            @Value("${app.jwt.expiration-ms:604800000}") long expirationMs,
+            @Value("${app.jwt.claims-cache.max-entries:10000}") int cacheMaxEntries,
+            @Value("${app.jwt.claims-cache.ttl-ms:300000}") long cacheTtlMs
     ) {
         // Membentuk secret key untuk signing JWT
         this.key = Keys.hmacShaKeyFor(secret.getBytes());
         this.expirationMs = expirationMs;
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build();
+        this.claimsCache = cacheMaxEntries > 0 ? new VerifiedClaimsCache(cacheMaxEntries, cacheTtlMs) : null;
     }
 
     /**
-     * Membuat JWT token berdasarkan username.
+     * Membuat JWT token berdasarkan identitas user (subject = username).
      */
-    public String generateToken(String username) {
+    public String generateToken(Long userId, String username, UserRole role, String name, int tokenEpoch) {
         Date now = new Date();
         Date expiry = new Date(now.getTime() + expirationMs);
 
         return Jwts.builder()
                 .setSubject(username)
+                .claim(CLAIM_USER_ID, userId)
+                .claim(CLAIM_ROLE, role != null ? role.name() : null)
+                .claim(CLAIM_NAME, name)
+                .claim(CLAIM_TOKEN_EPOCH, tokenEpoch)
                 .setIssuedAt(now)
                 .setExpiration(expiry)
                 .signWith(key, SignatureAlgorithm.HS256)
@@ -46,30 +74,113 @@ public class JwtTokenProvider {
     }
 
     /**
-     * Memvalidasi JWT token (signature & expiration).
+     * Memverifikasi token (signature & expiration) dan mengembalikan claim-nya.
+     * Null jika token tidak valid.
      */
-    public boolean validateToken(String token) {
+    public Claims parse(String token) {
+        if (!isWellFormed(token)) {
+            return null;
+        }
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(token);
-            return true;
-        } catch (Exception e) {
-            return false;
+            return parser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
         }
     }
 
+    /**
+     * Memverifikasi token dan membentuk principal-nya, memakai cache jika token
+     * yang sama sudah pernah diverifikasi. Null jika token tidak valid.
+     */
+    public AuthenticatedUser authenticate(String token, TokenDigest digest) {
+        long now = System.currentTimeMillis();
+        if (claimsCache != null) {
+            AuthenticatedUser cached = claimsCache.get(digest, now);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        Claims claims = parse(token);
+        if (claims == null) {
+            return null;
+        }
+        AuthenticatedUser principal = toPrincipal(claims);
+        if (claimsCache != null && claims.getExpiration() != null) {
+            claimsCache.put(digest, principal, claims.getExpiration().getTime(), now);
+        }
+        return principal;
+    }
+
+    /**
+     * Memvalidasi JWT token (signature & expiration).
+     */
+    public boolean validateToken(String token) {
+        return parse(token) != null;
+    }
+
     /**
      * Mengambil username dari JWT token.
      */
     public String getUsername(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parseOrThrow(token).getSubject();
+    }
 
-        return claims.getSubject();
+    /**
+     * Mengambil waktu kedaluwarsa token, termasuk token yang sudah lewat masa berlakunya.
+     * Null jika signature tidak valid atau token tidak bisa dibaca.
+     */
+    public Instant getExpiration(String token) {
+        if (!isWellFormed(token)) {
+            return null;
+        }
+        Claims claims;
+        try {
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (ExpiredJwtException e) {
+            // Signature sudah diverifikasi sebelum pengecekan expiration
+            claims = e.getClaims();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+        Date expiration = claims.getExpiration();
+        return expiration != null ? expiration.toInstant() : null;
+    }
+
+    /**
+     * Membentuk principal dari claim JWT token.
+     */
+    public AuthenticatedUser getAuthenticatedUser(String token) {
+        return toPrincipal(parseOrThrow(token));
+    }
+
+    private Claims parseOrThrow(String token) {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    private AuthenticatedUser toPrincipal(Claims claims) {
+        Number userId = claims.get(CLAIM_USER_ID, Number.class);
+        String role = claims.get(CLAIM_ROLE, String.class);
+        Number tokenEpoch = claims.get(CLAIM_TOKEN_EPOCH, Number.class);
+        return new AuthenticatedUser(
+                userId != null ? userId.longValue() : null,
+                claims.getSubject(),
+                role != null ? UserRole.valueOf(role) : null,
+                claims.get(CLAIM_NAME, String.class),
+                tokenEpoch != null ? tokenEpoch.intValue() : 0
+        );
+    }
+
+    // JWS selalu terdiri dari tiga bagian; string lain ditolak tanpa melempar exception
+    private static boolean isWellFormed(String token) {
+        if (token == null || token.isEmpty()) {
+            return false;
+        }
+        int first = token.indexOf('.');
+        if (first < 0) {
+            return false;
+        }
+        int second = token.indexOf('.', first + 1);
+        return second > 0 && token.indexOf('.', second + 1) < 0;
     }
 }
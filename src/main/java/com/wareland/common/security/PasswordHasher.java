@@ -0,0 +1,145 @@
+package com.wareland.common.security;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import com.wareland.common.exception.ServiceUnavailableException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Menjalankan hashing/verifikasi password (BCrypt, CPU-bound) di executor terpisah yang dibatasi.
+ *
+ * Jumlah thread dan panjang antrian dibatasi sehingga lonjakan login/registrasi tidak bisa
+ * memakai lebih dari porsi CPU yang dikonfigurasi. Jika antrian penuh, request langsung
+ * ditolak dengan 503 alih-alih menahan thread request lebih lama.
+ */
+@Component
+public class PasswordHasher {
+
+    private static final String MESSAGE_BUSY = "Server sedang sibuk, silakan coba lagi";
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final long maxWaitMs;
+    private final long retryAfterSeconds;
+
+    private final Timer queueWaitTimer;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejectedCounter;
+
+    public PasswordHasher(
+            PasswordEncoder passwordEncoder,
+            MeterRegistry meterRegistry,
+            @Value("${app.security.password-hashing.threads:0}") int threadCount,
+            @Value("${app.security.password-hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${app.security.password-hashing.max-wait-ms:10000}") long maxWaitMs,
+            @Value("${app.security.password-hashing.retry-after-seconds:1}") long retryAfterSeconds
+    ) {
+        this.passwordEncoder = passwordEncoder;
+        this.maxWaitMs = maxWaitMs;
+        this.retryAfterSeconds = retryAfterSeconds;
+
+        // 0 = otomatis: setengah jumlah core, sisanya tetap tersedia untuk API lain
+        int threads = threadCount > 0
+                ? threadCount
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("password-hash-");
+        threadFactory.setDaemon(true);
+        this.executor = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                threadFactory,
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+
+        this.queueWaitTimer = Timer.builder("auth.password_hash.queue_wait")
+                .description("Waktu tunggu di antrian sebelum hashing password dimulai")
+                .register(meterRegistry);
+        this.encodeTimer = hashTimer(meterRegistry, "encode");
+        this.matchesTimer = hashTimer(meterRegistry, "matches");
+        this.rejectedCounter = Counter.builder("auth.password_hash.rejected")
+                .description("Jumlah hashing password yang ditolak karena executor penuh")
+                .register(meterRegistry);
+        Gauge.builder("auth.password_hash.queue.size", executor, pool -> pool.getQueue().size())
+                .description("Jumlah hashing password yang menunggu di antrian")
+                .register(meterRegistry);
+    }
+
+    public String encode(String rawPassword) {
+        return run(() -> passwordEncoder.encode(rawPassword), encodeTimer);
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return run(() -> passwordEncoder.matches(rawPassword, encodedPassword), matchesTimer);
+    }
+
+    /**
+     * True jika hash tersimpan memakai format lain atau cost yang lebih rendah dari konfigurasi saat ini.
+     * Tidak menjalankan hashing, jadi aman dipanggil langsung dari thread request.
+     */
+    public boolean needsRehash(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> T run(Callable<T> task, Timer hashTimer) {
+        long enqueuedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                queueWaitTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+                return hashTimer.recordCallable(task);
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new ServiceUnavailableException(MESSAGE_BUSY, retryAfterSeconds);
+        }
+
+        try {
+            return future.get(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejectedCounter.increment();
+            throw new ServiceUnavailableException(MESSAGE_BUSY, retryAfterSeconds);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException(MESSAGE_BUSY, retryAfterSeconds);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private static Timer hashTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("auth.password_hash.duration")
+                .description("Durasi hashing/verifikasi password")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,185 @@
+package com.wareland.common.security;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.wareland.common.util.BloomFilter;
+import com.wareland.user.model.RevokedToken;
+import com.wareland.user.repository.RevokedTokenRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Daftar token yang di-revoke, disimpan in-memory agar pengecekan di setiap request
+ * tidak memerlukan query database.
+ *
+ * Bloom filter menjawab "pasti belum di-revoke" untuk hampir semua token; hanya jika
+ * filter menjawab "mungkin" barulah set hash SHA-256 dicek secara eksak. Entri dihapus
+ * setelah JWT-nya kedaluwarsa, karena token tersebut sudah ditolak oleh validasi signature.
+ *
+ * Revocation dari instance lain ditarik berkala dari tabel revoked_tokens. Sinkronisasi tidak
+ * memakai ID terakhir sebagai batas: ID IDENTITY bisa ter-commit tidak berurutan, sehingga
+ * baris dengan ID lebih kecil yang commit belakangan akan terlewat. Setiap sinkronisasi membaca
+ * ulang baris dengan revoked_at dalam jendela sync-overlap-ms terakhir; baris yang sudah
+ * dikenal cukup ditimpa ulang.
+ */
+@Component
+public class RevokedTokenRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(RevokedTokenRegistry.class);
+    private static final int LOAD_PAGE_SIZE = 1000;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final int expectedTokens;
+    private final double falsePositiveRate;
+    private final long syncOverlapMs;
+
+    // hash token (hex) -> waktu kedaluwarsa JWT
+    private final Map<String, Instant> revoked = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter;
+    private volatile boolean loaded;
+    // revoked_at terbesar yang sudah dibaca; jendela sinkronisasi dihitung mundur dari sini
+    private Instant syncedUntil = Instant.EPOCH;
+
+    public RevokedTokenRegistry(
+            RevokedTokenRepository revokedTokenRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.security.revocation.expected-tokens:100000}") int expectedTokens,
+            @Value("${app.security.revocation.false-positive-rate:0.001}") double falsePositiveRate,
+            @Value("${app.security.revocation.sync-overlap-ms:60000}") long syncOverlapMs
+    ) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.expectedTokens = expectedTokens;
+        this.falsePositiveRate = falsePositiveRate;
+        this.syncOverlapMs = syncOverlapMs;
+        this.filter = new BloomFilter(expectedTokens, falsePositiveRate);
+
+        Gauge.builder("auth.revoked_tokens.cached", revoked, Map::size)
+                .description("Jumlah token revoked yang belum kedaluwarsa di memori")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Mengecek apakah token sudah di-revoke. Tanpa query database setelah cache dimuat.
+     */
+    public boolean isRevoked(String token) {
+        return isRevoked(TokenDigest.of(token));
+    }
+
+    public boolean isRevoked(TokenDigest digest) {
+        if (!loaded) {
+            // Request yang masuk sebelum cache selesai dimuat tetap dicek ke database
+            return revokedTokenRepository.existsByTokenHash(digest.hex());
+        }
+        if (!filter.mightContain(digest.high(), digest.low())) {
+            return false;
+        }
+        return revoked.containsKey(digest.hex());
+    }
+
+    /**
+     * Mencatat hash token sebagai revoked sampai JWT-nya kedaluwarsa.
+     */
+    public void revoke(TokenDigest digest, Instant expiresAt) {
+        if (expiresAt.isAfter(Instant.now())) {
+            add(digest, expiresAt);
+        }
+    }
+
+    // Dijalankan sekali saat aplikasi siap; sebelum itu isRevoked memakai database
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void loadFromDatabase() {
+        int count = pullRevocations(null);
+        loaded = true;
+        log.info("Cache revoked token dimuat: {} token aktif dari {} baris", revoked.size(), count);
+    }
+
+    /**
+     * Menarik revocation baru dari database (misal logout di instance lain).
+     */
+    @Scheduled(fixedDelayString = "${app.security.revocation.sync-interval-ms:5000}")
+    public synchronized void syncFromDatabase() {
+        if (loaded) {
+            // Jendela mencakup selisih jam antar instance dan transaksi yang commit terlambat
+            pullRevocations(syncedUntil.minusMillis(syncOverlapMs));
+        }
+    }
+
+    /**
+     * Menghapus entri yang JWT-nya sudah kedaluwarsa dan membangun ulang Bloom filter
+     * agar bit milik token lama tidak menumpuk.
+     */
+    @Scheduled(fixedDelayString = "${app.security.revocation.prune-interval-ms:600000}")
+    public synchronized void prune() {
+        Instant now = Instant.now();
+        int before = revoked.size();
+        revoked.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+        rebuildFilter();
+        if (before != revoked.size()) {
+            log.debug("Prune cache revoked token: {} entri kedaluwarsa dihapus", before - revoked.size());
+        }
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    // since null = seluruh tabel (load awal); selain itu hanya baris dengan revoked_at >= since
+    private int pullRevocations(Instant since) {
+        int count = 0;
+        Instant now = Instant.now();
+        long afterId = 0;
+        List<RevokedToken> page;
+        do {
+            PageRequest pageRequest = PageRequest.of(0, LOAD_PAGE_SIZE);
+            page = since == null
+                    ? revokedTokenRepository.findByIdGreaterThanOrderByIdAsc(afterId, pageRequest)
+                    : revokedTokenRepository.findByRevokedAtGreaterThanEqualAndIdGreaterThanOrderByIdAsc(
+                            since, afterId, pageRequest);
+            for (RevokedToken row : page) {
+                if (row.getExpiresAt().isAfter(now)) {
+                    add(TokenDigest.fromHex(row.getTokenHash()), row.getExpiresAt());
+                }
+                if (row.getRevokedAt().isAfter(syncedUntil)) {
+                    syncedUntil = row.getRevokedAt();
+                }
+                afterId = row.getId();
+            }
+            count += page.size();
+        } while (page.size() == LOAD_PAGE_SIZE);
+        return count;
+    }
+
+    // Sinkron dengan rebuildFilter agar token tidak hilang dari filter yang sedang diganti
+    private synchronized void add(TokenDigest digest, Instant expiresAt) {
+        revoked.put(digest.hex(), expiresAt);
+        if (revoked.size() > filter.getCapacity()) {
+            rebuildFilter();
+        } else {
+            filter.put(digest.high(), digest.low());
+        }
+    }
+
+    private void rebuildFilter() {
+        // Kapasitas tumbuh dua kali lipat dari isi saat ini agar rebuild tidak sering terjadi
+        int capacity = Math.max(expectedTokens, revoked.size() * 2);
+        BloomFilter rebuilt = new BloomFilter(capacity, falsePositiveRate);
+        for (String hex : revoked.keySet()) {
+            TokenDigest digest = TokenDigest.fromHex(hex);
+            rebuilt.put(digest.high(), digest.low());
+        }
+        filter = rebuilt;
+    }
+}
@@ -0,0 +1,49 @@
+package com.wareland.common.security;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Digest SHA-256 dari token JWT, agar token mentah tidak perlu disimpan untuk revocation.
+ */
+public final class TokenDigest {
+
+    private final byte[] bytes;
+
+    private TokenDigest(byte[] bytes) {
+        this.bytes = bytes;
+    }
+
+    public static TokenDigest of(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return new TokenDigest(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 wajib tersedia di setiap JVM
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static TokenDigest fromHex(String hex) {
+        return new TokenDigest(HexFormat.of().parseHex(hex));
+    }
+
+    /**
+     * Representasi hex (64 karakter) untuk kunci lookup.
+     */
+    public String hex() {
+        return HexFormat.of().formatHex(bytes);
+    }
+
+    // Dua hash 64-bit pertama dari digest, dipakai sebagai input Bloom filter
+    public long high() {
+        return ByteBuffer.wrap(bytes, 0, 8).getLong();
+    }
+
+    public long low() {
+        return ByteBuffer.wrap(bytes, 8, 8).getLong();
+    }
+}
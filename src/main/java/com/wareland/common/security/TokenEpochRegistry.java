@@ -0,0 +1,195 @@
+package com.wareland.common.security;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.wareland.user.event.TokenEpochChangedEvent;
+import com.wareland.user.repository.UserRepository;
+
+/**
+ * Token epoch per user, disimpan in-memory untuk dibandingkan dengan claim "tep" di setiap request.
+ *
+ * Hanya user dengan epoch > 0 yang disimpan, sebagai dua array terurut (userId, epoch) yang
+ * diganti utuh setiap kali berubah (copy-on-write). Pembacaan cukup satu binary search tanpa
+ * lock maupun alokasi; penulisan jarang terjadi (logout semua perangkat, ganti password).
+ *
+ * Perubahan dari instance lain ditarik berkala dari tabel users, hanya untuk baris dengan
+ * token_epoch_changed_at dalam jendela sync-overlap-ms terakhir (lewat index), bukan seluruh tabel.
+ * Jendela tumpang tindih menutup selisih jam antar instance dan transaksi yang commit terlambat.
+ */
+@Component
+public class TokenEpochRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenEpochRegistry.class);
+
+    private final UserRepository userRepository;
+    private final long syncOverlapMs;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private volatile boolean loaded;
+    // Waktu perubahan terbaru yang sudah dibaca, dijaga syncLock. Query database dijalankan
+    // di luar lock snapshot agar update dari login tidak menunggu
+    private final Object syncLock = new Object();
+    private Instant syncedUntil = Instant.EPOCH;
+
+    public TokenEpochRegistry(
+            UserRepository userRepository,
+            @Value("${app.security.token-epoch.sync-overlap-ms:60000}") long syncOverlapMs
+    ) {
+        this.userRepository = userRepository;
+        this.syncOverlapMs = syncOverlapMs;
+    }
+
+    /**
+     * Epoch terkini milik user (0 jika belum pernah dinaikkan).
+     */
+    public int currentEpoch(long userId) {
+        if (!loaded) {
+            // Request yang masuk sebelum data dimuat tetap dicek ke database
+            return userRepository.findTokenEpoch(userId).orElse(0);
+        }
+        return snapshot.epochOf(userId);
+    }
+
+    /**
+     * True jika token diterbitkan sebelum epoch user terakhir dinaikkan.
+     * Token lama tanpa claim uid tidak bisa dicek dan tetap diterima.
+     */
+    public boolean isStale(AuthenticatedUser principal) {
+        Long userId = principal.getUserId();
+        return userId != null && principal.getTokenEpoch() < currentEpoch(userId);
+    }
+
+    /**
+     * Mencatat epoch user. Nilai hanya bisa naik, sehingga urutan update tidak berpengaruh.
+     */
+    public synchronized void update(long userId, int epoch) {
+        Snapshot current = snapshot;
+        if (epoch > current.epochOf(userId)) {
+            snapshot = current.with(userId, epoch);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadFromDatabase() {
+        synchronized (syncLock) {
+            pullChanges(Instant.EPOCH);
+        }
+        loaded = true;
+        log.info("Token epoch dimuat untuk {} user", snapshot.userIds.length);
+    }
+
+    /**
+     * Menarik epoch terbaru dari database (misal logout semua perangkat di instance lain).
+     */
+    @Scheduled(fixedDelayString = "${app.security.token-epoch.sync-interval-ms:5000}")
+    public void syncFromDatabase() {
+        if (!loaded) {
+            return;
+        }
+        synchronized (syncLock) {
+            pullChanges(syncedUntil.minusMillis(syncOverlapMs));
+        }
+    }
+
+    // Cache diperbarui setelah commit agar epoch yang dibaca instance ini sama dengan database
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTokenEpochChanged(TokenEpochChangedEvent event) {
+        update(event.getUserId(), event.getTokenEpoch());
+    }
+
+    private void pullChanges(Instant since) {
+        List<Object[]> rows = userRepository.findTokenEpochsChangedSince(since);
+        if (rows.isEmpty()) {
+            return;
+        }
+        rows.sort((a, b) -> Long.compare(((Number) a[0]).longValue(), ((Number) b[0]).longValue()));
+        long[] userIds = new long[rows.size()];
+        int[] epochs = new int[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            Object[] row = rows.get(i);
+            userIds[i] = ((Number) row[0]).longValue();
+            epochs[i] = ((Number) row[1]).intValue();
+            Instant changedAt = (Instant) row[2];
+            if (changedAt.isAfter(syncedUntil)) {
+                syncedUntil = changedAt;
+            }
+        }
+        Snapshot pulled = new Snapshot(userIds, epochs);
+        synchronized (this) {
+            // Digabung dengan snapshot saat ini; untuk setiap user diambil epoch terbesar
+            snapshot = Snapshot.merge(snapshot, pulled);
+        }
+    }
+
+    private static final class Snapshot {
+        private static final Snapshot EMPTY = new Snapshot(new long[0], new int[0]);
+
+        // Terurut menaik; epochs[i] milik userIds[i]
+        private final long[] userIds;
+        private final int[] epochs;
+
+        private Snapshot(long[] userIds, int[] epochs) {
+            this.userIds = userIds;
+            this.epochs = epochs;
+        }
+
+        // Gabungan dua snapshot terurut dalam satu lintasan, epoch terbesar yang dipakai
+        private static Snapshot merge(Snapshot left, Snapshot right) {
+            long[] ids = new long[left.userIds.length + right.userIds.length];
+            int[] values = new int[ids.length];
+            int i = 0;
+            int j = 0;
+            int n = 0;
+            while (i < left.userIds.length || j < right.userIds.length) {
+                long leftId = i < left.userIds.length ? left.userIds[i] : Long.MAX_VALUE;
+                long rightId = j < right.userIds.length ? right.userIds[j] : Long.MAX_VALUE;
+                if (leftId == rightId) {
+                    ids[n] = leftId;
+                    values[n++] = Math.max(left.epochs[i++], right.epochs[j++]);
+                } else if (leftId < rightId) {
+                    ids[n] = leftId;
+                    values[n++] = left.epochs[i++];
+                } else {
+                    ids[n] = rightId;
+                    values[n++] = right.epochs[j++];
+                }
+            }
+            return new Snapshot(Arrays.copyOf(ids, n), Arrays.copyOf(values, n));
+        }
+
+        private int epochOf(long userId) {
+            int index = Arrays.binarySearch(userIds, userId);
+            return index >= 0 ? epochs[index] : 0;
+        }
+
+        private Snapshot with(long userId, int epoch) {
+            int index = Arrays.binarySearch(userIds, userId);
+            if (index >= 0) {
+                int[] newEpochs = epochs.clone();
+                newEpochs[index] = epoch;
+                return new Snapshot(userIds, newEpochs);
+            }
+            int insertAt = -index - 1;
+            long[] newIds = new long[userIds.length + 1];
+            int[] newEpochs = new int[epochs.length + 1];
+            System.arraycopy(userIds, 0, newIds, 0, insertAt);
+            System.arraycopy(epochs, 0, newEpochs, 0, insertAt);
+            newIds[insertAt] = userId;
+            newEpochs[insertAt] = epoch;
+            System.arraycopy(userIds, insertAt, newIds, insertAt + 1, userIds.length - insertAt);
+            System.arraycopy(epochs, insertAt, newEpochs, insertAt + 1, epochs.length - insertAt);
+            return new Snapshot(newIds, newEpochs);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.wareland.common.security;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache LRU berbatas untuk principal hasil verifikasi JWT, dengan kunci digest token.
+ *
+ * Masa berlaku entri tidak pernah melewati expiration token itu sendiri. Cache dipecah
+ * menjadi beberapa segmen dengan lock masing-masing agar request paralel tidak berebut satu lock.
+ */
+final class VerifiedClaimsCache {
+
+    private static final int SEGMENTS = 16;
+
+    private final Segment[] segments;
+    private final long maxTtlMs;
+
+    VerifiedClaimsCache(int maxEntries, long maxTtlMs) {
+        this.segments = new Segment[SEGMENTS];
+        int perSegment = Math.max(1, (maxEntries + SEGMENTS - 1) / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(perSegment);
+        }
+        this.maxTtlMs = maxTtlMs;
+    }
+
+    AuthenticatedUser get(TokenDigest digest, long now) {
+        Segment segment = segmentOf(digest);
+        String key = digest.hex();
+        synchronized (segment) {
+            Entry entry = segment.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt <= now) {
+                segment.remove(key);
+                return null;
+            }
+            return entry.principal;
+        }
+    }
+
+    void put(TokenDigest digest, AuthenticatedUser principal, long tokenExpiresAt, long now) {
+        long expiresAt = Math.min(tokenExpiresAt, now + maxTtlMs);
+        if (expiresAt <= now) {
+            return;
+        }
+        Segment segment = segmentOf(digest);
+        synchronized (segment) {
+            segment.put(digest.hex(), new Entry(principal, expiresAt));
+        }
+    }
+
+    private Segment segmentOf(TokenDigest digest) {
+        return segments[(int) (digest.low() & (SEGMENTS - 1))];
+    }
+
+    private static final class Entry {
+        private final AuthenticatedUser principal;
+        private final long expiresAt;
+
+        private Entry(AuthenticatedUser principal, long expiresAt) {
+            this.principal = principal;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    // LinkedHashMap dengan access order: entri yang paling lama tidak dipakai dibuang lebih dulu
+    private static final class Segment extends LinkedHashMap<String, Entry> {
+        private final int capacity;
+
+        private Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > capacity;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.wareland.common.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter sederhana di atas array bit 64-bit.
+ *
+ * Posisi bit diturunkan dari dua nilai hash dengan double hashing (h1 + i * h2),
+ * sehingga pemanggil cukup menyediakan dua hash 64-bit yang independen.
+ * Penambahan aman dipanggil dari banyak thread; elemen tidak bisa dihapus,
+ * jadi filter dibangun ulang jika isinya perlu dikurangi.
+ */
+public final class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+    private final int capacity;
+
+    /**
+     * @param expectedInsertions jumlah elemen yang diharapkan
+     * @param falsePositiveRate  peluang false positive saat isi mencapai expectedInsertions
+     */
+    public BloomFilter(int expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions < 1) {
+            expectedInsertions = 1;
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("falsePositiveRate harus di antara 0 dan 1");
+        }
+        double ln2 = Math.log(2);
+        long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (ln2 * ln2));
+        int words = (int) Math.max(1, (optimalBits + 63) / 64);
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * ln2));
+        this.capacity = expectedInsertions;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void put(long hash1, long hash2) {
+        for (int i = 0; i < hashCount; i++) {
+            long index = indexOf(hash1, hash2, i);
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+            long current = bits.get(word);
+            while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+                current = bits.get(word);
+            }
+        }
+    }
+
+    /**
+     * False berarti elemen pasti belum pernah ditambahkan; true berarti mungkin ada.
+     */
+    public boolean mightContain(long hash1, long hash2) {
+        for (int i = 0; i < hashCount; i++) {
+            long index = indexOf(hash1, hash2, i);
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long indexOf(long hash1, long hash2, int i) {
+        return Math.floorMod(hash1 + i * hash2, bitCount);
+    }
+}
@@ -0,0 +1,90 @@
+package com.wareland.image.controller;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.wareland.common.exception.ResourceNotFoundException;
+import com.wareland.image.service.ImageService;
+import com.wareland.image.service.ImageVariantPipeline;
+import com.wareland.image.storage.ImageVariant;
+import com.wareland.image.storage.StoredImage;
+
+/**
+ * Endpoint publik untuk menyajikan gambar yang disimpan lokal.
+ * Isi gambar tidak pernah berubah untuk hash yang sama, sehingga aman di-cache selamanya.
+ * Request Range dilayani Spring MVC sebagai ResourceRegion langsung dari file.
+ */
+@RestController
+@RequestMapping("/api/images")
+public class ImageController {
+
+    private final ImageService imageService;
+    private final ImageVariantPipeline variantPipeline;
+
+    public ImageController(ImageService imageService, ImageVariantPipeline variantPipeline) {
+        this.imageService = imageService;
+        this.variantPipeline = variantPipeline;
+    }
+
+    // GET /api/images/{hash}
+    @GetMapping("/{hash}")
+    public ResponseEntity<Resource> getImage(@PathVariable String hash) {
+        StoredImage image = findImage(hash);
+        return ResponseEntity.ok()
+                .contentType(contentTypeOf(image))
+                .cacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable())
+                .eTag(hash)
+                .body(imageService.open(hash));
+    }
+
+    // GET /api/images/{hash}/{variant} (thumbnail, card, detail)
+    @GetMapping("/{hash}/{variant}")
+    public ResponseEntity<Resource> getVariant(@PathVariable String hash, @PathVariable String variant) {
+        ImageVariant imageVariant = ImageVariant.fromKey(variant);
+        if (imageVariant == null) {
+            throw new ResourceNotFoundException("Ukuran gambar tidak dikenal");
+        }
+        if (imageService.hasVariant(hash, imageVariant)) {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.IMAGE_JPEG)
+                    .cacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable())
+                    .eTag(hash + "-" + imageVariant.getKey())
+                    .body(imageService.openVariant(hash, imageVariant));
+        }
+
+        StoredImage image = findImage(hash);
+        // Variant yang gagal dibuat tidak dijadwalkan ulang per request; gambar asli di-cache lebih lama
+        if (variantPipeline.hasFailed(hash)) {
+            return ResponseEntity.ok()
+                    .contentType(contentTypeOf(image))
+                    .cacheControl(CacheControl.maxAge(1, TimeUnit.HOURS).cachePublic())
+                    .body(imageService.open(hash));
+        }
+
+        // Variant belum tersedia: sajikan gambar asli dengan cache singkat dan jadwalkan pembuatannya
+        variantPipeline.submit(hash);
+        return ResponseEntity.ok()
+                .contentType(contentTypeOf(image))
+                .cacheControl(CacheControl.maxAge(60, TimeUnit.SECONDS).cachePublic())
+                .body(imageService.open(hash));
+    }
+
+    private StoredImage findImage(String hash) {
+        return imageService.find(hash)
+                .orElseThrow(() -> new ResourceNotFoundException("Gambar tidak ditemukan"));
+    }
+
+    private static MediaType contentTypeOf(StoredImage image) {
+        return image.getFormat() != null
+                ? MediaType.parseMediaType(image.getFormat().getContentType())
+                : MediaType.APPLICATION_OCTET_STREAM;
+    }
+}
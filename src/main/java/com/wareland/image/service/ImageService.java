@@ -0,0 +1,83 @@
+package com.wareland.image.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Optional;
+
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import com.wareland.image.storage.ImageStorage;
+import com.wareland.image.storage.ImageVariant;
+import com.wareland.image.storage.StoredImage;
+
+/**
+ * Service untuk upload dan pengambilan gambar property.
+ * Gambar lokal direferensikan dengan URL relatif /api/images/{hash}.
+ */
+@Service
+public class ImageService {
+
+    public static final String URL_PREFIX = "/api/images/";
+
+    private final ImageStorage imageStorage;
+
+    public ImageService(ImageStorage imageStorage) {
+        this.imageStorage = imageStorage;
+    }
+
+    public StoredImage store(InputStream content) {
+        try {
+            return imageStorage.store(content);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Gagal menyimpan gambar", e);
+        }
+    }
+
+    public Optional<StoredImage> find(String hash) {
+        try {
+            return imageStorage.find(hash);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Gagal membaca gambar", e);
+        }
+    }
+
+    public Resource open(String hash) {
+        return imageStorage.open(hash);
+    }
+
+    public boolean hasVariant(String hash, ImageVariant variant) {
+        return imageStorage.hasVariant(hash, variant);
+    }
+
+    public Resource openVariant(String hash, ImageVariant variant) {
+        return imageStorage.openVariant(hash, variant);
+    }
+
+    public String urlFor(String hash) {
+        return URL_PREFIX + hash;
+    }
+
+    /**
+     * Mengambil hash dari URL gambar lokal. Null jika URL bukan gambar lokal.
+     */
+    public String hashFromUrl(String imageUrl) {
+        if (imageUrl == null || !imageUrl.startsWith(URL_PREFIX)) {
+            return null;
+        }
+        return imageUrl.substring(URL_PREFIX.length());
+    }
+
+    /**
+     * URL variant ukuran untuk sebuah imageUrl.
+     * URL eksternal tidak memiliki variant, sehingga dikembalikan apa adanya.
+     */
+    public String variantUrlFor(String imageUrl, ImageVariant variant) {
+        String hash = hashFromUrl(imageUrl);
+        if (hash == null) {
+            return imageUrl;
+        }
+        return URL_PREFIX + hash + "/" + variant.getKey();
+    }
+}
@@ -0,0 +1,366 @@
+package com.wareland.image.service;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.wareland.image.storage.ImageStorage;
+import com.wareland.image.storage.ImageVariant;
+import com.wareland.property.event.PropertyImageChangedEvent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Pipeline background untuk membuat variant ukuran (thumbnail, card, detail) dari gambar lokal.
+ *
+ * Worker pool dan antriannya dibatasi; jika antrian penuh, job ditunda dengan backoff
+ * alih-alih memblok pemanggil. Job idempotent: variant yang sudah ada dilewati,
+ * sehingga aman diulang setelah gagal maupun dipicu berkali-kali.
+ *
+ * Gambar yang gagal diproses dicatat dan tidak dijadwalkan ulang oleh request berikutnya:
+ * yang tidak didukung (tidak bisa di-decode, melebihi batas piksel) tidak pernah dicoba lagi,
+ * yang gagal setelah seluruh percobaan baru boleh dicoba lagi setelah jeda.
+ */
+@Service
+public class ImageVariantPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageVariantPipeline.class);
+
+    private final ImageStorage imageStorage;
+    private final ImageService imageService;
+    private final ThreadPoolExecutor workers;
+    private final ScheduledExecutorService retryScheduler;
+    // Hash yang sedang diproses/menunggu, mencegah job ganda untuk gambar yang sama
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    // Hash yang gagal diproses -> waktu paling cepat boleh dicoba lagi (Long.MAX_VALUE = tidak pernah).
+    // Hanya berisi gambar yang tersimpan, karena hash yang tidak dikenal ditolak sebelum submit
+    private final Map<String, Long> failedUntil = new ConcurrentHashMap<>();
+
+    private final int maxAttempts;
+    private final long retryDelayMs;
+    private final long failureRetryAfterMs;
+    private final long maxPixels;
+    private final float jpegQuality;
+
+    private final Timer decodeTimer;
+    private final Timer resizeTimer;
+    private final Timer encodeTimer;
+    private final Timer storeTimer;
+    private final Counter completedCounter;
+    private final Counter failedCounter;
+    private final Counter retriedCounter;
+    private final Counter rejectedCounter;
+
+    public ImageVariantPipeline(
+            ImageStorage imageStorage,
+            ImageService imageService,
+            MeterRegistry meterRegistry,
+            @Value("${app.image.variants.workers:0}") int workerCount,
+            @Value("${app.image.variants.queue-capacity:100}") int queueCapacity,
+            @Value("${app.image.variants.max-attempts:3}") int maxAttempts,
+            @Value("${app.image.variants.retry-delay-ms:2000}") long retryDelayMs,
+            @Value("${app.image.variants.failure-retry-after-ms:3600000}") long failureRetryAfterMs,
+            @Value("${app.image.variants.max-pixels:50000000}") long maxPixels,
+            @Value("${app.image.variants.jpeg-quality:0.8}") float jpegQuality
+    ) {
+        this.imageStorage = imageStorage;
+        this.imageService = imageService;
+        this.maxAttempts = maxAttempts;
+        this.retryDelayMs = retryDelayMs;
+        this.failureRetryAfterMs = failureRetryAfterMs;
+        this.maxPixels = maxPixels;
+        this.jpegQuality = jpegQuality;
+
+        // 0 = otomatis: setengah jumlah core agar resize tidak menghabiskan CPU request lain
+        int threads = workerCount > 0
+                ? workerCount
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        CustomizableThreadFactory workerThreads = new CustomizableThreadFactory("image-variant-");
+        workerThreads.setDaemon(true);
+        this.workers = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                workerThreads,
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        CustomizableThreadFactory retryThreads = new CustomizableThreadFactory("image-variant-retry-");
+        retryThreads.setDaemon(true);
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(retryThreads);
+
+        this.decodeTimer = stageTimer(meterRegistry, "decode");
+        this.resizeTimer = stageTimer(meterRegistry, "resize");
+        this.encodeTimer = stageTimer(meterRegistry, "encode");
+        this.storeTimer = stageTimer(meterRegistry, "store");
+        this.completedCounter = jobCounter(meterRegistry, "completed");
+        this.failedCounter = jobCounter(meterRegistry, "failed");
+        this.retriedCounter = jobCounter(meterRegistry, "retried");
+        this.rejectedCounter = jobCounter(meterRegistry, "rejected");
+        Gauge.builder("image.variants.queue.size", workers, executor -> executor.getQueue().size())
+                .description("Jumlah job variant gambar yang menunggu di antrian")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Menjadwalkan pembuatan variant untuk gambar lokal.
+     * Mengembalikan false jika seluruh variant sudah ada, job sudah berjalan, atau gambar gagal diproses.
+     */
+    public boolean submit(String hash) {
+        if (hash == null || hasFailed(hash) || missingVariants(hash).isEmpty()) {
+            return false;
+        }
+        if (!inFlight.add(hash)) {
+            return false;
+        }
+        enqueue(hash, 1);
+        return true;
+    }
+
+    /**
+     * True jika variant gambar gagal dibuat dan belum boleh dicoba lagi.
+     */
+    public boolean hasFailed(String hash) {
+        Long until = failedUntil.get(hash);
+        if (until == null) {
+            return false;
+        }
+        if (until > System.currentTimeMillis()) {
+            return true;
+        }
+        failedUntil.remove(hash, until);
+        return false;
+    }
+
+    // Dipicu setelah commit saat imageUrl property di-set melalui PropertyService
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPropertyImageChanged(PropertyImageChangedEvent event) {
+        // URL eksternal tidak diproses, hanya gambar yang tersimpan lokal
+        submit(imageService.hashFromUrl(event.getImageUrl()));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        retryScheduler.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    private void enqueue(String hash, int attempt) {
+        try {
+            workers.execute(() -> process(hash, attempt));
+        } catch (RejectedExecutionException e) {
+            // Antrian penuh: tunda dengan backoff, jangan blok thread pemanggil
+            rejectedCounter.increment();
+            scheduleRetry(hash, attempt);
+        }
+    }
+
+    private void process(String hash, int attempt) {
+        try {
+            generate(hash);
+            completedCounter.increment();
+            inFlight.remove(hash);
+        } catch (UnsupportedImageException e) {
+            // Tidak ada gunanya diulang (format tidak didukung / terlalu besar); isi gambar per hash tetap
+            failedCounter.increment();
+            failedUntil.put(hash, Long.MAX_VALUE);
+            inFlight.remove(hash);
+            log.warn("Variant gambar {} tidak dibuat: {}", hash, e.getMessage());
+        } catch (Exception e) {
+            log.warn("Gagal membuat variant gambar {} (percobaan {}/{})", hash, attempt, maxAttempts, e);
+            scheduleRetry(hash, attempt);
+        }
+    }
+
+    private void scheduleRetry(String hash, int attempt) {
+        if (attempt >= maxAttempts) {
+            failedCounter.increment();
+            failedUntil.put(hash, System.currentTimeMillis() + failureRetryAfterMs);
+            inFlight.remove(hash);
+            return;
+        }
+        retriedCounter.increment();
+        long delay = retryDelayMs << (attempt - 1);
+        try {
+            retryScheduler.schedule(() -> enqueue(hash, attempt + 1), delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Aplikasi sedang shutdown
+            inFlight.remove(hash);
+        }
+    }
+
+    private void generate(String hash) throws Exception {
+        List<ImageVariant> missing = missingVariants(hash);
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        // Variant diproses dari yang terbesar; hasilnya menjadi sumber variant berikutnya
+        missing.sort((a, b) -> Integer.compare(b.getMaxWidth(), a.getMaxWidth()));
+
+        long start = System.nanoTime();
+        BufferedImage current = decode(hash, missing.get(0).getMaxWidth());
+        decodeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        for (ImageVariant variant : missing) {
+            start = System.nanoTime();
+            current = resize(current, variant.getMaxWidth());
+            resizeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+            start = System.nanoTime();
+            byte[] encoded = encodeJpeg(current);
+            encodeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+            start = System.nanoTime();
+            imageStorage.storeVariant(hash, variant, out -> out.write(encoded));
+            storeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private List<ImageVariant> missingVariants(String hash) {
+        List<ImageVariant> missing = new ArrayList<>();
+        for (ImageVariant variant : ImageVariant.values()) {
+            if (!imageStorage.hasVariant(hash, variant)) {
+                missing.add(variant);
+            }
+        }
+        return missing;
+    }
+
+    private BufferedImage decode(String hash, int targetWidth) throws IOException, UnsupportedImageException {
+        try (InputStream in = imageStorage.open(hash).getInputStream();
+             ImageInputStream iis = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(iis);
+            if (!readers.hasNext()) {
+                throw new UnsupportedImageException("format tidak dapat di-decode");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(iis, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    throw new UnsupportedImageException("dimensi " + width + "x" + height + " melebihi batas");
+                }
+                // Subsampling saat decode menghemat memori untuk foto beresolusi sangat tinggi
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, width / (targetWidth * 2));
+                if (subsampling > 1) {
+                    param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                }
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage resize(BufferedImage source, int maxWidth) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        BufferedImage current = source;
+
+        // Turunkan bertahap (setengah per langkah) agar hasil bilinear tetap halus
+        while (width / 2 >= maxWidth) {
+            width /= 2;
+            height = Math.max(1, height / 2);
+            current = draw(current, width, height);
+        }
+        if (width > maxWidth) {
+            height = Math.max(1, (int) Math.round((double) height * maxWidth / width));
+            width = maxWidth;
+            current = draw(current, width, height);
+        }
+        // Pastikan tanpa alpha channel untuk encoding JPEG
+        if (current.getType() != BufferedImage.TYPE_INT_RGB) {
+            current = draw(current, width, height);
+        }
+        return current;
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    private byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(buffer)) {
+            writer.setOutput(out);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return buffer.toByteArray();
+    }
+
+    private static Timer stageTimer(MeterRegistry registry, String stage) {
+        return Timer.builder("image.variants.stage")
+                .description("Durasi tiap tahap pembuatan variant gambar")
+                .tag("stage", stage)
+                .register(registry);
+    }
+
+    private static Counter jobCounter(MeterRegistry registry, String result) {
+        return Counter.builder("image.variants.jobs")
+                .description("Jumlah job variant gambar berdasarkan hasil")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private static final class UnsupportedImageException extends Exception {
+        private UnsupportedImageException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.wareland.image.storage;
+
+/**
+ * Format gambar yang diterima, dideteksi dari magic bytes (bukan dari header client).
+ */
+public enum ImageFormat {
+
+    JPEG("image/jpeg"),
+    PNG("image/png"),
+    GIF("image/gif"),
+    WEBP("image/webp");
+
+    /**
+     * Jumlah byte awal yang dibutuhkan untuk mendeteksi format.
+     */
+    public static final int HEADER_LENGTH = 12;
+
+    private final String contentType;
+
+    ImageFormat(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * Mendeteksi format dari byte awal file. Mengembalikan null jika tidak dikenali.
+     */
+    public static ImageFormat detect(byte[] header, int length) {
+        if (length >= 3
+                && (header[0] & 0xFF) == 0xFF
+                && (header[1] & 0xFF) == 0xD8
+                && (header[2] & 0xFF) == 0xFF) {
+            return JPEG;
+        }
+        if (length >= 8
+                && (header[0] & 0xFF) == 0x89
+                && header[1] == 'P' && header[2] == 'N' && header[3] == 'G') {
+            return PNG;
+        }
+        if (length >= 4
+                && header[0] == 'G' && header[1] == 'I' && header[2] == 'F' && header[3] == '8') {
+            return GIF;
+        }
+        if (length >= 12
+                && header[0] == 'R' && header[1] == 'I' && header[2] == 'F' && header[3] == 'F'
+                && header[8] == 'W' && header[9] == 'E' && header[10] == 'B' && header[11] == 'P') {
+            return WEBP;
+        }
+        return null;
+    }
+}
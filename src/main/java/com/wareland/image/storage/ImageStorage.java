@@ -0,0 +1,54 @@
+package com.wareland.image.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Optional;
+
+import org.springframework.core.io.Resource;
+
+/**
+ * Abstraksi penyimpanan gambar content-addressed (nama file = hash isi).
+ * Implementasi saat ini: disk lokal. Object store dapat ditambahkan
+ * sebagai implementasi lain tanpa mengubah pemanggil.
+ */
+public interface ImageStorage {
+
+    /**
+     * Menyimpan gambar secara streaming. Isi yang sama persis hanya disimpan sekali.
+     */
+    StoredImage store(InputStream content) throws IOException;
+
+    /**
+     * Mengambil metadata gambar berdasarkan hash, kosong jika tidak ada.
+     */
+    Optional<StoredImage> find(String hash) throws IOException;
+
+    /**
+     * Resource untuk membaca isi gambar (mendukung pembacaan per region/range).
+     */
+    Resource open(String hash);
+
+    /**
+     * Mengecek apakah variant ukuran tertentu sudah tersedia.
+     */
+    boolean hasVariant(String hash, ImageVariant variant);
+
+    /**
+     * Menyimpan variant (JPEG) secara atomik. Pemanggilan ulang menimpa isi yang sama.
+     */
+    void storeVariant(String hash, ImageVariant variant, ContentWriter writer) throws IOException;
+
+    /**
+     * Resource untuk membaca isi variant.
+     */
+    Resource openVariant(String hash, ImageVariant variant);
+
+    /**
+     * Callback penulisan isi file ke storage.
+     */
+    @FunctionalInterface
+    interface ContentWriter {
+        void writeTo(OutputStream out) throws IOException;
+    }
+}
@@ -0,0 +1,40 @@
+package com.wareland.image.storage;
+
+/**
+ * Ukuran turunan gambar untuk tampilan responsif.
+ * Lebar maksimum dalam piksel; gambar tidak pernah diperbesar.
+ */
+public enum ImageVariant {
+
+    THUMBNAIL("thumbnail", 160),
+    CARD("card", 480),
+    DETAIL("detail", 1280);
+
+    private final String key;
+    private final int maxWidth;
+
+    ImageVariant(String key, int maxWidth) {
+        this.key = key;
+        this.maxWidth = maxWidth;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public int getMaxWidth() {
+        return maxWidth;
+    }
+
+    /**
+     * Mencari variant berdasarkan key path (misal "thumbnail"). Null jika tidak dikenal.
+     */
+    public static ImageVariant fromKey(String key) {
+        for (ImageVariant variant : values()) {
+            if (variant.key.equals(key)) {
+                return variant;
+            }
+        }
+        return null;
+    }
+}
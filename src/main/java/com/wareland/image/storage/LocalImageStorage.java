@@ -0,0 +1,186 @@
+package com.wareland.image.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import com.wareland.common.exception.BadRequestException;
+
+/**
+ * Penyimpanan gambar di disk lokal.
+ * File ditulis streaming ke file sementara sambil dihitung SHA-256-nya,
+ * lalu dipindahkan secara atomik ke {root}/{2 karakter awal hash}/{hash}.
+ * Variant ukuran disimpan di {root}/variants/{2 karakter awal hash}/{hash}/{variant}.jpg.
+ */
+@Component
+public class LocalImageStorage implements ImageStorage {
+
+    private static final Pattern HASH_PATTERN = Pattern.compile("[0-9a-f]{64}");
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Path root;
+    private final Path tmpDir;
+    private final long maxBytes;
+
+    public LocalImageStorage(
+            @Value("${app.image.storage-dir:./data/images}") String storageDir,
+            @Value("${app.image.max-bytes:10485760}") long maxBytes
+    ) throws IOException {
+        this.root = Paths.get(storageDir).toAbsolutePath().normalize();
+        this.tmpDir = root.resolve(".tmp");
+        this.maxBytes = maxBytes;
+        Files.createDirectories(tmpDir);
+    }
+
+    @Override
+    public StoredImage store(InputStream content) throws IOException {
+        MessageDigest digest = sha256();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        byte[] header = new byte[ImageFormat.HEADER_LENGTH];
+        int headerLength = 0;
+        long size = 0;
+
+        Path temp = Files.createTempFile(tmpDir, "upload-", ".part");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                int read;
+                while ((read = content.read(buffer)) != -1) {
+                    if (headerLength < header.length) {
+                        int copy = Math.min(read, header.length - headerLength);
+                        System.arraycopy(buffer, 0, header, headerLength, copy);
+                        headerLength += copy;
+                    }
+                    size += read;
+                    if (size > maxBytes) {
+                        throw new BadRequestException("Ukuran gambar melebihi batas " + maxBytes + " byte");
+                    }
+                    digest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                }
+            }
+
+            ImageFormat format = ImageFormat.detect(header, headerLength);
+            if (format == null) {
+                throw new BadRequestException("Format gambar tidak didukung");
+            }
+
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path target = pathFor(hash);
+            // Deduplikasi: isi yang sama sudah tersimpan dengan nama yang sama
+            if (!Files.exists(target)) {
+                Files.createDirectories(target.getParent());
+                try {
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException e) {
+                    // Upload identik bersamaan sudah lebih dulu dipindahkan
+                }
+            }
+            return new StoredImage(hash, format, size);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public Optional<StoredImage> find(String hash) throws IOException {
+        if (!isValidHash(hash)) {
+            return Optional.empty();
+        }
+        Path path = pathFor(hash);
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(ImageFormat.HEADER_LENGTH);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            while (header.hasRemaining() && channel.read(header) > 0) {
+                // baca sampai header penuh atau EOF
+            }
+            return Optional.of(new StoredImage(
+                    hash,
+                    ImageFormat.detect(header.array(), header.position()),
+                    channel.size()
+            ));
+        }
+    }
+
+    @Override
+    public Resource open(String hash) {
+        if (!isValidHash(hash)) {
+            throw new BadRequestException("Hash gambar tidak valid");
+        }
+        return new FileSystemResource(pathFor(hash));
+    }
+
+    @Override
+    public boolean hasVariant(String hash, ImageVariant variant) {
+        return isValidHash(hash) && Files.isRegularFile(variantPathFor(hash, variant));
+    }
+
+    @Override
+    public void storeVariant(String hash, ImageVariant variant, ContentWriter writer) throws IOException {
+        if (!isValidHash(hash)) {
+            throw new BadRequestException("Hash gambar tidak valid");
+        }
+        Path target = variantPathFor(hash, variant);
+        Path temp = Files.createTempFile(tmpDir, "variant-", ".part");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                writer.writeTo(out);
+            }
+            Files.createDirectories(target.getParent());
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public Resource openVariant(String hash, ImageVariant variant) {
+        if (!isValidHash(hash)) {
+            throw new BadRequestException("Hash gambar tidak valid");
+        }
+        return new FileSystemResource(variantPathFor(hash, variant));
+    }
+
+    private Path variantPathFor(String hash, ImageVariant variant) {
+        return root.resolve("variants")
+                .resolve(hash.substring(0, 2))
+                .resolve(hash)
+                .resolve(variant.getKey() + ".jpg");
+    }
+
+    private Path pathFor(String hash) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private static boolean isValidHash(String hash) {
+        return hash != null && HASH_PATTERN.matcher(hash).matches();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 tidak tersedia", e);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.wareland.image.storage;
+
+/**
+ * Metadata gambar yang tersimpan, diidentifikasi oleh hash SHA-256 isinya.
+ */
+public class StoredImage {
+
+    private final String hash;
+    private final ImageFormat format;
+    private final long size;
+
+    public StoredImage(String hash, ImageFormat format, long size) {
+        this.hash = hash;
+        this.format = format;
+        this.size = size;
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    public ImageFormat getFormat() {
+        return format;
+    }
+
+    public long getSize() {
+        return size;
+    }
+}
@@ -0,0 +1,124 @@
+package com.wareland.property.archive;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.wareland.property.event.ListingsArchivedEvent;
+import com.wareland.property.repository.PropertyRepository;
+import com.wareland.review.repository.RatingSummaryRepository;
+import com.wareland.review.repository.ReviewRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Job background yang memindahkan listing DELISTED (beserta review-nya) ke tabel arsip.
+ *
+ * Setiap batch berjalan dalam transaksi sendiri: salin ke arsip dengan INSERT ... SELECT,
+ * lalu hapus dari tabel utama. Dengan begitu tabel properties/reviews hanya berisi
+ * inventaris aktif dan transaksi tidak pernah memegang lock untuk ribuan baris sekaligus.
+ */
+@Component
+public class ListingArchiveJob {
+
+    private static final Logger log = LoggerFactory.getLogger(ListingArchiveJob.class);
+
+    private final PropertyRepository propertyRepository;
+    private final ReviewRepository reviewRepository;
+    private final RatingSummaryRepository ratingSummaryRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final long graceHours;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Counter archivedListings;
+    private final Counter archivedReviews;
+
+    public ListingArchiveJob(
+            PropertyRepository propertyRepository,
+            ReviewRepository reviewRepository,
+            RatingSummaryRepository ratingSummaryRepository,
+            ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.property.archive.grace-hours:24}") long graceHours,
+            @Value("${app.property.archive.batch-size:500}") int batchSize,
+            @Value("${app.property.archive.max-batches-per-run:20}") int maxBatchesPerRun
+    ) {
+        this.propertyRepository = propertyRepository;
+        this.reviewRepository = reviewRepository;
+        this.ratingSummaryRepository = ratingSummaryRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.graceHours = graceHours;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.archivedListings = Counter.builder("property.archive.rows")
+                .tag("table", "properties")
+                .register(meterRegistry);
+        this.archivedReviews = Counter.builder("property.archive.rows")
+                .tag("table", "reviews")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(
+            fixedDelayString = "${app.property.archive.interval-ms:3600000}",
+            initialDelayString = "${app.property.archive.initial-delay-ms:60000}"
+    )
+    public void scheduledArchive() {
+        long start = System.currentTimeMillis();
+        int archived = archiveDelisted(LocalDateTime.now().minusHours(graceHours));
+        if (archived > 0) {
+            log.info("Arsip listing selesai dalam {} ms: {} listing dipindahkan",
+                    System.currentTimeMillis() - start, archived);
+        }
+    }
+
+    /**
+     * Memindahkan listing yang di-delist sebelum cutoff. Mengembalikan jumlah listing yang diarsipkan.
+     * Sisa listing (jika melebihi batas batch per run) dikerjakan pada jadwal berikutnya.
+     */
+    public int archiveDelisted(LocalDateTime cutoff) {
+        int total = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            Integer moved = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            int count = moved == null ? 0 : moved;
+            total += count;
+            if (count < batchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    private int archiveBatch(LocalDateTime cutoff) {
+        List<Integer> ids = propertyRepository.findArchivableIds(cutoff, PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime archivedAt = LocalDateTime.now();
+
+        // Review lebih dulu karena memiliki foreign key ke properties
+        int reviews = reviewRepository.copyToArchiveByPropertyIds(ids, archivedAt);
+        reviewRepository.deleteAllByPropertyIds(ids);
+        ratingSummaryRepository.deleteByPropertyIds(ids);
+        propertyRepository.copyToArchive(ids, archivedAt);
+        propertyRepository.purgeByIds(ids);
+
+        archivedListings.increment(ids.size());
+        archivedReviews.increment(reviews);
+        // Listener in-memory dijalankan setelah batch ini commit
+        eventPublisher.publishEvent(new ListingsArchivedEvent(ids));
+        return ids.size();
+    }
+}
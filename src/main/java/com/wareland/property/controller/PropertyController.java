@@ -7,12 +7,16 @@ import com.wareland.user.model.Seller;
 import com.wareland.user.model.User;
 import com.wareland.user.model.UserRole;
 import com.wareland.user.repository.UserRepository;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -51,6 +55,20 @@ public class PropertyController {
         return ResponseEntity.ok(ApiResponse.success("Property berhasil diperbarui", null));
     }
 
+    // Multipart sudah di-spool ke disk oleh container, isi file dibaca streaming ke storage
+    @PostMapping(value = "/{id}/image", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ApiResponse<Property>> uploadImage(@PathVariable("id") int id,
+                                                             @RequestParam("file") MultipartFile file) throws IOException {
+        Seller seller = getCurrentSeller();
+        if (file.isEmpty()) {
+            throw new com.wareland.common.exception.BadRequestException("File gambar wajib diisi");
+        }
+        try (InputStream content = file.getInputStream()) {
+            Property updated = propertyService.updateImage(seller, id, content);
+            return ResponseEntity.ok(ApiResponse.success("Gambar property berhasil diunggah", updated));
+        }
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<ApiResponse<Void>> delete(@PathVariable("id") int id) {
         Seller seller = getCurrentSeller();
@@ -0,0 +1,56 @@
+package com.wareland.property.controller;
+
+import com.wareland.common.response.ApiResponse;
+import com.wareland.property.dto.SellerDashboardResponse;
+import com.wareland.property.service.SellerDashboardService;
+import com.wareland.user.model.User;
+import com.wareland.user.model.UserRole;
+import com.wareland.user.repository.UserRepository;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/seller")
+public class SellerDashboardController {
+
+    private final SellerDashboardService sellerDashboardService;
+    private final UserRepository userRepository;
+
+    public SellerDashboardController(SellerDashboardService sellerDashboardService,
+                                     UserRepository userRepository) {
+        this.sellerDashboardService = sellerDashboardService;
+        this.userRepository = userRepository;
+    }
+
+    // GET /api/seller/dashboard?page=&size=
+    @GetMapping("/dashboard")
+    public ResponseEntity<ApiResponse<SellerDashboardResponse>> dashboard(
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "20") int size
+    ) {
+        Long sellerId = getCurrentSellerId();
+        SellerDashboardResponse data = sellerDashboardService.getDashboard(sellerId, page, size);
+        return ResponseEntity.ok(ApiResponse.success(data));
+    }
+
+    // Ambil ID Seller dari SecurityContext dan validasi role
+    private Long getCurrentSellerId() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        String username = (auth != null) ? auth.getName() : null;
+        if (username == null) {
+            throw new com.wareland.common.exception.InvalidCredentialException("Tidak terautentikasi");
+        }
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new com.wareland.common.exception.ResourceNotFoundException("User tidak ditemukan"));
+
+        if (user.getUserRole() != UserRole.SELLER) {
+            throw new com.wareland.common.exception.BusinessException("Hanya Seller yang boleh mengakses fitur ini");
+        }
+        return user.getUserId();
+    }
+}
@@ -0,0 +1,15 @@
+package com.wareland.property.dto;
+
+/**
+ * Projection agregat rating per listing (harga, jumlah review, total rating) untuk leaderboard.
+ */
+public interface ListingRatingView {
+
+    Integer getPropertyId();
+
+    double getPrice();
+
+    long getReviewCount();
+
+    long getRatingSum();
+}
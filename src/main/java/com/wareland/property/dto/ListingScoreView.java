@@ -0,0 +1,11 @@
+package com.wareland.property.dto;
+
+/**
+ * Projection skor Bayesian per listing hasil agregat SQL (dipakai untuk cek konsistensi leaderboard).
+ */
+public interface ListingScoreView {
+
+    Integer getPropertyId();
+
+    double getScore();
+}
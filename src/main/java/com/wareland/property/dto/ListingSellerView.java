@@ -0,0 +1,11 @@
+package com.wareland.property.dto;
+
+/**
+ * Projection (listing, seller pemilik) untuk validasi batch tanpa memuat entity.
+ */
+public interface ListingSellerView {
+
+    Integer getPropertyId();
+
+    Long getSellerId();
+}
@@ -0,0 +1,13 @@
+package com.wareland.property.dto;
+
+/**
+ * Projection ringan (id, alamat, deskripsi) untuk membangun index duplikat.
+ */
+public interface ListingTextView {
+
+    Integer getPropertyId();
+
+    String getAddress();
+
+    String getDescription();
+}
@@ -0,0 +1,49 @@
+package com.wareland.property.dto;
+
+import java.util.List;
+
+/**
+ * DTO response dashboard seller: total agregat + satu halaman listing.
+ */
+public class SellerDashboardResponse {
+
+    private SellerDashboardSummary summary;
+    private List<SellerListingStats> listings;
+    private int page;
+    private int size;
+    private long totalPages;
+
+    public SellerDashboardResponse(
+            SellerDashboardSummary summary,
+            List<SellerListingStats> listings,
+            int page,
+            int size,
+            long totalPages
+    ) {
+        this.summary = summary;
+        this.listings = listings;
+        this.page = page;
+        this.size = size;
+        this.totalPages = totalPages;
+    }
+
+    public SellerDashboardSummary getSummary() {
+        return summary;
+    }
+
+    public List<SellerListingStats> getListings() {
+        return listings;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public long getTotalPages() {
+        return totalPages;
+    }
+}
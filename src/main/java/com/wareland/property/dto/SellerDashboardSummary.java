@@ -0,0 +1,30 @@
+package com.wareland.property.dto;
+
+/**
+ * Total agregat seluruh listing milik seorang seller.
+ */
+public class SellerDashboardSummary {
+
+    private long totalListings;
+    private long totalReviews;
+    private Double averageRating;
+
+    public SellerDashboardSummary(long totalListings, long totalReviews, Double averageRating) {
+        this.totalListings = totalListings;
+        this.totalReviews = totalReviews;
+        this.averageRating = averageRating;
+    }
+
+    public long getTotalListings() {
+        return totalListings;
+    }
+
+    public long getTotalReviews() {
+        return totalReviews;
+    }
+
+    // null jika seller belum memiliki review sama sekali
+    public Double getAverageRating() {
+        return averageRating;
+    }
+}
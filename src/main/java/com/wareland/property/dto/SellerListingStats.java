@@ -0,0 +1,56 @@
+package com.wareland.property.dto;
+
+/**
+ * Ringkasan satu listing seller beserta agregat review-nya.
+ * Diisi langsung dari query agregat (constructor expression JPQL).
+ */
+public class SellerListingStats {
+
+    private Integer propertyId;
+    private String address;
+    private double price;
+    private String imageUrl;
+    private long reviewCount;
+    private Double averageRating;
+
+    public SellerListingStats(
+            Integer propertyId,
+            String address,
+            double price,
+            String imageUrl,
+            long reviewCount,
+            Double averageRating
+    ) {
+        this.propertyId = propertyId;
+        this.address = address;
+        this.price = price;
+        this.imageUrl = imageUrl;
+        this.reviewCount = reviewCount;
+        this.averageRating = averageRating;
+    }
+
+    public Integer getPropertyId() {
+        return propertyId;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    public String getImageUrl() {
+        return imageUrl;
+    }
+
+    public long getReviewCount() {
+        return reviewCount;
+    }
+
+    // null jika listing belum memiliki review
+    public Double getAverageRating() {
+        return averageRating;
+    }
+}
@@ -0,0 +1,181 @@
+package com.wareland.property.duplicate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Job batch offline untuk menemukan kelompok (cluster) listing duplikat di seluruh katalog.
+ *
+ * Kandidat diambil dari bucket LSH yang sama, lalu verifikasi jarak Hamming
+ * dikerjakan paralel dengan fork-join. Pasangan yang lolos digabung dengan union-find.
+ */
+@Component
+public class DuplicateClusterJob {
+
+    private static final Logger log = LoggerFactory.getLogger(DuplicateClusterJob.class);
+    // Jumlah listing per sub-task sebelum berhenti memecah pekerjaan
+    private static final int SPLIT_THRESHOLD = 2048;
+
+    private final DuplicateListingIndex index;
+    private final int parallelism;
+
+    public DuplicateClusterJob(
+            DuplicateListingIndex index,
+            @Value("${app.property.duplicate.scan-parallelism:0}") int parallelism
+    ) {
+        this.index = index;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    // Default nonaktif ("-"); aktifkan dengan cron, misal "0 0 3 * * *"
+    @Scheduled(cron = "${app.property.duplicate.scan-cron:-}")
+    public void scheduledScan() {
+        long start = System.currentTimeMillis();
+        List<List<Integer>> clusters = findClusters();
+        int listings = clusters.stream().mapToInt(List::size).sum();
+        log.info("Scan duplikat selesai dalam {} ms: {} cluster, {} listing terlibat",
+                System.currentTimeMillis() - start, clusters.size(), listings);
+        for (List<Integer> cluster : clusters) {
+            log.info("Cluster duplikat: {}", cluster);
+        }
+    }
+
+    /**
+     * Mengembalikan cluster listing duplikat (masing-masing berisi >= 2 property ID, terurut).
+     */
+    public List<List<Integer>> findClusters() {
+        Map<Integer, Long> snapshot = index.snapshot();
+        int size = snapshot.size();
+        int[] ids = new int[size];
+        long[] fingerprints = new long[size];
+        int i = 0;
+        for (Map.Entry<Integer, Long> entry : snapshot.entrySet()) {
+            ids[i] = entry.getKey();
+            fingerprints[i] = entry.getValue();
+            i++;
+        }
+
+        // Bucket per band: nilai band -> posisi listing di array
+        int bandCount = index.bandCount();
+        long[][] bandKeys = new long[bandCount][size];
+        List<Map<Long, List<Integer>>> buckets = new ArrayList<>();
+        for (int band = 0; band < bandCount; band++) {
+            Map<Long, List<Integer>> bandBuckets = new HashMap<>();
+            for (int pos = 0; pos < size; pos++) {
+                long key = index.bandValue(fingerprints[pos], band);
+                bandKeys[band][pos] = key;
+                bandBuckets.computeIfAbsent(key, k -> new ArrayList<>()).add(pos);
+            }
+            buckets.add(bandBuckets);
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        List<int[]> pairs;
+        try {
+            pairs = pool.invoke(new PairTask(fingerprints, bandKeys, buckets, index.getMaxDistance(), 0, size));
+        } finally {
+            pool.shutdown();
+        }
+
+        int[] parent = new int[size];
+        for (int pos = 0; pos < size; pos++) {
+            parent[pos] = pos;
+        }
+        for (int[] pair : pairs) {
+            union(parent, pair[0], pair[1]);
+        }
+
+        Map<Integer, List<Integer>> groups = new HashMap<>();
+        for (int pos = 0; pos < size; pos++) {
+            groups.computeIfAbsent(find(parent, pos), key -> new ArrayList<>()).add(ids[pos]);
+        }
+        List<List<Integer>> clusters = new ArrayList<>();
+        for (List<Integer> group : groups.values()) {
+            if (group.size() > 1) {
+                group.sort(null);
+                clusters.add(group);
+            }
+        }
+        return clusters;
+    }
+
+    private static int find(int[] parent, int x) {
+        while (parent[x] != x) {
+            parent[x] = parent[parent[x]];
+            x = parent[x];
+        }
+        return x;
+    }
+
+    private static void union(int[] parent, int a, int b) {
+        int rootA = find(parent, a);
+        int rootB = find(parent, b);
+        if (rootA != rootB) {
+            parent[Math.max(rootA, rootB)] = Math.min(rootA, rootB);
+        }
+    }
+
+    /**
+     * Memverifikasi kandidat untuk listing pada rentang [from, to).
+     * Hanya pasangan (i, j) dengan j > i yang dicatat agar tidak ganda arah.
+     */
+    private static final class PairTask extends RecursiveTask<List<int[]>> {
+
+        private final long[] fingerprints;
+        private final long[][] bandKeys;
+        private final List<Map<Long, List<Integer>>> buckets;
+        private final int maxDistance;
+        private final int from;
+        private final int to;
+
+        private PairTask(long[] fingerprints, long[][] bandKeys, List<Map<Long, List<Integer>>> buckets,
+                         int maxDistance, int from, int to) {
+            this.fingerprints = fingerprints;
+            this.bandKeys = bandKeys;
+            this.buckets = buckets;
+            this.maxDistance = maxDistance;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<int[]> compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                return computeDirectly();
+            }
+            int mid = (from + to) >>> 1;
+            PairTask left = new PairTask(fingerprints, bandKeys, buckets, maxDistance, from, mid);
+            PairTask right = new PairTask(fingerprints, bandKeys, buckets, maxDistance, mid, to);
+            left.fork();
+            List<int[]> result = right.compute();
+            result.addAll(left.join());
+            return result;
+        }
+
+        private List<int[]> computeDirectly() {
+            List<int[]> pairs = new ArrayList<>();
+            for (int pos = from; pos < to; pos++) {
+                long fingerprint = fingerprints[pos];
+                for (int band = 0; band < bandKeys.length; band++) {
+                    for (int other : buckets.get(band).get(bandKeys[band][pos])) {
+                        // Pasangan yang sama bisa muncul di beberapa band; union-find tetap idempotent
+                        if (other > pos && Long.bitCount(fingerprint ^ fingerprints[other]) <= maxDistance) {
+                            pairs.add(new int[] {pos, other});
+                        }
+                    }
+                }
+            }
+            return pairs;
+        }
+    }
+}
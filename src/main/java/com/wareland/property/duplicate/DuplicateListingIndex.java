@@ -0,0 +1,193 @@
+package com.wareland.property.duplicate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.wareland.property.dto.ListingTextView;
+import com.wareland.property.event.PropertyChangedEvent;
+import com.wareland.property.repository.PropertyRepository;
+
+/**
+ * Index in-memory (locality-sensitive hashing) untuk mendeteksi listing yang hampir sama.
+ *
+ * Fingerprint SimHash 64-bit dipecah menjadi beberapa band. Dua fingerprint dengan jarak
+ * Hamming <= k pasti identik pada minimal satu dari k+1 band (prinsip pigeonhole),
+ * sehingga pencarian cukup memeriksa isi bucket yang sama, bukan membandingkan seluruh katalog.
+ */
+@Component
+public class DuplicateListingIndex {
+
+    public enum Policy {
+        OFF,
+        FLAG,
+        REJECT
+    }
+
+    // Di atas batas ini band terlalu sempit; deteksi jarak besar menjadi probabilistik
+    private static final int MAX_BANDS = 8;
+
+    private final PropertyRepository propertyRepository;
+    private final Policy policy;
+    private final double threshold;
+    private final int maxDistance;
+    private final int[] bandShifts;
+    private final long[] bandMasks;
+
+    private final Map<Integer, Long> fingerprints = new ConcurrentHashMap<>();
+    private final List<Map<Long, Set<Integer>>> buckets = new ArrayList<>();
+
+    public DuplicateListingIndex(
+            PropertyRepository propertyRepository,
+            @Value("${app.property.duplicate.policy:FLAG}") Policy policy,
+            @Value("${app.property.duplicate.threshold:0.9}") double threshold
+    ) {
+        this.propertyRepository = propertyRepository;
+        this.policy = policy;
+        this.threshold = threshold;
+        this.maxDistance = (int) Math.floor((1.0 - threshold) * SimHash.BITS + 1e-9);
+
+        int bands = Math.min(maxDistance + 1, MAX_BANDS);
+        this.bandShifts = new int[bands];
+        this.bandMasks = new long[bands];
+        int shift = 0;
+        for (int band = 0; band < bands; band++) {
+            int width = SimHash.BITS / bands + (band < SimHash.BITS % bands ? 1 : 0);
+            bandShifts[band] = shift;
+            bandMasks[band] = width == 64 ? -1L : (1L << width) - 1;
+            shift += width;
+            buckets.add(new ConcurrentHashMap<>());
+        }
+    }
+
+    public Policy getPolicy() {
+        return policy;
+    }
+
+    public double getThreshold() {
+        return threshold;
+    }
+
+    public int getMaxDistance() {
+        return maxDistance;
+    }
+
+    /**
+     * Mencari listing paling mirip dengan kemiripan >= threshold. Null jika tidak ada.
+     */
+    public DuplicateMatch findDuplicate(String address, String description, Integer excludePropertyId) {
+        return findDuplicate(SimHash.of(address, description), excludePropertyId);
+    }
+
+    public DuplicateMatch findDuplicate(long fingerprint, Integer excludePropertyId) {
+        Integer bestId = null;
+        int bestDistance = Integer.MAX_VALUE;
+
+        for (int band = 0; band < bandShifts.length; band++) {
+            Set<Integer> candidates = buckets.get(band).get(bandValue(fingerprint, band));
+            if (candidates == null) {
+                continue;
+            }
+            for (Integer candidateId : candidates) {
+                if (candidateId.equals(excludePropertyId)) {
+                    continue;
+                }
+                Long other = fingerprints.get(candidateId);
+                if (other == null) {
+                    continue;
+                }
+                int distance = Long.bitCount(fingerprint ^ other);
+                if (distance <= maxDistance && distance < bestDistance) {
+                    bestDistance = distance;
+                    bestId = candidateId;
+                }
+            }
+        }
+        if (bestId == null) {
+            return null;
+        }
+        return new DuplicateMatch(bestId, 1.0 - (double) bestDistance / SimHash.BITS);
+    }
+
+    public synchronized void put(Integer propertyId, String address, String description) {
+        long fingerprint = SimHash.of(address, description);
+        Long previous = fingerprints.put(propertyId, fingerprint);
+        if (previous != null) {
+            if (previous == fingerprint) {
+                return;
+            }
+            removeFromBuckets(propertyId, previous);
+        }
+        for (int band = 0; band < bandShifts.length; band++) {
+            buckets.get(band)
+                    .computeIfAbsent(bandValue(fingerprint, band), key -> ConcurrentHashMap.newKeySet())
+                    .add(propertyId);
+        }
+    }
+
+    public synchronized void remove(Integer propertyId) {
+        Long previous = fingerprints.remove(propertyId);
+        if (previous != null) {
+            removeFromBuckets(propertyId, previous);
+        }
+    }
+
+    /**
+     * Salinan fingerprint seluruh listing untuk pemrosesan batch.
+     */
+    public Map<Integer, Long> snapshot() {
+        return new HashMap<>(fingerprints);
+    }
+
+    long bandValue(long fingerprint, int band) {
+        return (fingerprint >>> bandShifts[band]) & bandMasks[band];
+    }
+
+    int bandCount() {
+        return bandShifts.length;
+    }
+
+    // Index dibangun sekali dari database saat aplikasi siap
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadFromDatabase() {
+        try (Stream<ListingTextView> listings = propertyRepository.streamListingTexts()) {
+            listings.forEach(listing ->
+                    put(listing.getPropertyId(), listing.getAddress(), listing.getDescription()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPropertyChanged(PropertyChangedEvent event) {
+        if (event.getType() == PropertyChangedEvent.Type.DELETED) {
+            remove(event.getPropertyId());
+        } else {
+            put(event.getPropertyId(), event.getAddress(), event.getDescription());
+        }
+    }
+
+    private void removeFromBuckets(Integer propertyId, long fingerprint) {
+        for (int band = 0; band < bandShifts.length; band++) {
+            Map<Long, Set<Integer>> bandBuckets = buckets.get(band);
+            long key = bandValue(fingerprint, band);
+            Set<Integer> ids = bandBuckets.get(key);
+            if (ids != null) {
+                ids.remove(propertyId);
+                if (ids.isEmpty()) {
+                    bandBuckets.remove(key);
+                }
+            }
+        }
+    }
+}
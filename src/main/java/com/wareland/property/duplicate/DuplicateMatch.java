@@ -0,0 +1,23 @@
+package com.wareland.property.duplicate;
+
+/**
+ * Hasil pencocokan listing yang terindikasi duplikat.
+ */
+public class DuplicateMatch {
+
+    private final Integer propertyId;
+    private final double similarity;
+
+    public DuplicateMatch(Integer propertyId, double similarity) {
+        this.propertyId = propertyId;
+        this.similarity = similarity;
+    }
+
+    public Integer getPropertyId() {
+        return propertyId;
+    }
+
+    public double getSimilarity() {
+        return similarity;
+    }
+}
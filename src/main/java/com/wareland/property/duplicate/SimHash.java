@@ -0,0 +1,83 @@
+package com.wareland.property.duplicate;
+
+/**
+ * SimHash 64-bit untuk teks listing (alamat + deskripsi).
+ * Teks yang hampir sama menghasilkan fingerprint dengan sedikit bit berbeda,
+ * sehingga kemiripan dapat diukur dari jarak Hamming.
+ */
+public final class SimHash {
+
+    public static final int BITS = 64;
+
+    private SimHash() {
+    }
+
+    /**
+     * Fingerprint dari alamat dan deskripsi. Fitur: kata tunggal dan pasangan kata berurutan.
+     */
+    public static long of(String address, String description) {
+        String text = normalize(address) + " " + normalize(description);
+        String[] tokens = text.trim().split(" +");
+
+        int[] weights = new int[BITS];
+        String previous = null;
+        for (String token : tokens) {
+            if (token.isEmpty()) {
+                continue;
+            }
+            accumulate(weights, hash(token));
+            if (previous != null) {
+                accumulate(weights, hash(previous + ' ' + token));
+            }
+            previous = token;
+        }
+
+        long fingerprint = 0L;
+        for (int bit = 0; bit < BITS; bit++) {
+            if (weights[bit] > 0) {
+                fingerprint |= 1L << bit;
+            }
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Kemiripan 0..1 berdasarkan jumlah bit yang sama.
+     */
+    public static double similarity(long a, long b) {
+        return 1.0 - (double) Long.bitCount(a ^ b) / BITS;
+    }
+
+    private static void accumulate(int[] weights, long featureHash) {
+        for (int bit = 0; bit < BITS; bit++) {
+            weights[bit] += ((featureHash >>> bit) & 1L) != 0 ? 1 : -1;
+        }
+    }
+
+    private static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            sb.append(Character.isLetterOrDigit(c) ? c : ' ');
+        }
+        return sb.toString();
+    }
+
+    // FNV-1a 64-bit dengan finalizer murmur3 agar bit tersebar merata
+    private static long hash(String feature) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < feature.length(); i++) {
+            h ^= feature.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
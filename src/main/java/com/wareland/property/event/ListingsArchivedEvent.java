@@ -0,0 +1,20 @@
+package com.wareland.property.event;
+
+import java.util.List;
+
+/**
+ * Event yang dipublikasikan ListingArchiveJob setelah satu batch listing (beserta review-nya)
+ * dipindahkan ke tabel arsip. Dipakai komponen in-memory untuk membuang data listing tersebut.
+ */
+public class ListingsArchivedEvent {
+
+    private final List<Integer> propertyIds;
+
+    public ListingsArchivedEvent(List<Integer> propertyIds) {
+        this.propertyIds = List.copyOf(propertyIds);
+    }
+
+    public List<Integer> getPropertyIds() {
+        return propertyIds;
+    }
+}
@@ -0,0 +1,62 @@
+package com.wareland.property.event;
+
+/**
+ * Event yang dipublikasikan PropertyService setiap kali data property berubah.
+ * Digunakan komponen lain (cache, index in-memory) tanpa membuat dependensi langsung.
+ * Data dasar property ikut dibawa agar listener tidak perlu query ulang.
+ */
+public class PropertyChangedEvent {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final Type type;
+    private final Integer propertyId;
+    private final Long sellerId;
+    private final String address;
+    private final String description;
+    private final double price;
+
+    public PropertyChangedEvent(
+            Type type,
+            Integer propertyId,
+            Long sellerId,
+            String address,
+            String description,
+            double price
+    ) {
+        this.type = type;
+        this.propertyId = propertyId;
+        this.sellerId = sellerId;
+        this.address = address;
+        this.description = description;
+        this.price = price;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Integer getPropertyId() {
+        return propertyId;
+    }
+
+    public Long getSellerId() {
+        return sellerId;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+}
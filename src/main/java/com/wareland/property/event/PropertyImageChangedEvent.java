@@ -0,0 +1,23 @@
+package com.wareland.property.event;
+
+/**
+ * Event yang dipublikasikan PropertyService saat imageUrl sebuah property di-set atau diganti.
+ */
+public class PropertyImageChangedEvent {
+
+    private final Integer propertyId;
+    private final String imageUrl;
+
+    public PropertyImageChangedEvent(Integer propertyId, String imageUrl) {
+        this.propertyId = propertyId;
+        this.imageUrl = imageUrl;
+    }
+
+    public Integer getPropertyId() {
+        return propertyId;
+    }
+
+    public String getImageUrl() {
+        return imageUrl;
+    }
+}
@@ -0,0 +1,79 @@
+package com.wareland.property.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Salinan listing yang sudah dipindahkan dari tabel properties (cold storage).
+ * Baris disalin apa adanya oleh job arsip; seller disimpan sebagai ID saja
+ * agar arsip tetap utuh walaupun akun seller dihapus.
+ */
+@Entity
+@Table(name = "properties_archive")
+public class ArchivedProperty {
+
+    @Id
+    @Column(name = "property_id")
+    private Integer propertyId;
+
+    @Column(nullable = false, length = 255)
+    private String address;
+
+    @Column(nullable = false)
+    private double price;
+
+    @Column(name = "image_url", length = 255)
+    private String imageUrl;
+
+    @Column(length = 2000)
+    private String description;
+
+    @Column(name = "duplicate_of_id")
+    private Integer duplicateOfId;
+
+    @Column(name = "seller_id", nullable = false)
+    private Long sellerId;
+
+    @Column(name = "delisted_at")
+    private LocalDateTime delistedAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    public Integer getPropertyId() {
+        return propertyId;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    public String getImageUrl() {
+        return imageUrl;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public Integer getDuplicateOfId() {
+        return duplicateOfId;
+    }
+
+    public Long getSellerId() {
+        return sellerId;
+    }
+
+    public LocalDateTime getDelistedAt() {
+        return delistedAt;
+    }
+
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+}
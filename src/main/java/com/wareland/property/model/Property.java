@@ -1,17 +1,25 @@
 package com.wareland.property.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.wareland.review.model.Review;
 import com.wareland.user.model.Seller;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "properties")
+@Table(
+        name = "properties",
+        indexes = {
+                @Index(name = "idx_properties_seller_status", columnList = "seller_id, status"),
+                @Index(name = "idx_properties_status_delisted_at", columnList = "status, delisted_at")
+        }
+)
 public class Property {
 
     @Id
@@ -32,6 +40,21 @@ public class Property {
     @Column(length = 2000)
     private String description;
 
+    // Diisi sistem jika listing terindikasi duplikat dari property lain (tidak bisa di-set client)
+    @Column(name = "duplicate_of_id")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Integer duplicateOfId;
+
+    // Listing yang dihapus seller hanya ditandai DELISTED, lalu dipindah ke arsip oleh job batch
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private PropertyStatus status = PropertyStatus.ACTIVE;
+
+    @Column(name = "delisted_at")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private LocalDateTime delistedAt;
+
     // TEPAT 1 owner (Seller). Aggregation via reference
     @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "seller_id", nullable = false)
@@ -58,6 +81,14 @@ public class Property {
         }
     }
 
+    // Behavior: soft-delete, listing tidak lagi tampil di katalog
+    public void delist() {
+        if (this.status != PropertyStatus.DELISTED) {
+            this.status = PropertyStatus.DELISTED;
+            this.delistedAt = LocalDateTime.now();
+        }
+    }
+
     public String displayProperty() {
         return String.format("Property{id=%d, address='%s', price=%.2f, image='%s'}", propertyId, address, price, imageUrl);
     }
@@ -103,6 +134,30 @@ public class Property {
         this.description = description;
     }
 
+    public Integer getDuplicateOfId() {
+        return duplicateOfId;
+    }
+
+    public void setDuplicateOfId(Integer duplicateOfId) {
+        this.duplicateOfId = duplicateOfId;
+    }
+
+    public PropertyStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(PropertyStatus status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getDelistedAt() {
+        return delistedAt;
+    }
+
+    public void setDelistedAt(LocalDateTime delistedAt) {
+        this.delistedAt = delistedAt;
+    }
+
     public Seller getSeller() {
         return seller;
     }
@@ -0,0 +1,6 @@
+package com.wareland.property.model;
+
+public enum PropertyStatus {
+    ACTIVE,
+    DELISTED
+}
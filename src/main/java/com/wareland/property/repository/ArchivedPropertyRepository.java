@@ -0,0 +1,9 @@
+package com.wareland.property.repository;
+
+import com.wareland.property.model.ArchivedProperty;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ArchivedPropertyRepository extends JpaRepository<ArchivedProperty, Integer> {
+}
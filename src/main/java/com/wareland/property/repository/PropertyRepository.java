@@ -1,19 +1,120 @@
 package com.wareland.property.repository;
 
+import com.wareland.property.dto.ListingRatingView;
+import com.wareland.property.dto.ListingScoreView;
+import com.wareland.property.dto.ListingSellerView;
+import com.wareland.property.dto.ListingTextView;
+import com.wareland.property.dto.SellerDashboardSummary;
+import com.wareland.property.dto.SellerListingStats;
 import com.wareland.property.model.Property;
+import com.wareland.property.model.PropertyStatus;
 import com.wareland.user.model.Seller;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface PropertyRepository extends JpaRepository<Property, Integer> {
 
-    List<Property> findBySeller(Seller seller);
+    List<Property> findByStatus(PropertyStatus status);
 
-    boolean existsByPropertyIdAndSeller(Integer propertyId, Seller seller);
+    Optional<Property> findByPropertyIdAndStatus(Integer propertyId, PropertyStatus status);
 
-    Optional<Property> findByPropertyIdAndSeller(Integer propertyId, Seller seller);
+    List<Property> findBySellerAndStatus(Seller seller, PropertyStatus status);
+
+    boolean existsByPropertyIdAndSellerAndStatus(Integer propertyId, Seller seller, PropertyStatus status);
+
+    Optional<Property> findByPropertyIdAndSellerAndStatus(Integer propertyId, Seller seller, PropertyStatus status);
+
+    // Seller pemilik listing ACTIVE (lookup primary key tanpa memuat entity)
+    @Query("SELECT p.seller.userId FROM Property p "
+            + "WHERE p.propertyId = :propertyId AND p.status = com.wareland.property.model.PropertyStatus.ACTIVE")
+    Optional<Long> findActiveSellerId(@Param("propertyId") Integer propertyId);
+
+    // Listing ACTIVE beserta seller-nya untuk sekumpulan ID (validasi import review)
+    @Query("SELECT p.propertyId AS propertyId, p.seller.userId AS sellerId FROM Property p "
+            + "WHERE p.propertyId IN :ids AND p.status = com.wareland.property.model.PropertyStatus.ACTIVE")
+    List<ListingSellerView> findActiveListingSellers(@Param("ids") Collection<Integer> ids);
+
+    // Satu halaman listing seller beserta jumlah & rata-rata rating (satu query agregat)
+    @Query("SELECT new com.wareland.property.dto.SellerListingStats("
+            + "p.propertyId, p.address, p.price, p.imageUrl, COUNT(r.id), AVG(r.rating)) "
+            + "FROM Property p LEFT JOIN p.reviews r "
+            + "WHERE p.seller.userId = :sellerId AND p.status = com.wareland.property.model.PropertyStatus.ACTIVE "
+            + "GROUP BY p.propertyId, p.address, p.price, p.imageUrl "
+            + "ORDER BY p.propertyId DESC")
+    List<SellerListingStats> findListingStatsBySeller(@Param("sellerId") Long sellerId, Pageable pageable);
+
+    // Total listing, total review, dan rata-rata rating seluruh listing seller
+    @Query("SELECT new com.wareland.property.dto.SellerDashboardSummary("
+            + "COUNT(DISTINCT p.propertyId), COUNT(r.id), AVG(r.rating)) "
+            + "FROM Property p LEFT JOIN p.reviews r "
+            + "WHERE p.seller.userId = :sellerId AND p.status = com.wareland.property.model.PropertyStatus.ACTIVE")
+    SellerDashboardSummary summarizeBySeller(@Param("sellerId") Long sellerId);
+
+    // Teks seluruh listing untuk membangun index duplikat (tanpa memuat entity penuh)
+    @Query("SELECT p.propertyId AS propertyId, p.address AS address, p.description AS description FROM Property p "
+            + "WHERE p.status = com.wareland.property.model.PropertyStatus.ACTIVE")
+    Stream<ListingTextView> streamListingTexts();
+
+    // Alamat (judul) sekumpulan listing untuk review write-behind yang belum ditulis di feed buyer
+    @Query("SELECT p.propertyId AS propertyId, p.address AS address, p.description AS description FROM Property p "
+            + "WHERE p.propertyId IN :ids")
+    List<ListingTextView> findListingTexts(@Param("ids") Collection<Integer> ids);
+
+    // Agregat rating seluruh listing ACTIVE (termasuk yang belum punya review) untuk leaderboard
+    @Query("SELECT p.propertyId AS propertyId, p.price AS price, "
+            + "COUNT(r.id) AS reviewCount, COALESCE(SUM(r.rating), 0) AS ratingSum "
+            + "FROM Property p LEFT JOIN p.reviews r "
+            + "WHERE p.status = com.wareland.property.model.PropertyStatus.ACTIVE "
+            + "GROUP BY p.propertyId, p.price")
+    Stream<ListingRatingView> streamRatingAggregates();
+
+    // Agregat rating listing ACTIVE tertentu (koreksi listing yang berubah selama rebuild leaderboard)
+    @Query("SELECT p.propertyId AS propertyId, p.price AS price, "
+            + "COUNT(r.id) AS reviewCount, COALESCE(SUM(r.rating), 0) AS ratingSum "
+            + "FROM Property p LEFT JOIN p.reviews r "
+            + "WHERE p.propertyId IN :ids AND p.status = com.wareland.property.model.PropertyStatus.ACTIVE "
+            + "GROUP BY p.propertyId, p.price")
+    List<ListingRatingView> findRatingAggregates(@Param("ids") Collection<Integer> ids);
+
+    // Top-k skor Bayesian dihitung penuh di database: (w * m + SUM) / (w + COUNT)
+    @Query("SELECT p.propertyId AS propertyId, "
+            + "(CAST(:priorWeight AS double) * CAST(:priorMean AS double) + SUM(r.rating)) "
+            + "/ (CAST(:priorWeight AS double) + COUNT(r.id)) AS score "
+            + "FROM Property p JOIN p.reviews r "
+            + "WHERE p.status = com.wareland.property.model.PropertyStatus.ACTIVE "
+            + "GROUP BY p.propertyId "
+            + "HAVING COUNT(r.id) >= :minReviews "
+            + "ORDER BY score DESC, p.propertyId ASC")
+    List<ListingScoreView> findTopRatedScores(@Param("priorWeight") double priorWeight,
+                                              @Param("priorMean") double priorMean,
+                                              @Param("minReviews") long minReviews,
+                                              Pageable pageable);
+
+    // ID listing DELISTED yang sudah melewati masa tenggang, untuk satu batch arsip
+    @Query("SELECT p.propertyId FROM Property p "
+            + "WHERE p.status = com.wareland.property.model.PropertyStatus.DELISTED AND p.delistedAt < :cutoff "
+            + "ORDER BY p.propertyId")
+    List<Integer> findArchivableIds(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    @Modifying
+    @Query(value = "INSERT INTO properties_archive "
+            + "(property_id, address, price, image_url, description, duplicate_of_id, seller_id, delisted_at, archived_at) "
+            + "SELECT property_id, address, price, image_url, description, duplicate_of_id, seller_id, delisted_at, :archivedAt "
+            + "FROM properties WHERE property_id IN (:ids)", nativeQuery = true)
+    int copyToArchive(@Param("ids") Collection<Integer> ids, @Param("archivedAt") LocalDateTime archivedAt);
+
+    @Modifying
+    @Query(value = "DELETE FROM properties WHERE property_id IN (:ids)", nativeQuery = true)
+    int purgeByIds(@Param("ids") Collection<Integer> ids);
 }
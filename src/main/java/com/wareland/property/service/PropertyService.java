@@ -1,13 +1,22 @@
 package com.wareland.property.service;
 
+import java.io.InputStream;
 import java.util.List;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.wareland.common.exception.BadRequestException;
 import com.wareland.common.exception.BusinessException;
+import com.wareland.image.service.ImageService;
+import com.wareland.image.storage.StoredImage;
+import com.wareland.property.duplicate.DuplicateListingIndex;
+import com.wareland.property.duplicate.DuplicateMatch;
+import com.wareland.property.event.PropertyChangedEvent;
+import com.wareland.property.event.PropertyImageChangedEvent;
 import com.wareland.property.model.Property;
+import com.wareland.property.model.PropertyStatus;
 import com.wareland.property.repository.PropertyRepository;
 import com.wareland.user.model.Seller;
 import com.wareland.user.model.UserRole;
@@ -17,9 +26,18 @@ import com.wareland.user.model.UserRole;
 public class PropertyService {
 
     private final PropertyRepository propertyRepository;
+    private final ImageService imageService;
+    private final DuplicateListingIndex duplicateListingIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public PropertyService(PropertyRepository propertyRepository) {
+    public PropertyService(PropertyRepository propertyRepository,
+                           ImageService imageService,
+                           DuplicateListingIndex duplicateListingIndex,
+                           ApplicationEventPublisher eventPublisher) {
         this.propertyRepository = propertyRepository;
+        this.imageService = imageService;
+        this.duplicateListingIndex = duplicateListingIndex;
+        this.eventPublisher = eventPublisher;
     }
 
     // Validasi ownership dilakukan di setiap operasi yang memodifikasi data
@@ -29,7 +47,11 @@ public class PropertyService {
             throw new BadRequestException("Data property tidak boleh kosong");
         }
         data.setSeller(seller); // set ownership
-        return propertyRepository.save(data);
+        checkDuplicate(data);
+        Property saved = propertyRepository.save(data);
+        publish(PropertyChangedEvent.Type.CREATED, saved, seller);
+        publishImageChange(saved, null);
+        return saved;
     }
 
     public void updateProperty(Seller seller, Property property) {
@@ -38,30 +60,92 @@ public class PropertyService {
             throw new BadRequestException("Property ID wajib diisi untuk update");
         }
 
-        Property existing = propertyRepository.findByPropertyIdAndSeller(property.getPropertyId(), seller)
+        Property existing = propertyRepository.findByPropertyIdAndSellerAndStatus(property.getPropertyId(), seller, PropertyStatus.ACTIVE)
                 .orElseThrow(() -> new BusinessException("Anda tidak berhak mengubah property ini atau property tidak ditemukan"));
 
+        String previousImageUrl = existing.getImageUrl();
         existing.updateDetails(property.getAddress(), property.getPrice(), property.getDescription(), property.getImageUrl());
         propertyRepository.save(existing);
+        publish(PropertyChangedEvent.Type.UPDATED, existing, seller);
+        publishImageChange(existing, previousImageUrl);
+    }
+
+    // Upload gambar ke storage lokal lalu set imageUrl property ke URL gambar tersebut
+    public Property updateImage(Seller seller, int propertyId, InputStream content) {
+        validateSeller(seller);
+        if (content == null) {
+            throw new BadRequestException("File gambar wajib diisi");
+        }
+        Property existing = propertyRepository.findByPropertyIdAndSellerAndStatus(propertyId, seller, PropertyStatus.ACTIVE)
+                .orElseThrow(() -> new BusinessException("Anda tidak berhak mengubah property ini atau property tidak ditemukan"));
+
+        String previousImageUrl = existing.getImageUrl();
+        StoredImage image = imageService.store(content);
+        existing.setImageUrl(imageService.urlFor(image.getHash()));
+        Property saved = propertyRepository.save(existing);
+        publish(PropertyChangedEvent.Type.UPDATED, saved, seller);
+        publishImageChange(saved, previousImageUrl);
+        return saved;
     }
 
     public void deleteProperty(Seller seller, int propertyId) {
         validateSeller(seller);
-        Property existing = propertyRepository.findByPropertyIdAndSeller(propertyId, seller)
+        Property existing = propertyRepository.findByPropertyIdAndSellerAndStatus(propertyId, seller, PropertyStatus.ACTIVE)
                 .orElseThrow(() -> new BusinessException("Anda tidak berhak menghapus property ini atau property tidak ditemukan"));
-        propertyRepository.delete(existing);
+        // Soft-delete: baris & review-nya dipindah ke arsip oleh ListingArchiveJob
+        existing.delist();
+        propertyRepository.save(existing);
+        publish(PropertyChangedEvent.Type.DELETED, existing, seller);
     }
 
     @Transactional(readOnly = true)
     public boolean verifyOwnership(Seller seller, int propertyId) {
         validateSeller(seller);
-        return propertyRepository.existsByPropertyIdAndSeller(propertyId, seller);
+        return propertyRepository.existsByPropertyIdAndSellerAndStatus(propertyId, seller, PropertyStatus.ACTIVE);
     }
 
     @Transactional(readOnly = true)
     public List<Property> getSellerProperties(Seller seller) {
         validateSeller(seller);
-        return propertyRepository.findBySeller(seller);
+        return propertyRepository.findBySellerAndStatus(seller, PropertyStatus.ACTIVE);
+    }
+
+    // Cek near-duplicate lewat index LSH in-memory (tanpa perbandingan ke seluruh katalog)
+    private void checkDuplicate(Property data) {
+        DuplicateListingIndex.Policy policy = duplicateListingIndex.getPolicy();
+        if (policy == DuplicateListingIndex.Policy.OFF) {
+            return;
+        }
+        DuplicateMatch match = duplicateListingIndex.findDuplicate(data.getAddress(), data.getDescription(), null);
+        if (match == null) {
+            data.setDuplicateOfId(null);
+            return;
+        }
+        if (policy == DuplicateListingIndex.Policy.REJECT) {
+            throw new BadRequestException(String.format(
+                    "Listing terindikasi duplikat dengan property #%d (kemiripan %.0f%%)",
+                    match.getPropertyId(), match.getSimilarity() * 100));
+        }
+        data.setDuplicateOfId(match.getPropertyId());
+    }
+
+    private void publish(PropertyChangedEvent.Type type, Property property, Seller seller) {
+        eventPublisher.publishEvent(new PropertyChangedEvent(
+                type,
+                property.getPropertyId(),
+                seller.getUserId(),
+                property.getAddress(),
+                property.getDescription(),
+                property.getPrice()
+        ));
+    }
+
+    // Memicu pembuatan variant ukuran gambar hanya jika imageUrl benar-benar berubah
+    private void publishImageChange(Property property, String previousImageUrl) {
+        String imageUrl = property.getImageUrl();
+        if (imageUrl != null && !imageUrl.isBlank() && !imageUrl.equals(previousImageUrl)) {
+            eventPublisher.publishEvent(new PropertyImageChangedEvent(property.getPropertyId(), imageUrl));
+        }
     }
 
     private void validateSeller(Seller seller) {
@@ -0,0 +1,111 @@
+package com.wareland.property.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.wareland.common.exception.BadRequestException;
+import com.wareland.property.dto.SellerDashboardResponse;
+import com.wareland.property.dto.SellerDashboardSummary;
+import com.wareland.property.dto.SellerListingStats;
+import com.wareland.property.event.PropertyChangedEvent;
+import com.wareland.property.repository.PropertyRepository;
+import com.wareland.review.event.ReviewChangedEvent;
+
+/**
+ * Service dashboard seller. Seluruh data diambil dari dua query agregat
+ * (total seller + satu halaman listing), berapa pun jumlah listing-nya.
+ * Hasil di-cache per seller dan di-invalidate saat property/review seller tersebut berubah.
+ */
+@Service
+public class SellerDashboardService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+    // Batas jumlah halaman yang di-cache per seller
+    private static final int MAX_CACHED_PAGES = 20;
+
+    private final PropertyRepository propertyRepository;
+    private final long cacheTtlMs;
+
+    private final Map<Long, Map<Long, CachedPage>> cache = new ConcurrentHashMap<>();
+
+    public SellerDashboardService(
+            PropertyRepository propertyRepository,
+            @Value("${app.seller.dashboard.cache-ttl-ms:300000}") long cacheTtlMs
+    ) {
+        this.propertyRepository = propertyRepository;
+        this.cacheTtlMs = cacheTtlMs;
+    }
+
+    @Transactional(readOnly = true)
+    public SellerDashboardResponse getDashboard(Long sellerId, int page, int size) {
+        if (page < 0) {
+            throw new BadRequestException("Page tidak boleh negatif");
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Size harus antara 1 hingga " + MAX_PAGE_SIZE);
+        }
+
+        long pageKey = ((long) page << 32) | size;
+        long now = System.currentTimeMillis();
+
+        // Map diambil sebelum query: jika seller di-evict selama query berjalan,
+        // hasil lama masuk ke map yang sudah dilepas dan tidak pernah terbaca lagi
+        Map<Long, CachedPage> pages = cache.computeIfAbsent(sellerId, id -> new ConcurrentHashMap<>());
+        CachedPage cached = pages.get(pageKey);
+        if (cached != null && cached.expiresAt > now) {
+            return cached.response;
+        }
+
+        SellerDashboardSummary summary = propertyRepository.summarizeBySeller(sellerId);
+        List<SellerListingStats> listings = summary.getTotalListings() == 0
+                ? List.of()
+                : propertyRepository.findListingStatsBySeller(sellerId, PageRequest.of(page, size));
+        long totalPages = (summary.getTotalListings() + size - 1) / size;
+
+        SellerDashboardResponse response =
+                new SellerDashboardResponse(summary, listings, page, size, totalPages);
+
+        if (pages.size() >= MAX_CACHED_PAGES) {
+            pages.clear();
+        }
+        pages.put(pageKey, new CachedPage(response, now + cacheTtlMs));
+        return response;
+    }
+
+    /**
+     * Menghapus seluruh halaman dashboard yang di-cache untuk seller tertentu.
+     */
+    public void evict(Long sellerId) {
+        if (sellerId != null) {
+            cache.remove(sellerId);
+        }
+    }
+
+    // Invalidasi dijalankan setelah commit agar pembaca tidak meng-cache data lama
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPropertyChanged(PropertyChangedEvent event) {
+        evict(event.getSellerId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReviewChanged(ReviewChangedEvent event) {
+        evict(event.getSellerId());
+    }
+
+    private static final class CachedPage {
+        private final SellerDashboardResponse response;
+        private final long expiresAt;
+
+        private CachedPage(SellerDashboardResponse response, long expiresAt) {
+            this.response = response;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -1,51 +1,97 @@
 package com.wareland.review.controller;
 
 import com.wareland.common.response.ApiResponse;
+import com.wareland.common.response.CursorPage;
+import com.wareland.common.security.AuthenticatedUser;
 import com.wareland.review.dto.ReviewBuyerResponse;
 import com.wareland.review.dto.ReviewCreateRequest;
 import com.wareland.review.dto.ReviewResponse;
+import com.wareland.review.dto.ReviewSearchResponse;
+import com.wareland.review.dto.ReviewSubmissionResponse;
 import com.wareland.review.dto.ReviewUpdateRequest;
+import com.wareland.review.service.ReviewSearchService;
 import com.wareland.review.service.ReviewService;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/reviews")
 public class ReviewController {
 
     private final ReviewService reviewService;
+    private final ReviewSearchService reviewSearchService;
 
-    public ReviewController(ReviewService reviewService) {
+    public ReviewController(ReviewService reviewService, ReviewSearchService reviewSearchService) {
         this.reviewService = reviewService;
+        this.reviewSearchService = reviewSearchService;
     }
 
     // ================= CREATE =================
     @PostMapping
-    public ResponseEntity<ApiResponse<ReviewResponse>> create(
+    public ResponseEntity<ApiResponse<?>> create(
             @Valid @RequestBody ReviewCreateRequest request) {
 
-        ReviewResponse response = reviewService.createReview(request);
+        // Mode write-behind: 202 beserta handle untuk memantau status penulisan
+        if (reviewService.isWriteBehindEnabled()) {
+            ReviewSubmissionResponse submission = reviewService.submitReview(getCurrentUser(), request);
+            if (submission.getStatus() == ReviewSubmissionResponse.Status.PENDING) {
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(
+                        ApiResponse.success("Review diterima dan sedang diproses", submission)
+                );
+            }
+            return ResponseEntity.ok(ApiResponse.success("Review berhasil dibuat", submission));
+        }
+
+        ReviewResponse response = reviewService.createReview(getCurrentUser(), request);
         return ResponseEntity.ok(
                 ApiResponse.success("Review berhasil dibuat", response)
         );
     }
 
+    // GET → status review write-behind berdasarkan handle dari respons 202
+    @GetMapping("/submissions/{handle}")
+    public ResponseEntity<ApiResponse<ReviewSubmissionResponse>> getSubmission(@PathVariable String handle) {
+        return ResponseEntity.ok(ApiResponse.success(reviewService.getSubmission(handle)));
+    }
+
     // ================= GET =================
+    // GET → feed review terbaru per property; halaman berikutnya via ?cursor=<nextCursor>
     @GetMapping("/property/{propertyId}")
-    public ResponseEntity<ApiResponse<List<ReviewResponse>>> getByProperty(
-            @PathVariable Long propertyId) {
+    public ResponseEntity<ApiResponse<CursorPage<ReviewResponse>>> getByProperty(
+            @PathVariable Long propertyId,
+            @RequestParam(required = false) Integer rating,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
 
-        List<ReviewResponse> responses = reviewService.getReviewsByProperty(propertyId);
+        CursorPage<ReviewResponse> responses = reviewService.getReviewsByProperty(propertyId, rating, cursor, size);
         return ResponseEntity.ok(ApiResponse.success(responses));
     }
 
-    // GET → menampilkan semua review milik seorang buyer (PRIVATE)
+    // GET → mencari review satu property berdasarkan kata kunci, terurut relevansi
+    @GetMapping("/property/{propertyId}/search")
+    public ResponseEntity<ApiResponse<ReviewSearchResponse>> search(
+            @PathVariable Long propertyId,
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+
+        ReviewSearchResponse response = reviewSearchService.search(propertyId, q, page, size);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
+    // GET → menampilkan review milik seorang buyer per halaman (PRIVATE)
     @GetMapping("/buyer/{buyerId}")
-    public ResponseEntity<ApiResponse<List<ReviewBuyerResponse>>> getByBuyer(@PathVariable("buyerId") Long buyerId) {
-        List<ReviewBuyerResponse> responses = reviewService.getReviewsByBuyer(buyerId);
+    public ResponseEntity<ApiResponse<CursorPage<ReviewBuyerResponse>>> getByBuyer(
+            @PathVariable("buyerId") Long buyerId,
+            @RequestParam(required = false) Integer rating,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+
+        CursorPage<ReviewBuyerResponse> responses = reviewService.getReviewsByBuyer(buyerId, rating, cursor, size);
         return ResponseEntity.ok(ApiResponse.success(responses));
     }
 
@@ -73,4 +119,12 @@ public class ReviewController {
                 ApiResponse.success("Review berhasil dihapus")
         );
     }
+
+    private AuthenticatedUser getCurrentUser() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.getPrincipal() instanceof AuthenticatedUser user) {
+            return user;
+        }
+        return null;
+    }
 }
@@ -0,0 +1,40 @@
+package com.wareland.review.controller;
+
+import java.io.IOException;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.wareland.common.response.ApiResponse;
+import com.wareland.review.dto.ReviewImportReport;
+import com.wareland.review.ingest.ReviewBulkImporter;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Endpoint admin untuk migrasi review historis (ROLE_ADMIN, lihat SecurityConfig).
+ */
+@RestController
+@RequestMapping("/api/admin/reviews")
+public class ReviewImportController {
+
+    private final ReviewBulkImporter reviewBulkImporter;
+
+    public ReviewImportController(ReviewBulkImporter reviewBulkImporter) {
+        this.reviewBulkImporter = reviewBulkImporter;
+    }
+
+    // POST → body NDJSON: {"buyerId":..,"propertyId":..,"rating":..,"comment":"..","createdAt":".."} per baris
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", MediaType.TEXT_PLAIN_VALUE})
+    public ResponseEntity<ApiResponse<ReviewImportReport>> importReviews(HttpServletRequest request)
+            throws IOException {
+
+        ReviewImportReport report = reviewBulkImporter.importNdjson(request.getInputStream());
+        return ResponseEntity.ok(
+                ApiResponse.success("Import review selesai", report)
+        );
+    }
+}
@@ -0,0 +1,69 @@
+package com.wareland.review.controller;
+
+import com.wareland.common.exception.BusinessException;
+import com.wareland.common.exception.InvalidCredentialException;
+import com.wareland.common.exception.ResourceNotFoundException;
+import com.wareland.common.security.AuthenticatedUser;
+import com.wareland.review.stream.SellerEventHub;
+import com.wareland.user.model.UserRole;
+import com.wareland.user.repository.UserRepository;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/seller")
+public class SellerEventController {
+
+    private final SellerEventHub sellerEventHub;
+    private final UserRepository userRepository;
+
+    public SellerEventController(SellerEventHub sellerEventHub, UserRepository userRepository) {
+        this.sellerEventHub = sellerEventHub;
+        this.userRepository = userRepository;
+    }
+
+    // GET /api/seller/events → stream SSE review baru/diubah/dihapus pada listing seller
+    // (pengganti polling feed review per listing). Reconnect mengirim header Last-Event-ID.
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId
+    ) {
+        return sellerEventHub.subscribe(getCurrentSellerId(), parseEventId(lastEventId));
+    }
+
+    // Seller diambil dari principal JWT, tanpa query database per koneksi
+    // (token lama tanpa claim identitas dimuat sekali dari database)
+    private Long getCurrentSellerId() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !(auth.getPrincipal() instanceof AuthenticatedUser principal)) {
+            throw new InvalidCredentialException("Tidak terautentikasi");
+        }
+        AuthenticatedUser user = principal.hasIdentityClaims()
+                ? principal
+                : userRepository.findByUsername(principal.getUsername())
+                        .map(AuthenticatedUser::of)
+                        .orElseThrow(() -> new ResourceNotFoundException("User tidak ditemukan"));
+        if (user.getRole() != UserRole.SELLER) {
+            throw new BusinessException("Hanya Seller yang boleh mengakses fitur ini");
+        }
+        return user.getUserId();
+    }
+
+    // Last-Event-ID yang tidak valid diperlakukan seperti koneksi baru
+    private static Long parseEventId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
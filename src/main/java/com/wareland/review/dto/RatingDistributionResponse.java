@@ -0,0 +1,35 @@
+package com.wareland.review.dto;
+
+/**
+ * Distribusi rating satu property: counts[0] = jumlah bintang 1, ..., counts[4] = bintang 5.
+ */
+public class RatingDistributionResponse {
+
+    private int propertyId;
+    private long[] counts;
+    private long totalReviews;
+    private double averageRating;
+
+    public RatingDistributionResponse(int propertyId, long[] counts, long totalReviews, double averageRating) {
+        this.propertyId = propertyId;
+        this.counts = counts;
+        this.totalReviews = totalReviews;
+        this.averageRating = averageRating;
+    }
+
+    public int getPropertyId() {
+        return propertyId;
+    }
+
+    public long[] getCounts() {
+        return counts;
+    }
+
+    public long getTotalReviews() {
+        return totalReviews;
+    }
+
+    public double getAverageRating() {
+        return averageRating;
+    }
+}
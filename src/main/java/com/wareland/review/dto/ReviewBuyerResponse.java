@@ -10,6 +10,8 @@ public class ReviewBuyerResponse {
     private int rating;
     private String comment;
     private LocalDateTime createdAt;
+    // true jika review masih di antrian write-behind (reviewId belum ada)
+    private boolean pending;
 
     public ReviewBuyerResponse(Long reviewId, Long propertyId, String propertyTitle, int rating, String comment, LocalDateTime createdAt) {
         this.reviewId = reviewId;
@@ -20,6 +22,13 @@ public class ReviewBuyerResponse {
         this.createdAt = createdAt;
     }
 
+    public static ReviewBuyerResponse pending(Long propertyId, String propertyTitle, int rating, String comment,
+                                              LocalDateTime createdAt) {
+        ReviewBuyerResponse response = new ReviewBuyerResponse(null, propertyId, propertyTitle, rating, comment, createdAt);
+        response.pending = true;
+        return response;
+    }
+
     public Long getReviewId() {
         return reviewId;
     }
@@ -43,4 +52,8 @@ public class ReviewBuyerResponse {
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
+
+    public boolean isPending() {
+        return pending;
+    }
 }
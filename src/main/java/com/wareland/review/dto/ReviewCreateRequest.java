@@ -4,7 +4,7 @@ import jakarta.validation.constraints.*;
 
 public class ReviewCreateRequest {
 
-    @NotNull
+    // Opsional: buyer diambil dari token; jika diisi harus sama dengan user yang login
     private Long buyerId;
 
     @NotNull
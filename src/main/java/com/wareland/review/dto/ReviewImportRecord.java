@@ -0,0 +1,55 @@
+package com.wareland.review.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Satu baris NDJSON pada import review massal. createdAt opsional (default: waktu import).
+ */
+public class ReviewImportRecord {
+
+    private Long buyerId;
+    private Long propertyId;
+    private int rating;
+    private String comment;
+    private LocalDateTime createdAt;
+
+    public Long getBuyerId() {
+        return buyerId;
+    }
+
+    public void setBuyerId(Long buyerId) {
+        this.buyerId = buyerId;
+    }
+
+    public Long getPropertyId() {
+        return propertyId;
+    }
+
+    public void setPropertyId(Long propertyId) {
+        this.propertyId = propertyId;
+    }
+
+    public int getRating() {
+        return rating;
+    }
+
+    public void setRating(int rating) {
+        this.rating = rating;
+    }
+
+    public String getComment() {
+        return comment;
+    }
+
+    public void setComment(String comment) {
+        this.comment = comment;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,71 @@
+package com.wareland.review.dto;
+
+import java.util.List;
+
+/**
+ * Ringkasan hasil import review massal: jumlah baris, throughput, dan contoh baris yang ditolak.
+ */
+public class ReviewImportReport {
+
+    private long received;
+    private long inserted;
+    private long rejected;
+    private long elapsedMs;
+    private double reviewsPerSecond;
+    // Hanya sebagian penolakan pertama yang dilaporkan; jumlah lengkap ada di "rejected"
+    private List<Reject> rejects;
+
+    public ReviewImportReport(long received, long inserted, long rejected, long elapsedMs, List<Reject> rejects) {
+        this.received = received;
+        this.inserted = inserted;
+        this.rejected = rejected;
+        this.elapsedMs = elapsedMs;
+        this.reviewsPerSecond = elapsedMs == 0 ? inserted : inserted * 1000.0 / elapsedMs;
+        this.rejects = rejects;
+    }
+
+    public long getReceived() {
+        return received;
+    }
+
+    public long getInserted() {
+        return inserted;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    public double getReviewsPerSecond() {
+        return reviewsPerSecond;
+    }
+
+    public List<Reject> getRejects() {
+        return rejects;
+    }
+
+    /**
+     * Baris yang ditolak beserta alasannya (nomor baris dimulai dari 1).
+     */
+    public static class Reject {
+        private final long line;
+        private final String reason;
+
+        public Reject(long line, String reason) {
+            this.line = line;
+            this.reason = reason;
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+    }
+}
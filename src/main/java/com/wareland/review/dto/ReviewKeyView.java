@@ -0,0 +1,13 @@
+package com.wareland.review.dto;
+
+/**
+ * Projection pasangan (buyer, property) review yang sudah ada, beserta ID review-nya.
+ */
+public interface ReviewKeyView {
+
+    Long getReviewId();
+
+    Long getBuyerId();
+
+    Integer getPropertyId();
+}
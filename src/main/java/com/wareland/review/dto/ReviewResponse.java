@@ -9,6 +9,8 @@ public class ReviewResponse {
     private String comment;
     private String buyerName;
     private LocalDateTime createdAt;
+    // true jika review masih di antrian write-behind (reviewId belum ada)
+    private boolean pending;
 
     public ReviewResponse(Long reviewId, int rating, String comment, String buyerName, LocalDateTime createdAt) {
         this.reviewId = reviewId;
@@ -18,6 +20,12 @@ public class ReviewResponse {
         this.createdAt = createdAt;
     }
 
+    public static ReviewResponse pending(int rating, String comment, String buyerName, LocalDateTime createdAt) {
+        ReviewResponse response = new ReviewResponse(null, rating, comment, buyerName, createdAt);
+        response.pending = true;
+        return response;
+    }
+
     public Long getReviewId() {
         return reviewId;
     }
@@ -37,4 +45,8 @@ public class ReviewResponse {
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
+
+    public boolean isPending() {
+        return pending;
+    }
 }
@@ -0,0 +1,52 @@
+package com.wareland.review.dto;
+
+import java.util.List;
+
+/**
+ * Satu halaman hasil pencarian review, terurut dari skor relevansi tertinggi.
+ */
+public class ReviewSearchResponse {
+
+    private String query;
+    private List<ReviewResponse> items;
+    private int page;
+    private int size;
+    private long totalHits;
+    private long totalPages;
+
+    public ReviewSearchResponse() {
+    }
+
+    public ReviewSearchResponse(String query, List<ReviewResponse> items, int page, int size, long totalHits) {
+        this.query = query;
+        this.items = items;
+        this.page = page;
+        this.size = size;
+        this.totalHits = totalHits;
+        this.totalPages = (totalHits + size - 1) / size;
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    public List<ReviewResponse> getItems() {
+        return items;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public long getTotalHits() {
+        return totalHits;
+    }
+
+    public long getTotalPages() {
+        return totalPages;
+    }
+}
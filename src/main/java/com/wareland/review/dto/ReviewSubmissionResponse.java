@@ -0,0 +1,46 @@
+package com.wareland.review.dto;
+
+/**
+ * Status review yang dikirim saat mode write-behind aktif.
+ * reviewId terisi setelah status WRITTEN; reason terisi jika REJECTED.
+ */
+public class ReviewSubmissionResponse {
+
+    public enum Status {
+        PENDING,
+        WRITTEN,
+        REJECTED
+    }
+
+    private String handle;
+    private Status status;
+    private Long reviewId;
+    private String reason;
+
+    public ReviewSubmissionResponse(String handle, Status status, Long reviewId, String reason) {
+        this.handle = handle;
+        this.status = status;
+        this.reviewId = reviewId;
+        this.reason = reason;
+    }
+
+    public static ReviewSubmissionResponse pending(String handle) {
+        return new ReviewSubmissionResponse(handle, Status.PENDING, null, null);
+    }
+
+    public String getHandle() {
+        return handle;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Long getReviewId() {
+        return reviewId;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+}
@@ -0,0 +1,11 @@
+package com.wareland.review.dto;
+
+/**
+ * Projection ringan (id, komentar) untuk membangun index pencarian review.
+ */
+public interface ReviewTextView {
+
+    Long getId();
+
+    String getComment();
+}
@@ -0,0 +1,57 @@
+package com.wareland.review.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Notifikasi perubahan review pada listing seller, dikirim lewat stream SSE /api/seller/events.
+ */
+public class SellerReviewEvent {
+
+    private final long eventId;
+    private final String type;
+    private final Long reviewId;
+    private final Integer propertyId;
+    // 0 jika tidak ada (CREATED / DELETED)
+    private final int previousRating;
+    private final int rating;
+    private final LocalDateTime occurredAt;
+
+    public SellerReviewEvent(long eventId, String type, Long reviewId, Integer propertyId,
+                             int previousRating, int rating, LocalDateTime occurredAt) {
+        this.eventId = eventId;
+        this.type = type;
+        this.reviewId = reviewId;
+        this.propertyId = propertyId;
+        this.previousRating = previousRating;
+        this.rating = rating;
+        this.occurredAt = occurredAt;
+    }
+
+    public long getEventId() {
+        return eventId;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public Long getReviewId() {
+        return reviewId;
+    }
+
+    public Integer getPropertyId() {
+        return propertyId;
+    }
+
+    public int getPreviousRating() {
+        return previousRating;
+    }
+
+    public int getRating() {
+        return rating;
+    }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+}
@@ -0,0 +1,78 @@
+package com.wareland.review.event;
+
+/**
+ * Event yang dipublikasikan ReviewService setiap kali review dibuat, diubah, atau dihapus.
+ * Rating sebelumnya disertakan agar listener dapat menghitung delta tanpa query ulang.
+ */
+public class ReviewChangedEvent {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final Type type;
+    private final Long reviewId;
+    private final Integer propertyId;
+    private final Long sellerId;
+    private final Long buyerId;
+    // 0 jika tidak ada (CREATED)
+    private final int previousRating;
+    // 0 jika tidak ada (DELETED)
+    private final int rating;
+    // Status listing saat perubahan; review listing yang sudah di-delist tidak dihitung di reputasi seller
+    private final boolean listingActive;
+
+    public ReviewChangedEvent(
+            Type type,
+            Long reviewId,
+            Integer propertyId,
+            Long sellerId,
+            Long buyerId,
+            int previousRating,
+            int rating,
+            boolean listingActive
+    ) {
+        this.type = type;
+        this.reviewId = reviewId;
+        this.propertyId = propertyId;
+        this.sellerId = sellerId;
+        this.buyerId = buyerId;
+        this.previousRating = previousRating;
+        this.rating = rating;
+        this.listingActive = listingActive;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getReviewId() {
+        return reviewId;
+    }
+
+    public Integer getPropertyId() {
+        return propertyId;
+    }
+
+    public Long getSellerId() {
+        return sellerId;
+    }
+
+    public Long getBuyerId() {
+        return buyerId;
+    }
+
+    public int getPreviousRating() {
+        return previousRating;
+    }
+
+    public int getRating() {
+        return rating;
+    }
+
+    public boolean isListingActive() {
+        return listingActive;
+    }
+}
@@ -0,0 +1,357 @@
+package com.wareland.review.ingest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wareland.catalog.leaderboard.TopRatedIndex;
+import com.wareland.property.dto.ListingSellerView;
+import com.wareland.property.model.Property;
+import com.wareland.property.repository.PropertyRepository;
+import com.wareland.property.service.SellerDashboardService;
+import com.wareland.review.dto.ReviewImportRecord;
+import com.wareland.review.dto.ReviewImportReport;
+import com.wareland.review.dto.ReviewKeyView;
+import com.wareland.review.model.Review;
+import com.wareland.review.rating.RatingDistributionStore;
+import com.wareland.review.rating.RatingHistogram;
+import com.wareland.review.repository.ReviewRepository;
+import com.wareland.review.search.ReviewSearchIndex;
+import com.wareland.user.model.Buyer;
+import com.wareland.user.repository.UserRepository;
+import com.wareland.user.service.SellerReputationService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Import review massal dari stream NDJSON (satu review per baris) untuk migrasi data historis.
+ *
+ * Baris dibaca secara streaming dan diproses per batch dalam transaksi sendiri:
+ * validasi buyer/property/duplikat memakai tiga query per batch, lalu INSERT dikirim
+ * sebagai JDBC batch. Batch yang bentrok dengan review dari API diulang per baris, sehingga
+ * hanya baris yang bentrok yang ditolak. Event per review tidak dipublikasikan; delta agregat
+ * (distribusi rating, leaderboard, reputasi seller) dikumpulkan per listing dan diterapkan
+ * sekali di akhir import, hanya untuk listing dan seller yang terdampak.
+ */
+@Component
+public class ReviewBulkImporter {
+
+    private static final Logger log = LoggerFactory.getLogger(ReviewBulkImporter.class);
+    // Sama dengan panjang kolom reviews.comment
+    private static final int MAX_COMMENT_LENGTH = 1000;
+
+    private final ReviewRepository reviewRepository;
+    private final UserRepository userRepository;
+    private final PropertyRepository propertyRepository;
+    private final RatingDistributionStore ratingDistributionStore;
+    private final TopRatedIndex topRatedIndex;
+    private final SellerReputationService sellerReputationService;
+    private final ReviewSearchIndex reviewSearchIndex;
+    private final SellerDashboardService sellerDashboardService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxReportedRejects;
+    private final Counter insertedRows;
+    private final Counter rejectedRows;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ReviewBulkImporter(
+            ReviewRepository reviewRepository,
+            UserRepository userRepository,
+            PropertyRepository propertyRepository,
+            RatingDistributionStore ratingDistributionStore,
+            TopRatedIndex topRatedIndex,
+            SellerReputationService sellerReputationService,
+            ReviewSearchIndex reviewSearchIndex,
+            SellerDashboardService sellerDashboardService,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.review.import.batch-size:1000}") int batchSize,
+            @Value("${app.review.import.max-reported-rejects:100}") int maxReportedRejects
+    ) {
+        this.reviewRepository = reviewRepository;
+        this.userRepository = userRepository;
+        this.propertyRepository = propertyRepository;
+        this.ratingDistributionStore = ratingDistributionStore;
+        this.topRatedIndex = topRatedIndex;
+        this.sellerReputationService = sellerReputationService;
+        this.reviewSearchIndex = reviewSearchIndex;
+        this.sellerDashboardService = sellerDashboardService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxReportedRejects = maxReportedRejects;
+        this.insertedRows = Counter.builder("review.import.rows")
+                .tag("result", "inserted")
+                .register(meterRegistry);
+        this.rejectedRows = Counter.builder("review.import.rows")
+                .tag("result", "rejected")
+                .register(meterRegistry);
+    }
+
+    public ReviewImportReport importNdjson(InputStream input) throws IOException {
+        long start = System.currentTimeMillis();
+        Run run = new Run();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            List<Line> batch = new ArrayList<>(batchSize);
+            // Dedup (buyer, property) hanya di dalam batch; antar batch ditangani query review yang sudah ada
+            Set<String> batchKeys = new HashSet<>();
+            String text;
+            long lineNumber = 0;
+            while ((text = reader.readLine()) != null) {
+                lineNumber++;
+                if (text.isBlank()) {
+                    continue;
+                }
+                run.received++;
+                ReviewImportRecord record = parse(run, lineNumber, text);
+                if (record == null) {
+                    continue;
+                }
+                if (!batchKeys.add(record.getBuyerId() + ":" + record.getPropertyId())) {
+                    run.reject(lineNumber, "Duplikat review (buyer, property) dalam batch yang sama");
+                    continue;
+                }
+                batch.add(new Line(lineNumber, record));
+                if (batch.size() >= batchSize) {
+                    writeBatch(run, batch);
+                    batch.clear();
+                    batchKeys.clear();
+                }
+            }
+            writeBatch(run, batch);
+        }
+
+        long elapsed = System.currentTimeMillis() - start;
+        ReviewImportReport report =
+                new ReviewImportReport(run.received, run.inserted, run.rejected, elapsed, run.rejects);
+        log.info("Import review selesai dalam {} ms: {} diterima, {} disimpan, {} ditolak ({} review/detik)",
+                elapsed, run.received, run.inserted, run.rejected, Math.round(report.getReviewsPerSecond()));
+        return report;
+    }
+
+    // Validasi rating & komentar mengikuti ReviewService.createReview
+    private ReviewImportRecord parse(Run run, long lineNumber, String text) {
+        ReviewImportRecord record;
+        try {
+            record = objectMapper.readValue(text, ReviewImportRecord.class);
+        } catch (JsonProcessingException e) {
+            run.reject(lineNumber, "Format JSON tidak valid");
+            return null;
+        }
+        if (record.getBuyerId() == null || record.getPropertyId() == null) {
+            run.reject(lineNumber, "buyerId dan propertyId wajib diisi");
+            return null;
+        }
+        if (record.getPropertyId() < 1 || record.getPropertyId() > Integer.MAX_VALUE) {
+            run.reject(lineNumber, "Property dengan ID " + record.getPropertyId() + " tidak ditemukan");
+            return null;
+        }
+        if (record.getRating() < 1 || record.getRating() > 5) {
+            run.reject(lineNumber, "Rating harus antara 1 hingga 5");
+            return null;
+        }
+        if (record.getComment() == null || record.getComment().isBlank()) {
+            run.reject(lineNumber, "Comment tidak boleh kosong");
+            return null;
+        }
+        if (record.getComment().length() > MAX_COMMENT_LENGTH) {
+            run.reject(lineNumber, "Comment maksimal " + MAX_COMMENT_LENGTH + " karakter");
+            return null;
+        }
+        return record;
+    }
+
+    private void writeBatch(Run run, List<Line> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            commitBatch(run, batch);
+        } catch (DataIntegrityViolationException e) {
+            // Bentrok dengan review yang dibuat bersamaan lewat API: batch di-rollback lalu
+            // diulang per baris agar hanya baris yang bentrok yang ditolak
+            log.warn("Batch import review bentrok, disimpan ulang per baris: {}", e.getMostSpecificCause().getMessage());
+            for (Line line : batch) {
+                try {
+                    commitBatch(run, List.of(line));
+                } catch (DataIntegrityViolationException rowError) {
+                    run.reject(line.number, "Buyer sudah memberikan review untuk properti ini");
+                }
+            }
+        }
+    }
+
+    // Satu transaksi; hasil dan agregat baru dicatat setelah commit, per batch, agar batch yang
+    // sudah commit tetap terhitung walau stream terputus atau proses berhenti di tengah import
+    private void commitBatch(Run run, List<Line> batch) {
+        List<Line> rejected = new ArrayList<>();
+        Map<Integer, ImportedListing> listings = new HashMap<>();
+        Integer inserted = transactionTemplate.execute(status -> insertBatch(batch, rejected, listings));
+        for (Line line : rejected) {
+            run.reject(line.number, line.reason);
+        }
+        run.inserted += inserted == null ? 0 : inserted;
+        insertedRows.increment(inserted == null ? 0 : inserted);
+        if (!listings.isEmpty()) {
+            applyAggregates(listings);
+        }
+    }
+
+    private int insertBatch(List<Line> batch, List<Line> rejected, Map<Integer, ImportedListing> listings) {
+        Set<Long> buyerIds = new HashSet<>();
+        Set<Integer> propertyIds = new HashSet<>();
+        for (Line line : batch) {
+            buyerIds.add(line.record.getBuyerId());
+            propertyIds.add(line.record.getPropertyId().intValue());
+        }
+
+        Set<Long> buyers = new HashSet<>(userRepository.findBuyerIds(buyerIds));
+        Map<Integer, Long> activeListings = new HashMap<>();
+        for (ListingSellerView listing : propertyRepository.findActiveListingSellers(propertyIds)) {
+            activeListings.put(listing.getPropertyId(), listing.getSellerId());
+        }
+        Set<String> existing = new HashSet<>();
+        for (ReviewKeyView key : reviewRepository.findExistingKeys(buyerIds, propertyIds)) {
+            existing.add(key.getBuyerId() + ":" + key.getPropertyId());
+        }
+
+        List<Review> reviews = new ArrayList<>(batch.size());
+        for (Line line : batch) {
+            ReviewImportRecord record = line.record;
+            Integer propertyId = record.getPropertyId().intValue();
+            if (!buyers.contains(record.getBuyerId())) {
+                rejected.add(line.rejectWith("Buyer dengan ID " + record.getBuyerId() + " tidak ditemukan"));
+                continue;
+            }
+            Long sellerId = activeListings.get(propertyId);
+            if (sellerId == null) {
+                rejected.add(line.rejectWith("Property dengan ID " + record.getPropertyId() + " tidak ditemukan"));
+                continue;
+            }
+            if (existing.contains(record.getBuyerId() + ":" + propertyId)) {
+                rejected.add(line.rejectWith("Buyer sudah memberikan review untuk properti ini"));
+                continue;
+            }
+
+            Review review = new Review();
+            review.setBuyer(entityManager.getReference(Buyer.class, record.getBuyerId()));
+            review.setProperty(entityManager.getReference(Property.class, propertyId));
+            review.setRating(record.getRating());
+            review.setComment(record.getComment());
+            review.setCreatedAt(record.getCreatedAt());
+            reviews.add(review);
+            listings.computeIfAbsent(propertyId, id -> new ImportedListing(sellerId)).add(record.getRating());
+        }
+        // INSERT dikirim sebagai JDBC batch (hibernate.jdbc.batch_size); lewat repository agar
+        // pelanggaran constraint diterjemahkan menjadi DataIntegrityViolationException
+        reviewRepository.saveAll(reviews);
+        reviewRepository.flush();
+        entityManager.clear();
+        return reviews.size();
+    }
+
+    private void applyAggregates(Map<Integer, ImportedListing> listings) {
+        Map<Long, long[]> reputationDeltas = new HashMap<>();
+        listings.forEach((propertyId, imported) -> {
+            ratingDistributionStore.addCounts(propertyId, imported.ratings);
+            topRatedIndex.applyDelta(propertyId, imported.count(), imported.sum());
+            reviewSearchIndex.invalidate(propertyId);
+            long[] delta = reputationDeltas.computeIfAbsent(imported.sellerId, id -> new long[2]);
+            delta[0] += imported.count();
+            delta[1] += imported.sum();
+        });
+        // Langsung ke seller, tanpa melihat status listing: delisting sudah mengurangkan review import yang commit
+        sellerReputationService.applySellerDeltas(reputationDeltas);
+        for (Long sellerId : reputationDeltas.keySet()) {
+            sellerDashboardService.evict(sellerId);
+        }
+    }
+
+    private final class Run {
+        private long received;
+        private long inserted;
+        private long rejected;
+        private final List<ReviewImportReport.Reject> rejects = new ArrayList<>();
+
+        private void reject(long lineNumber, String reason) {
+            rejected++;
+            rejectedRows.increment();
+            if (rejects.size() < maxReportedRejects) {
+                rejects.add(new ReviewImportReport.Reject(lineNumber, reason));
+            }
+        }
+    }
+
+    private static final class Line {
+        private final long number;
+        private final ReviewImportRecord record;
+        private String reason;
+
+        private Line(long number, ReviewImportRecord record) {
+            this.number = number;
+            this.record = record;
+        }
+
+        private Line rejectWith(String reason) {
+            this.reason = reason;
+            return this;
+        }
+    }
+
+    // Review yang berhasil disimpan untuk satu listing: jumlah per bintang dan seller pemilik
+    private static final class ImportedListing {
+        private final long sellerId;
+        private final long[] ratings = new long[RatingHistogram.STARS];
+
+        private ImportedListing(long sellerId) {
+            this.sellerId = sellerId;
+        }
+
+        private void add(int rating) {
+            ratings[rating - 1]++;
+        }
+
+        private long count() {
+            long count = 0;
+            for (long value : ratings) {
+                count += value;
+            }
+            return count;
+        }
+
+        private long sum() {
+            long sum = 0;
+            for (int star = 1; star <= ratings.length; star++) {
+                sum += star * ratings[star - 1];
+            }
+            return sum;
+        }
+    }
+}
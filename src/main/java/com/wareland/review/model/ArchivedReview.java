@@ -0,0 +1,74 @@
+package com.wareland.review.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Review milik listing yang sudah diarsipkan. Relasi disimpan sebagai ID saja.
+ */
+@Entity
+@Table(
+        name = "reviews_archive",
+        indexes = {
+                @Index(name = "idx_reviews_archive_property", columnList = "property_id")
+        }
+)
+public class ArchivedReview {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private int rating;
+
+    @Column(nullable = false, length = 1000)
+    private String comment;
+
+    @Column(name = "buyer_id", nullable = false)
+    private Long buyerId;
+
+    @Column(name = "property_id", nullable = false)
+    private Integer propertyId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    public Long getId() {
+        return id;
+    }
+
+    public int getRating() {
+        return rating;
+    }
+
+    public String getComment() {
+        return comment;
+    }
+
+    public Long getBuyerId() {
+        return buyerId;
+    }
+
+    public Integer getPropertyId() {
+        return propertyId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+}
@@ -0,0 +1,64 @@
+package com.wareland.review.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ringkasan jumlah review per bintang untuk satu property.
+ * Ditulis secara batch oleh RatingDistributionStore (delta), bukan lewat entity ini.
+ */
+@Entity
+@Table(name = "property_rating_summary")
+public class PropertyRatingSummary {
+
+    @Id
+    @Column(name = "property_id")
+    private Integer propertyId;
+
+    @Column(name = "star1", nullable = false)
+    private long star1;
+
+    @Column(name = "star2", nullable = false)
+    private long star2;
+
+    @Column(name = "star3", nullable = false)
+    private long star3;
+
+    @Column(name = "star4", nullable = false)
+    private long star4;
+
+    @Column(name = "star5", nullable = false)
+    private long star5;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public Integer getPropertyId() {
+        return propertyId;
+    }
+
+    public long getStar1() {
+        return star1;
+    }
+
+    public long getStar2() {
+        return star2;
+    }
+
+    public long getStar3() {
+        return star3;
+    }
+
+    public long getStar4() {
+        return star4;
+    }
+
+    public long getStar5() {
+        return star5;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -17,12 +17,20 @@ import java.time.LocalDateTime;
                         name = "uk_review_buyer_property",
                         columnNames = {"buyer_id", "property_id"}
                 )
+        },
+        // Index keyset untuk feed review per property / per buyer (lihat ReviewRepositoryImpl)
+        indexes = {
+                @Index(name = "idx_reviews_property_created", columnList = "property_id, created_at, id"),
+                @Index(name = "idx_reviews_property_rating_created", columnList = "property_id, rating, created_at, id"),
+                @Index(name = "idx_reviews_buyer_created", columnList = "buyer_id, created_at, id")
         }
 )
 public class Review {
 
+    // SEQUENCE (bukan IDENTITY) agar INSERT bisa di-batch JDBC; ID dialokasikan per blok 50
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "review_id_seq")
+    @SequenceGenerator(name = "review_id_seq", sequenceName = "reviews_id_seq", allocationSize = 50)
     private Long id;
 
     @Min(1)
@@ -35,11 +43,11 @@ public class Review {
     private String comment;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
-    @JoinColumn(name = "buyer_id", nullable = false)
+    @JoinColumn(name = "buyer_id", nullable = false, foreignKey = @ForeignKey(name = "fk_review_buyer"))
     private Buyer buyer;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
-    @JoinColumn(name = "property_id", nullable = false)
+    @JoinColumn(name = "property_id", nullable = false, foreignKey = @ForeignKey(name = "fk_review_property"))
     private Property property;
 
     @Column(nullable = false)
@@ -50,7 +58,10 @@ public class Review {
 
     @PrePersist
     public void prePersist() {
-        this.createdAt = LocalDateTime.now();
+        // Review hasil migrasi membawa createdAt aslinya
+        if (this.createdAt == null) {
+            this.createdAt = LocalDateTime.now();
+        }
     }
 
     @PreUpdate
@@ -98,6 +109,10 @@ public class Review {
         return createdAt;
     }
 
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
     public LocalDateTime getUpdatedAt() {
         return updatedAt;
     }
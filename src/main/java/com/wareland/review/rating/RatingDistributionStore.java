@@ -0,0 +1,260 @@
+package com.wareland.review.rating;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.wareland.property.event.ListingsArchivedEvent;
+import com.wareland.review.event.ReviewChangedEvent;
+import com.wareland.review.repository.RatingSummaryRepository;
+
+/**
+ * Distribusi rating (histogram bintang 1-5) per property yang disimpan di memori.
+ *
+ * Diperbarui dari ReviewChangedEvent setelah commit; update memindahkan satu hitungan
+ * dari bucket rating lama ke bucket rating baru. Perubahan dikumpulkan sebagai delta dan
+ * di-flush berkala ke tabel property_rating_summary.
+ *
+ * Saat startup histogram dimuat dari tabel ringkasan (satu scan tabel kecil), lalu
+ * direkonsiliasi dengan agregat tabel reviews di thread background, dan selanjutnya secara
+ * terjadwal. Selisih yang ditemukan diterapkan sebagai delta biasa, sehingga histogram dan
+ * tabel ringkasan terkoreksi bersama tanpa menahan startup maupun update yang berjalan.
+ */
+@Component
+public class RatingDistributionStore {
+
+    private static final Logger log = LoggerFactory.getLogger(RatingDistributionStore.class);
+
+    private final RatingSummaryRepository summaryRepository;
+    private final int flushBatchSize;
+
+    private final Map<Integer, RatingHistogram> histograms = new ConcurrentHashMap<>();
+    private final Set<Integer> dirty = ConcurrentHashMap.newKeySet();
+    // Flush ditahan sampai isi tabel ringkasan dimuat, agar delta tidak terbaca dua kali
+    private volatile boolean loaded;
+    // Property yang berubah selama rekonsiliasi berjalan; null jika tidak ada rekonsiliasi
+    private volatile Set<Integer> changedDuringReconcile;
+
+    public RatingDistributionStore(
+            RatingSummaryRepository summaryRepository,
+            @Value("${app.review.rating.flush-batch-size:500}") int flushBatchSize
+    ) {
+        this.summaryRepository = summaryRepository;
+        this.flushBatchSize = flushBatchSize;
+    }
+
+    /**
+     * Histogram property, atau null jika property belum memiliki review.
+     */
+    public RatingHistogram find(Integer propertyId) {
+        return histograms.get(propertyId);
+    }
+
+    public void apply(Integer propertyId, int previousRating, int rating) {
+        if (previousRating == rating) {
+            return;
+        }
+        markChanged(propertyId);
+        RatingHistogram histogram = histograms.computeIfAbsent(propertyId, id -> new RatingHistogram());
+        if (previousRating > 0) {
+            histogram.add(previousRating, -1);
+        }
+        if (rating > 0) {
+            histogram.add(rating, 1);
+        }
+        dirty.add(propertyId);
+    }
+
+    /**
+     * Menambahkan hitungan per bintang sekaligus (misalnya review hasil import massal).
+     */
+    public void addCounts(Integer propertyId, long[] counts) {
+        markChanged(propertyId);
+        RatingHistogram histogram = histograms.computeIfAbsent(propertyId, id -> new RatingHistogram());
+        for (int star = 1; star <= RatingHistogram.STARS; star++) {
+            if (counts[star - 1] != 0) {
+                histogram.add(star, counts[star - 1]);
+            }
+        }
+        dirty.add(propertyId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReviewChanged(ReviewChangedEvent event) {
+        apply(event.getPropertyId(), event.getPreviousRating(), event.getRating());
+    }
+
+    // Baris ringkasan ikut dihapus oleh job arsip; di sini cukup membuang data in-memory
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onListingsArchived(ListingsArchivedEvent event) {
+        for (Integer propertyId : event.getPropertyIds()) {
+            markChanged(propertyId);
+            histograms.remove(propertyId);
+            dirty.remove(propertyId);
+        }
+    }
+
+    /**
+     * Menulis delta yang terkumpul ke tabel ringkasan dalam batch.
+     */
+    @Scheduled(fixedDelayString = "${app.review.rating.flush-interval-ms:5000}")
+    public void flush() {
+        if (!loaded) {
+            return;
+        }
+        while (!dirty.isEmpty()) {
+            Map<Integer, long[]> batch = drainBatch();
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                summaryRepository.applyDeltas(batch);
+            } catch (RuntimeException e) {
+                // Delta dikembalikan dan dicoba lagi pada jadwal berikutnya
+                restore(batch);
+                log.warn("Flush ringkasan rating gagal untuk {} property: {}", batch.size(), e.getMessage());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Memuat histogram dari tabel ringkasan, lalu memulai rekonsiliasi di background.
+     * Update yang masuk sebelum pemuatan selesai tetap tercatat sebagai delta.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        Map<Integer, long[]> stored = summaryRepository.findAllCounts();
+        stored.forEach((propertyId, count) ->
+                histograms.computeIfAbsent(propertyId, id -> new RatingHistogram()).load(count));
+        loaded = true;
+        log.info("Distribusi rating dimuat dari tabel ringkasan untuk {} property", stored.size());
+
+        Thread reconciler = new Thread(this::reconcileQuietly, "rating-reconcile");
+        reconciler.setDaemon(true);
+        reconciler.start();
+    }
+
+    /**
+     * Mencocokkan histogram dengan agregat tabel reviews (sumber kebenaran). Selisih per
+     * bintang diterapkan sebagai delta dan ikut di-flush ke tabel ringkasan.
+     *
+     * Snapshot agregat tidak bisa dibedakan dari update yang datang selama query berjalan
+     * (review yang sudah ada di snapshot bisa diterapkan lagi setelahnya), sehingga property
+     * yang berubah sejak rekonsiliasi dimulai dilewati dan dicek ulang pada jadwal berikutnya.
+     */
+    @Scheduled(cron = "${app.review.rating.reconcile-cron:0 45 3 * * *}")
+    public synchronized void reconcile() {
+        if (!loaded) {
+            return;
+        }
+        Set<Integer> changed = ConcurrentHashMap.newKeySet();
+        changedDuringReconcile = changed;
+        try {
+            reconcileExcept(changed);
+        } finally {
+            changedDuringReconcile = null;
+        }
+    }
+
+    private void reconcileExcept(Set<Integer> skipped) {
+        Map<Integer, long[]> counts = summaryRepository.countReviewsByPropertyAndRating();
+        int corrected = 0;
+        Set<Integer> propertyIds = new HashSet<>(histograms.keySet());
+        propertyIds.addAll(counts.keySet());
+        for (Integer propertyId : propertyIds) {
+            if (skipped.contains(propertyId)) {
+                continue;
+            }
+            long[] expected = counts.get(propertyId);
+            RatingHistogram histogram = expected != null
+                    ? histograms.computeIfAbsent(propertyId, id -> new RatingHistogram())
+                    : histograms.get(propertyId);
+            if (histogram == null) {
+                continue;
+            }
+            if (expected == null) {
+                expected = new long[RatingHistogram.STARS];
+            }
+            boolean changed = false;
+            for (int star = 1; star <= RatingHistogram.STARS; star++) {
+                long difference = expected[star - 1] - histogram.count(star);
+                if (difference != 0) {
+                    histogram.add(star, difference);
+                    changed = true;
+                }
+            }
+            if (changed) {
+                dirty.add(propertyId);
+                corrected++;
+            }
+        }
+        log.info("Distribusi rating direkonsiliasi: {} dari {} property dikoreksi, {} dilewati karena berubah",
+                corrected, propertyIds.size(), skipped.size());
+    }
+
+    // Ditandai sebelum histogram diubah, agar rekonsiliasi yang sedang berjalan melewatinya
+    private void markChanged(Integer propertyId) {
+        Set<Integer> changed = changedDuringReconcile;
+        if (changed != null) {
+            changed.add(propertyId);
+        }
+    }
+
+    private void reconcileQuietly() {
+        try {
+            reconcile();
+        } catch (RuntimeException e) {
+            log.warn("Rekonsiliasi distribusi rating gagal: {}", e.getMessage());
+        }
+    }
+
+    private Map<Integer, long[]> drainBatch() {
+        Map<Integer, long[]> batch = new HashMap<>();
+        Iterator<Integer> iterator = dirty.iterator();
+        while (iterator.hasNext() && batch.size() < flushBatchSize) {
+            Integer propertyId = iterator.next();
+            // Hapus tanda dirty sebelum drain: update yang masuk sesudahnya menandai ulang
+            iterator.remove();
+            RatingHistogram histogram = histograms.get(propertyId);
+            if (histogram == null) {
+                continue;
+            }
+            long[] delta = new long[RatingHistogram.STARS];
+            boolean changed = false;
+            for (int star = 1; star <= RatingHistogram.STARS; star++) {
+                delta[star - 1] = histogram.drainPending(star);
+                changed |= delta[star - 1] != 0;
+            }
+            if (changed) {
+                batch.put(propertyId, delta);
+            }
+        }
+        return batch;
+    }
+
+    private void restore(Map<Integer, long[]> batch) {
+        batch.forEach((propertyId, delta) -> {
+            RatingHistogram histogram = histograms.get(propertyId);
+            if (histogram == null) {
+                return;
+            }
+            for (int star = 1; star <= RatingHistogram.STARS; star++) {
+                histogram.restorePending(star, delta[star - 1]);
+            }
+            dirty.add(propertyId);
+        });
+    }
+}
@@ -0,0 +1,70 @@
+package com.wareland.review.rating;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Jumlah review per bintang (1-5) untuk satu property.
+ *
+ * Setiap bucket memakai {@link LongAdder} (counter ber-stripe) sehingga review yang masuk
+ * bersamaan ke listing populer tidak saling berebut satu variabel atomik.
+ * Selain total, disimpan juga delta yang belum di-flush ke tabel ringkasan.
+ */
+public final class RatingHistogram {
+
+    public static final int STARS = 5;
+
+    private final LongAdder[] counts = new LongAdder[STARS];
+    private final LongAdder[] pending = new LongAdder[STARS];
+
+    RatingHistogram() {
+        for (int i = 0; i < STARS; i++) {
+            counts[i] = new LongAdder();
+            pending[i] = new LongAdder();
+        }
+    }
+
+    public long count(int star) {
+        return counts[star - 1].sum();
+    }
+
+    public long total() {
+        long total = 0;
+        for (LongAdder count : counts) {
+            total += count.sum();
+        }
+        return total;
+    }
+
+    public double average() {
+        long total = 0;
+        long weighted = 0;
+        for (int i = 0; i < STARS; i++) {
+            long count = counts[i].sum();
+            total += count;
+            weighted += count * (i + 1);
+        }
+        return total == 0 ? 0.0 : (double) weighted / total;
+    }
+
+    void add(int star, long delta) {
+        counts[star - 1].add(delta);
+        pending[star - 1].add(delta);
+    }
+
+    // sumThenReset mengosongkan tiap cell secara atomik (getAndSet), jadi tidak ada delta yang hilang
+    long drainPending(int star) {
+        return pending[star - 1].sumThenReset();
+    }
+
+    // Mengembalikan delta yang gagal di-flush agar ikut pada flush berikutnya
+    void restorePending(int star, long delta) {
+        pending[star - 1].add(delta);
+    }
+
+    // Memuat total yang sudah tersimpan di tabel ringkasan (tidak menjadi delta baru)
+    void load(long[] absolute) {
+        for (int i = 0; i < STARS; i++) {
+            counts[i].add(absolute[i]);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.wareland.review.repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Akses JDBC ke tabel property_rating_summary.
+ * Delta ditulis dengan batch UPDATE (star = star + delta); baris yang belum ada di-INSERT.
+ */
+@Repository
+public class RatingSummaryRepository {
+
+    private static final String UPDATE_DELTA = "UPDATE property_rating_summary SET "
+            + "star1 = star1 + ?, star2 = star2 + ?, star3 = star3 + ?, star4 = star4 + ?, star5 = star5 + ?, "
+            + "updated_at = ? WHERE property_id = ?";
+
+    private static final String INSERT_ROW = "INSERT INTO property_rating_summary "
+            + "(property_id, star1, star2, star3, star4, star5, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public RatingSummaryRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    /**
+     * Menambahkan delta per bintang. Key = property ID, value = delta bintang 1..5 (index 0..4).
+     */
+    @Transactional
+    public void applyDeltas(Map<Integer, long[]> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> updates = new ArrayList<>(deltas.size());
+        List<Integer> ids = new ArrayList<>(deltas.size());
+        deltas.forEach((propertyId, delta) -> {
+            ids.add(propertyId);
+            updates.add(new Object[] {delta[0], delta[1], delta[2], delta[3], delta[4], now, propertyId});
+        });
+
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_DELTA, updates);
+        List<Object[]> inserts = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                long[] delta = deltas.get(ids.get(i));
+                inserts.add(new Object[] {ids.get(i), delta[0], delta[1], delta[2], delta[3], delta[4], now});
+            }
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_ROW, inserts);
+        }
+    }
+
+    /**
+     * Seluruh isi tabel ringkasan: key = property ID, value = jumlah bintang 1..5 (index 0..4).
+     */
+    public Map<Integer, long[]> findAllCounts() {
+        Map<Integer, long[]> counts = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT property_id, star1, star2, star3, star4, star5 FROM property_rating_summary",
+                rs -> {
+                    long[] count = new long[5];
+                    for (int i = 0; i < count.length; i++) {
+                        count[i] = rs.getLong(i + 2);
+                    }
+                    counts.put(rs.getInt(1), count);
+                });
+        return counts;
+    }
+
+    public void deleteByPropertyIds(Collection<Integer> propertyIds) {
+        if (propertyIds.isEmpty()) {
+            return;
+        }
+        namedJdbcTemplate.update(
+                "DELETE FROM property_rating_summary WHERE property_id IN (:ids)",
+                new MapSqlParameterSource("ids", propertyIds));
+    }
+
+    /**
+     * Agregat jumlah review per (property, rating) langsung dari tabel reviews (sumber kebenaran).
+     */
+    public Map<Integer, long[]> countReviewsByPropertyAndRating() {
+        Map<Integer, long[]> counts = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT property_id, rating, COUNT(*) FROM reviews GROUP BY property_id, rating",
+                rs -> {
+                    int rating = rs.getInt(2);
+                    if (rating >= 1 && rating <= 5) {
+                        counts.computeIfAbsent(rs.getInt(1), id -> new long[5])[rating - 1] = rs.getLong(3);
+                    }
+                });
+        return counts;
+    }
+}
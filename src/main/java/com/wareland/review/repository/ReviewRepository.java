@@ -1,18 +1,53 @@
 package com.wareland.review.repository;
 
+import com.wareland.review.dto.ReviewKeyView;
+import com.wareland.review.dto.ReviewTextView;
 import com.wareland.review.model.Review;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ReviewRepository extends JpaRepository<Review, Long> {
+public interface ReviewRepository extends JpaRepository<Review, Long>, ReviewRepositoryCustom {
 
-    boolean existsByBuyerUserIdAndPropertyPropertyId(Long buyerId, Integer propertyId);
+    // Teks seluruh review satu listing untuk membangun index pencarian
+    @Query("SELECT r.id AS id, r.comment AS comment FROM Review r WHERE r.property.propertyId = :propertyId")
+    Stream<ReviewTextView> streamTextsByProperty(@Param("propertyId") Integer propertyId);
 
-    List<Review> findAllByPropertyPropertyIdOrderByCreatedAtDesc(Integer propertyId);
+    @Query("SELECT r.comment FROM Review r WHERE r.id = :id")
+    Optional<String> findCommentById(@Param("id") Long id);
 
+    @Query("SELECT COUNT(r) > 0 FROM Review r WHERE r.buyer.userId = :buyerId AND r.property.propertyId = :propertyId")
+    boolean existsByBuyerAndProperty(@Param("buyerId") Long buyerId, @Param("propertyId") Integer propertyId);
 
-    List<Review> findAllByBuyerUserIdOrderByCreatedAtDesc(Long buyerId);
+    // Pasangan (buyer, property) yang sudah direview, dibatasi kandidat satu batch import
+    @Query("SELECT r.id AS reviewId, r.buyer.userId AS buyerId, r.property.propertyId AS propertyId FROM Review r "
+            + "WHERE r.buyer.userId IN :buyerIds AND r.property.propertyId IN :propertyIds")
+    List<ReviewKeyView> findExistingKeys(@Param("buyerIds") Collection<Long> buyerIds,
+                                         @Param("propertyIds") Collection<Integer> propertyIds);
+
+    // Jumlah & total rating satu listing: [count, sum]
+    @Query("SELECT COUNT(r.id), COALESCE(SUM(r.rating), 0) FROM Review r WHERE r.property.propertyId = :propertyId")
+    List<Object[]> aggregateByProperty(@Param("propertyId") Integer propertyId);
+
+    // Dipakai job arsip: salin lalu hapus seluruh review milik sekumpulan listing
+    @Modifying
+    @Query(value = "INSERT INTO reviews_archive "
+            + "(id, rating, comment, buyer_id, property_id, created_at, updated_at, archived_at) "
+            + "SELECT id, rating, comment, buyer_id, property_id, created_at, updated_at, :archivedAt "
+            + "FROM reviews WHERE property_id IN (:propertyIds)", nativeQuery = true)
+    int copyToArchiveByPropertyIds(@Param("propertyIds") Collection<Integer> propertyIds,
+                                   @Param("archivedAt") LocalDateTime archivedAt);
+
+    @Modifying
+    @Query(value = "DELETE FROM reviews WHERE property_id IN (:propertyIds)", nativeQuery = true)
+    int deleteAllByPropertyIds(@Param("propertyIds") Collection<Integer> propertyIds);
 }
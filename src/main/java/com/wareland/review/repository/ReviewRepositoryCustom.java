@@ -0,0 +1,22 @@
+package com.wareland.review.repository;
+
+import com.wareland.review.dto.ReviewBuyerResponse;
+import com.wareland.review.dto.ReviewCursor;
+import com.wareland.review.dto.ReviewResponse;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Query feed review dengan keyset pagination pada (createdAt DESC, id DESC).
+ * Hasil langsung berupa DTO (projection + join) sehingga satu halaman = satu query.
+ */
+public interface ReviewRepositoryCustom {
+
+    List<ReviewResponse> findPageByProperty(Integer propertyId, Integer rating, ReviewCursor after, int limit);
+
+    List<ReviewBuyerResponse> findPageByBuyer(Long buyerId, Integer rating, ReviewCursor after, int limit);
+
+    // Review (DTO) berdasarkan daftar ID, urutan hasil tidak dijamin
+    List<ReviewResponse> findResponsesByIds(Collection<Long> ids);
+}
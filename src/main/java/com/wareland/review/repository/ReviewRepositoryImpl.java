@@ -0,0 +1,77 @@
+package com.wareland.review.repository;
+
+import com.wareland.review.dto.ReviewBuyerResponse;
+import com.wareland.review.dto.ReviewCursor;
+import com.wareland.review.dto.ReviewResponse;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Implementasi {@link ReviewRepositoryCustom}. Query dibangun dinamis agar filter rating
+ * dan kondisi cursor hanya muncul bila dipakai, sehingga tiap variasi tetap memakai
+ * index (property_id|buyer_id, created_at, id) dan berhenti setelah "limit" baris.
+ */
+public class ReviewRepositoryImpl implements ReviewRepositoryCustom {
+
+    private static final String PROPERTY_FEED = "SELECT new com.wareland.review.dto.ReviewResponse("
+            + "r.id, r.rating, r.comment, b.name, r.createdAt) "
+            + "FROM Review r JOIN r.buyer b WHERE r.property.propertyId = :ownerId";
+
+    // Property belum memiliki field title; address dipakai sebagai judul ringkas
+    private static final String BUYER_FEED = "SELECT new com.wareland.review.dto.ReviewBuyerResponse("
+            + "r.id, CAST(p.propertyId AS Long), p.address, r.rating, r.comment, r.createdAt) "
+            + "FROM Review r JOIN r.property p WHERE r.buyer.userId = :ownerId";
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public List<ReviewResponse> findPageByProperty(Integer propertyId, Integer rating, ReviewCursor after, int limit) {
+        return findPage(PROPERTY_FEED, ReviewResponse.class, propertyId, rating, after, limit);
+    }
+
+    @Override
+    public List<ReviewBuyerResponse> findPageByBuyer(Long buyerId, Integer rating, ReviewCursor after, int limit) {
+        return findPage(BUYER_FEED, ReviewBuyerResponse.class, buyerId, rating, after, limit);
+    }
+
+    @Override
+    public List<ReviewResponse> findResponsesByIds(Collection<Long> ids) {
+        return em.createQuery("SELECT new com.wareland.review.dto.ReviewResponse("
+                        + "r.id, r.rating, r.comment, b.name, r.createdAt) "
+                        + "FROM Review r JOIN r.buyer b WHERE r.id IN :ids", ReviewResponse.class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
+    private <T> List<T> findPage(String select, Class<T> type, Object ownerId,
+                                 Integer rating, ReviewCursor after, int limit) {
+        StringBuilder jpql = new StringBuilder(select);
+        if (rating != null) {
+            jpql.append(" AND r.rating = :rating");
+        }
+        if (after != null) {
+            // Batas r.createdAt <= :afterCreatedAt redundan secara logika, tapi bisa dipakai planner
+            // sebagai batas range scan index; kondisi OR saja membuat halaman dalam menjadi scan
+            jpql.append(" AND r.createdAt <= :afterCreatedAt AND (r.createdAt < :afterCreatedAt"
+                    + " OR (r.createdAt = :afterCreatedAt AND r.id < :afterId))");
+        }
+        jpql.append(" ORDER BY r.createdAt DESC, r.id DESC");
+
+        TypedQuery<T> q = em.createQuery(jpql.toString(), type);
+        q.setParameter("ownerId", ownerId);
+        if (rating != null) {
+            q.setParameter("rating", rating);
+        }
+        if (after != null) {
+            q.setParameter("afterCreatedAt", after.getCreatedAt());
+            q.setParameter("afterId", after.getId());
+        }
+        q.setMaxResults(limit);
+        return q.getResultList();
+    }
+}
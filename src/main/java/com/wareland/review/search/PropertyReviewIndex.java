@@ -0,0 +1,104 @@
+package com.wareland.review.search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Inverted index review untuk satu property: term -> (reviewId -> frekuensi term).
+ *
+ * Tidak thread-safe; seluruh akses dijaga oleh {@link ReviewSearchIndex} dengan lock per index.
+ */
+final class PropertyReviewIndex {
+
+    // Parameter BM25 standar
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+    private final Map<Long, Map<String, Integer>> documents = new HashMap<>();
+    private final Map<Long, Integer> lengths = new HashMap<>();
+    private long totalLength;
+    private boolean loaded;
+
+    boolean isLoaded() {
+        return loaded;
+    }
+
+    void markLoaded() {
+        loaded = true;
+    }
+
+    void put(Long reviewId, String comment) {
+        remove(reviewId);
+        List<String> tokens = ReviewTokenizer.tokenize(comment);
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String token : tokens) {
+            frequencies.merge(token, 1, Integer::sum);
+        }
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), key -> new HashMap<>()).put(reviewId, entry.getValue());
+        }
+        // Review tanpa token tetap dicatat agar jumlah dokumen untuk IDF akurat
+        documents.put(reviewId, frequencies);
+        lengths.put(reviewId, tokens.size());
+        totalLength += tokens.size();
+    }
+
+    void remove(Long reviewId) {
+        Map<String, Integer> frequencies = documents.remove(reviewId);
+        if (frequencies == null) {
+            return;
+        }
+        totalLength -= lengths.remove(reviewId);
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            Map<Long, Integer> docs = postings.get(entry.getKey());
+            docs.remove(reviewId);
+            if (docs.isEmpty()) {
+                postings.remove(entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * ID review yang memuat minimal satu term query, terurut skor BM25 tertinggi
+     * (seri diurutkan review terbaru/ID terbesar lebih dulu).
+     */
+    List<Long> search(String query) {
+        Set<String> terms = new LinkedHashSet<>(ReviewTokenizer.tokenize(query));
+        int documentCount = documents.size();
+        if (terms.isEmpty() || documentCount == 0) {
+            return List.of();
+        }
+        double averageLength = Math.max(1.0, (double) totalLength / documentCount);
+
+        Map<Long, Double> scores = new HashMap<>();
+        for (String term : terms) {
+            Map<Long, Integer> docs = postings.get(term);
+            if (docs == null) {
+                continue;
+            }
+            double idf = Math.log(1 + (documentCount - docs.size() + 0.5) / (docs.size() + 0.5));
+            for (Map.Entry<Long, Integer> entry : docs.entrySet()) {
+                int length = lengths.get(entry.getKey());
+                double tf = entry.getValue();
+                double score = idf * tf * (K1 + 1) / (tf + K1 * (1 - B + B * length / averageLength));
+                scores.merge(entry.getKey(), score, Double::sum);
+            }
+        }
+
+        List<Map.Entry<Long, Double>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.sort((a, b) -> {
+            int byScore = Double.compare(b.getValue(), a.getValue());
+            return byScore != 0 ? byScore : Long.compare(b.getKey(), a.getKey());
+        });
+        List<Long> ids = new ArrayList<>(ranked.size());
+        for (Map.Entry<Long, Double> entry : ranked) {
+            ids.add(entry.getKey());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,168 @@
+package com.wareland.review.search;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.wareland.common.exception.ResourceNotFoundException;
+import com.wareland.property.event.ListingsArchivedEvent;
+import com.wareland.property.event.PropertyChangedEvent;
+import com.wareland.property.repository.PropertyRepository;
+import com.wareland.review.dto.ReviewTextView;
+import com.wareland.review.event.ReviewChangedEvent;
+import com.wareland.review.repository.ReviewRepository;
+
+/**
+ * Index full-text review yang dipartisi per property.
+ *
+ * Index satu property dibangun saat pertama kali dicari (satu query ringan id + komentar),
+ * lalu diperbarui inkremental dari ReviewChangedEvent. Jumlah property yang di-index dibatasi;
+ * yang paling lama tidak dicari dibuang dan cukup dibangun ulang saat dicari lagi.
+ *
+ * Index baru masuk LRU setelah selesai dimuat, sehingga pencarian untuk property yang tidak ada
+ * tidak menempati slot. Pemuatan memakai transaksi read-only sendiri yang dibuka setelah lock
+ * index didapat: request yang menunggu pemuatan tidak menahan koneksi database.
+ */
+@Component
+public class ReviewSearchIndex {
+
+    private final ReviewRepository reviewRepository;
+    private final PropertyRepository propertyRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Map<Integer, PropertyReviewIndex> indexes;
+    // Index yang sedang dimuat, belum masuk LRU; dijaga lock map indexes
+    private final Map<Integer, PropertyReviewIndex> loading = new HashMap<>();
+
+    public ReviewSearchIndex(
+            ReviewRepository reviewRepository,
+            PropertyRepository propertyRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.review.search.max-properties:500}") int maxProperties
+    ) {
+        this.reviewRepository = reviewRepository;
+        this.propertyRepository = propertyRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // LinkedHashMap access-order sebagai LRU; seluruh akses di-synchronize pada map ini
+        this.indexes = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, PropertyReviewIndex> eldest) {
+                return size() > maxProperties;
+            }
+        };
+    }
+
+    /**
+     * ID review milik property yang cocok dengan query, terurut dari yang paling relevan.
+     *
+     * @throws ResourceNotFoundException jika property tidak ada atau tidak aktif
+     */
+    public List<Long> search(Integer propertyId, String query) {
+        PropertyReviewIndex index;
+        synchronized (indexes) {
+            index = indexes.get(propertyId);
+            if (index == null) {
+                index = loading.computeIfAbsent(propertyId, id -> new PropertyReviewIndex());
+            }
+        }
+        // Lock per property: pencarian property lain tidak menunggu pembangunan index ini
+        synchronized (index) {
+            if (!index.isLoaded()) {
+                load(propertyId, index);
+            }
+            return index.search(query);
+        }
+    }
+
+    /**
+     * Membuang index satu property; dibangun ulang dari database saat dicari berikutnya.
+     */
+    public void invalidate(Integer propertyId) {
+        synchronized (indexes) {
+            indexes.remove(propertyId);
+            loading.remove(propertyId);
+        }
+    }
+
+    // Event yang tiba sebelum index dimuat diabaikan: pemuatan dilakukan setelah commit
+    // sehingga hasilnya sudah mencakup perubahan tersebut
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReviewChanged(ReviewChangedEvent event) {
+        PropertyReviewIndex index;
+        synchronized (indexes) {
+            index = indexes.get(event.getPropertyId());
+            if (index == null) {
+                // Menunggu pemuatan yang sedang berjalan, yang mungkin belum melihat perubahan ini
+                index = loading.get(event.getPropertyId());
+            }
+        }
+        if (index == null) {
+            return;
+        }
+        synchronized (index) {
+            if (!index.isLoaded()) {
+                return;
+            }
+            if (event.getType() == ReviewChangedEvent.Type.DELETED) {
+                index.remove(event.getReviewId());
+                return;
+            }
+            // Komentar dibaca ulang di dalam lock agar update beruntun tidak diterapkan terbalik
+            Optional<String> comment = reviewRepository.findCommentById(event.getReviewId());
+            if (comment.isPresent()) {
+                index.put(event.getReviewId(), comment.get());
+            } else {
+                index.remove(event.getReviewId());
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPropertyChanged(PropertyChangedEvent event) {
+        if (event.getType() == PropertyChangedEvent.Type.DELETED) {
+            invalidate(event.getPropertyId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onListingsArchived(ListingsArchivedEvent event) {
+        for (Integer propertyId : event.getPropertyIds()) {
+            invalidate(propertyId);
+        }
+    }
+
+    // Dipanggil di dalam lock index. Index hanya masuk LRU jika property ada dan tidak
+    // di-invalidate selama pemuatan; jika di-invalidate, hasilnya hanya dipakai pencarian ini
+    private void load(Integer propertyId, PropertyReviewIndex index) {
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                if (propertyRepository.findActiveSellerId(propertyId).isEmpty()) {
+                    throw new ResourceNotFoundException("Property dengan ID " + propertyId + " tidak ditemukan");
+                }
+                try (Stream<ReviewTextView> reviews = reviewRepository.streamTextsByProperty(propertyId)) {
+                    reviews.forEach(review -> index.put(review.getId(), review.getComment()));
+                }
+            });
+        } catch (RuntimeException e) {
+            synchronized (indexes) {
+                loading.remove(propertyId, index);
+            }
+            throw e;
+        }
+        index.markLoaded();
+        synchronized (indexes) {
+            if (loading.remove(propertyId, index)) {
+                indexes.put(propertyId, index);
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.wareland.review.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Tokenizer sederhana untuk komentar review: huruf kecil, dipecah pada karakter
+ * non huruf/angka, tanpa token 1 karakter dan kata umum bahasa Indonesia.
+ */
+final class ReviewTokenizer {
+
+    private static final Pattern SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final Set<String> STOPWORDS = Set.of(
+            "dan", "yang", "di", "ke", "dari", "ini", "itu", "untuk", "dengan", "atau",
+            "ada", "juga", "saja", "sudah", "akan", "pada", "karena", "tapi", "tetapi", "nya"
+    );
+
+    private ReviewTokenizer() {
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return tokens;
+        }
+        for (String token : SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (token.length() > 1 && !STOPWORDS.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,69 @@
+package com.wareland.review.service;
+
+import com.wareland.common.exception.BadRequestException;
+import com.wareland.review.dto.ReviewResponse;
+import com.wareland.review.dto.ReviewSearchResponse;
+import com.wareland.review.repository.ReviewRepository;
+import com.wareland.review.search.ReviewSearchIndex;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pencarian full-text review dalam satu property. Ranking dan pagination dikerjakan
+ * di index in-memory; database hanya dipakai mengambil detail review satu halaman.
+ * Tidak ada transaksi yang membungkus pencarian, agar menunggu lock index tidak menahan koneksi.
+ */
+@Service
+public class ReviewSearchService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_QUERY_LENGTH = 200;
+
+    private final ReviewSearchIndex searchIndex;
+    private final ReviewRepository reviewRepository;
+
+    public ReviewSearchService(ReviewSearchIndex searchIndex, ReviewRepository reviewRepository) {
+        this.searchIndex = searchIndex;
+        this.reviewRepository = reviewRepository;
+    }
+
+    public ReviewSearchResponse search(Long propertyId, String query, int page, int size) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("Kata kunci pencarian tidak boleh kosong");
+        }
+        if (query.length() > MAX_QUERY_LENGTH) {
+            throw new BadRequestException("Kata kunci pencarian maksimal " + MAX_QUERY_LENGTH + " karakter");
+        }
+        if (page < 0) {
+            throw new BadRequestException("Page tidak boleh negatif");
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Size harus antara 1 hingga " + MAX_PAGE_SIZE);
+        }
+
+        List<Long> ranked = searchIndex.search(Math.toIntExact(propertyId), query);
+        long from = (long) page * size;
+        if (from >= ranked.size()) {
+            return new ReviewSearchResponse(query, List.of(), page, size, ranked.size());
+        }
+        List<Long> pageIds = ranked.subList((int) from, (int) Math.min(from + size, ranked.size()));
+
+        // Hasil query tidak berurutan; susun kembali sesuai ranking
+        Map<Long, ReviewResponse> byId = new HashMap<>();
+        for (ReviewResponse review : reviewRepository.findResponsesByIds(pageIds)) {
+            byId.put(review.getReviewId(), review);
+        }
+        List<ReviewResponse> items = new ArrayList<>(pageIds.size());
+        for (Long id : pageIds) {
+            ReviewResponse review = byId.get(id);
+            if (review != null) {
+                items.add(review);
+            }
+        }
+        return new ReviewSearchResponse(query, items, page, size, ranked.size());
+    }
+}
@@ -1,116 +1,293 @@
 package com.wareland.review.service;
 
+import com.wareland.common.exception.BadRequestException;
 import com.wareland.common.exception.BusinessException;
 import com.wareland.common.exception.ResourceNotFoundException;
+import com.wareland.common.response.CursorPage;
+import com.wareland.common.security.AuthenticatedUser;
+import com.wareland.property.dto.ListingTextView;
 import com.wareland.property.model.Property;
+import com.wareland.property.model.PropertyStatus;
 import com.wareland.property.repository.PropertyRepository;
 import com.wareland.review.dto.ReviewBuyerResponse;
 import com.wareland.review.dto.ReviewCreateRequest;
+import com.wareland.review.dto.ReviewCursor;
 import com.wareland.review.dto.ReviewResponse;
+import com.wareland.review.dto.ReviewSubmissionResponse;
 import com.wareland.review.dto.ReviewUpdateRequest;
+import com.wareland.review.event.ReviewChangedEvent;
 import com.wareland.review.mapper.ReviewMapper;
 import com.wareland.review.model.Review;
 import com.wareland.review.repository.ReviewRepository;
+import com.wareland.review.writebehind.PendingReview;
+import com.wareland.review.writebehind.ReviewWriteBehindBuffer;
 import com.wareland.user.model.Buyer;
 import com.wareland.user.model.User;
 import com.wareland.user.model.UserRole;
 import com.wareland.user.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 
 @Service
 @Transactional
 public class ReviewService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final ReviewRepository reviewRepository;
     private final UserRepository userRepository;
     private final PropertyRepository propertyRepository;
     private final ReviewMapper reviewMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    // Null jika mode write-behind tidak aktif
+    private final ReviewWriteBehindBuffer writeBehindBuffer;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     public ReviewService(
             ReviewRepository reviewRepository,
             UserRepository userRepository,
             PropertyRepository propertyRepository,
-            ReviewMapper reviewMapper
+            ReviewMapper reviewMapper,
+            ApplicationEventPublisher eventPublisher,
+            ObjectProvider<ReviewWriteBehindBuffer> writeBehindBuffer,
+            PlatformTransactionManager transactionManager
     ) {
         this.reviewRepository = reviewRepository;
         this.userRepository = userRepository;
         this.propertyRepository = propertyRepository;
         this.reviewMapper = reviewMapper;
+        this.eventPublisher = eventPublisher;
+        this.writeBehindBuffer = writeBehindBuffer.getIfAvailable();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public boolean isWriteBehindEnabled() {
+        return writeBehindBuffer != null;
     }
 
     // ================= CREATE =================
-    public ReviewResponse createReview(ReviewCreateRequest request) {
+    /**
+     * Fast path: buyer diambil dari principal JWT dan property/buyer dipasang sebagai reference
+     * (tanpa SELECT entity). Duplikasi review dan buyer yang sudah tidak ada ditangkap
+     * oleh unique constraint & foreign key saat INSERT, bukan lewat pre-check yang rawan race.
+     */
+    public ReviewResponse createReview(AuthenticatedUser principal, ReviewCreateRequest request) {
 
-        if (request.getRating() < 1 || request.getRating() > 5) {
-            throw new BusinessException("Rating harus antara 1 hingga 5");
-        }
-        if (request.getComment() == null || request.getComment().isBlank()) {
-            throw new BusinessException("Comment tidak boleh kosong");
-        }
+        AuthenticatedUser buyer = validateCreateRequest(principal, request);
 
-        User user = userRepository.findById(request.getBuyerId())
-                .orElseThrow(() ->
-                        new ResourceNotFoundException("Buyer dengan ID " + request.getBuyerId() + " tidak ditemukan")
-                );
+        Integer propertyId = Math.toIntExact(request.getPropertyId());
+        // Seller ID dibutuhkan event review; sekaligus memastikan listing masih ACTIVE
+        Long sellerId = propertyRepository.findActiveSellerId(propertyId)
+                .orElseThrow(() -> propertyNotFound(request.getPropertyId()));
 
-        if (user.getUserRole() != UserRole.BUYER || !(user instanceof Buyer)) {
-            throw new BusinessException("Hanya buyer yang dapat membuat review");
+        return insertReview(buyer, propertyId, sellerId, request);
+    }
+
+    /**
+     * Mode write-behind: validasi tetap sinkron, INSERT diserahkan ke writer tunggal.
+     * Jika antrian penuh, review ditulis langsung seperti {@link #createReview}.
+     *
+     * Berjalan tanpa transaksi: pembacaan validasi memakai transaksi read-only singkat,
+     * sehingga tidak ada koneksi database yang ditahan selama menunggu lock dan fsync journal.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ReviewSubmissionResponse submitReview(AuthenticatedUser principal, ReviewCreateRequest request) {
+        if (writeBehindBuffer == null) {
+            return written(transactionTemplate.execute(status -> createReview(principal, request)));
         }
+        AuthenticatedUser buyer = validateCreateRequest(principal, request);
 
-        Buyer buyer = (Buyer) user;
+        Integer propertyId = Math.toIntExact(request.getPropertyId());
+        // Tanpa INSERT sinkron, duplikasi harus dicek di antrian dan di database sebelum di-acknowledge
+        if (writeBehindBuffer.isPending(buyer.getUserId(), propertyId)) {
+            throw new BusinessException("Anda sudah memberikan review untuk properti ini");
+        }
+        Long sellerId = readOnlyTransaction.execute(status -> {
+            Long activeSellerId = propertyRepository.findActiveSellerId(propertyId)
+                    .orElseThrow(() -> propertyNotFound(request.getPropertyId()));
+            if (reviewRepository.existsByBuyerAndProperty(buyer.getUserId(), propertyId)) {
+                throw new BusinessException("Anda sudah memberikan review untuk properti ini");
+            }
+            return activeSellerId;
+        });
 
-        Property property = propertyRepository
-                .findById(Math.toIntExact(request.getPropertyId()))
-                .orElseThrow(() ->
-                        new ResourceNotFoundException("Property dengan ID " + request.getPropertyId() + " tidak ditemukan")
-                );
+        PendingReview pending = writeBehindBuffer.offer(buyer.getUserId(), propertyId, sellerId,
+                request.getRating(), request.getComment(), buyer.getDisplayName());
+        if (pending == null) {
+            return written(transactionTemplate.execute(status -> insertReview(buyer, propertyId, sellerId, request)));
+        }
+        return ReviewSubmissionResponse.pending(pending.getHandle());
+    }
 
-        boolean exists = reviewRepository.existsByBuyerUserIdAndPropertyPropertyId(
-                buyer.getUserId(), property.getPropertyId()
-        );
-        if (exists) {
-            throw new BusinessException("Anda sudah memberikan review untuk properti ini");
+    /**
+     * Status review write-behind berdasarkan handle.
+     */
+    @Transactional(readOnly = true)
+    public ReviewSubmissionResponse getSubmission(String handle) {
+        ReviewSubmissionResponse status = writeBehindBuffer != null ? writeBehindBuffer.status(handle) : null;
+        if (status == null) {
+            throw new ResourceNotFoundException("Review dengan handle " + handle + " tidak ditemukan");
         }
+        return status;
+    }
 
+    private ReviewResponse insertReview(AuthenticatedUser buyer, Integer propertyId, Long sellerId,
+                                        ReviewCreateRequest request) {
         Review review = new Review();
-        review.setBuyer(buyer);
-        review.setProperty(property);
+        review.setBuyer(entityManager.getReference(Buyer.class, buyer.getUserId()));
+        review.setProperty(propertyRepository.getReferenceById(propertyId));
         review.setRating(request.getRating());
         review.setComment(request.getComment());
 
-        Review saved = reviewRepository.save(review);
-        return reviewMapper.toResponse(saved);
+        Review saved;
+        try {
+            saved = reviewRepository.saveAndFlush(review);
+        } catch (DataIntegrityViolationException e) {
+            throw translateConstraintViolation(e, buyer.getUserId(), request.getPropertyId());
+        }
+
+        eventPublisher.publishEvent(new ReviewChangedEvent(
+                ReviewChangedEvent.Type.CREATED,
+                saved.getId(),
+                propertyId,
+                sellerId,
+                buyer.getUserId(),
+                0,
+                saved.getRating(),
+                true
+        ));
+        return new ReviewResponse(
+                saved.getId(),
+                saved.getRating(),
+                saved.getComment(),
+                buyer.getDisplayName(),
+                saved.getCreatedAt()
+        );
     }
 
     // ================= GET =================
     @Transactional(readOnly = true)
-    public List<ReviewResponse> getReviewsByProperty(Long propertyId) {
+    public CursorPage<ReviewResponse> getReviewsByProperty(Long propertyId, Integer rating, String cursor, int size) {
+        validatePageRequest(rating, size);
         Integer pid = Math.toIntExact(propertyId);
-        List<Review> reviews = reviewRepository
-                .findAllByPropertyPropertyIdOrderByCreatedAtDesc(pid);
+        // Ambil size + 1 baris: baris ekstra hanya penanda masih ada halaman berikutnya
+        List<ReviewResponse> reviews = reviewRepository
+                .findPageByProperty(pid, rating, ReviewCursor.decode(cursor), size + 1);
 
-        return reviews.stream()
-                .map(reviewMapper::toResponse)
-                .collect(Collectors.toList());
+        CursorPage<ReviewResponse> page =
+                toPage(reviews, size, ReviewResponse::getCreatedAt, ReviewResponse::getReviewId);
+        // Read-your-writes: review yang masih di antrian write-behind selalu lebih baru dari
+        // isi database, jadi ditampilkan di atas halaman pertama (di luar hitungan size & cursor)
+        if (writeBehindBuffer != null && cursor == null) {
+            List<PendingReview> pending = writeBehindBuffer.pendingForProperty(pid, rating);
+            if (!pending.isEmpty()) {
+                // Review yang baru saja ditulis writer (sudah ada di halaman) tidak ditampilkan dua kali
+                Set<Long> writtenIds = new HashSet<>();
+                for (ReviewResponse review : page.getItems()) {
+                    writtenIds.add(review.getReviewId());
+                }
+                List<ReviewResponse> merged = new ArrayList<>(pending.size() + page.getItems().size());
+                for (PendingReview review : pending) {
+                    if (review.getWrittenId() != null && writtenIds.contains(review.getWrittenId())) {
+                        continue;
+                    }
+                    merged.add(ReviewResponse.pending(review.getRating(), review.getComment(),
+                            review.getBuyerName(), review.getCreatedAt()));
+                }
+                merged.addAll(page.getItems());
+                page.setItems(merged);
+            }
+        }
+        return page;
     }
 
     @Transactional(readOnly = true)
-    public List<ReviewBuyerResponse> getReviewsByBuyer(Long buyerId) {
-        // Validasi: buyer harus ada
-        User user = userRepository.findById(buyerId)
-                .orElseThrow(() -> new ResourceNotFoundException("Buyer dengan ID " + buyerId + " tidak ditemukan"));
-        if (user.getUserRole() != UserRole.BUYER || !(user instanceof Buyer)) {
-            throw new ResourceNotFoundException("Buyer dengan ID " + buyerId + " tidak ditemukan");
+    public CursorPage<ReviewBuyerResponse> getReviewsByBuyer(Long buyerId, Integer rating, String cursor, int size) {
+        validatePageRequest(rating, size);
+        List<ReviewBuyerResponse> reviews = reviewRepository
+                .findPageByBuyer(buyerId, rating, ReviewCursor.decode(cursor), size + 1);
+
+        // Read-your-writes seperti feed property: review buyer yang masih di antrian write-behind
+        // ditampilkan di atas halaman pertama (di luar hitungan size & cursor)
+        List<ReviewBuyerResponse> pending = cursor == null ? pendingForBuyer(buyerId, rating) : List.of();
+
+        // Validasi buyer hanya saat hasil kosong: halaman berisi review sudah membuktikan buyer ada
+        if (reviews.isEmpty() && pending.isEmpty()) {
+            User user = userRepository.findById(buyerId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Buyer dengan ID " + buyerId + " tidak ditemukan"));
+            if (user.getUserRole() != UserRole.BUYER || !(user instanceof Buyer)) {
+                throw new ResourceNotFoundException("Buyer dengan ID " + buyerId + " tidak ditemukan");
+            }
+        }
+
+        CursorPage<ReviewBuyerResponse> page =
+                toPage(reviews, size, ReviewBuyerResponse::getCreatedAt, ReviewBuyerResponse::getReviewId);
+        if (!pending.isEmpty()) {
+            // Satu review per buyer per property: review yang baru saja ditulis writer tidak ditampilkan dua kali
+            Set<Long> writtenProperties = new HashSet<>();
+            for (ReviewBuyerResponse review : page.getItems()) {
+                writtenProperties.add(review.getPropertyId());
+            }
+            List<ReviewBuyerResponse> merged = new ArrayList<>(pending.size() + page.getItems().size());
+            for (ReviewBuyerResponse review : pending) {
+                if (!writtenProperties.contains(review.getPropertyId())) {
+                    merged.add(review);
+                }
+            }
+            merged.addAll(page.getItems());
+            page.setItems(merged);
         }
+        return page;
+    }
 
-        List<Review> reviews = reviewRepository.findAllByBuyerUserIdOrderByCreatedAtDesc(buyerId);
-        return reviews.stream()
-                .map(reviewMapper::toBuyerResponse)
-                .collect(Collectors.toList());
+    private List<ReviewBuyerResponse> pendingForBuyer(Long buyerId, Integer rating) {
+        if (writeBehindBuffer == null) {
+            return List.of();
+        }
+        List<PendingReview> pending = writeBehindBuffer.pendingForBuyer(buyerId, rating);
+        if (pending.isEmpty()) {
+            return List.of();
+        }
+        Set<Integer> propertyIds = new HashSet<>();
+        for (PendingReview review : pending) {
+            propertyIds.add(review.getPropertyId());
+        }
+        Map<Integer, String> titles = new HashMap<>();
+        for (ListingTextView listing : propertyRepository.findListingTexts(propertyIds)) {
+            titles.put(listing.getPropertyId(), listing.getAddress());
+        }
+        List<ReviewBuyerResponse> responses = new ArrayList<>(pending.size());
+        for (PendingReview review : pending) {
+            responses.add(ReviewBuyerResponse.pending(review.getPropertyId().longValue(),
+                    titles.get(review.getPropertyId()), review.getRating(), review.getComment(),
+                    review.getCreatedAt()));
+        }
+        return responses;
     }
 
     // ================= UPDATE =================
@@ -130,10 +307,12 @@ public class ReviewService {
             throw new BusinessException("Comment tidak boleh kosong");
         }
 
+        int previousRating = review.getRating();
         review.setRating(request.getRating());
         review.setComment(request.getComment());
 
         Review updated = reviewRepository.save(review);
+        publish(ReviewChangedEvent.Type.UPDATED, updated, previousRating, updated.getRating());
         return reviewMapper.toResponse(updated);
     }
 
@@ -148,5 +327,109 @@ public class ReviewService {
         }
 
         reviewRepository.delete(review);
+        publish(ReviewChangedEvent.Type.DELETED, review, review.getRating(), 0);
+    }
+
+    private AuthenticatedUser validateCreateRequest(AuthenticatedUser principal, ReviewCreateRequest request) {
+        if (request.getRating() < 1 || request.getRating() > 5) {
+            throw new BusinessException("Rating harus antara 1 hingga 5");
+        }
+        if (request.getComment() == null || request.getComment().isBlank()) {
+            throw new BusinessException("Comment tidak boleh kosong");
+        }
+
+        AuthenticatedUser buyer = resolveIdentity(principal);
+        if (buyer.getRole() != UserRole.BUYER) {
+            throw new BusinessException("Hanya buyer yang dapat membuat review");
+        }
+        if (request.getBuyerId() != null && !request.getBuyerId().equals(buyer.getUserId())) {
+            throw new BusinessException("Anda tidak berhak membuat review atas nama buyer lain");
+        }
+        return buyer;
+    }
+
+    // Token lama tanpa claim uid/role/name: identitas dimuat sekali dari database
+    private AuthenticatedUser resolveIdentity(AuthenticatedUser principal) {
+        if (principal == null) {
+            throw new BusinessException("User belum login");
+        }
+        if (principal.hasIdentityClaims()) {
+            return principal;
+        }
+        User user = userRepository.findByUsername(principal.getUsername())
+                .orElseThrow(() -> new ResourceNotFoundException("User tidak ditemukan"));
+        return AuthenticatedUser.of(user);
+    }
+
+    private BusinessException translateConstraintViolation(DataIntegrityViolationException e,
+                                                           Long buyerId, Long propertyId) {
+        String constraint = constraintName(e);
+        if (constraint.contains("uk_review_buyer_property")) {
+            return new BusinessException("Anda sudah memberikan review untuk properti ini");
+        }
+        if (constraint.contains("fk_review_property")) {
+            return propertyNotFound(propertyId);
+        }
+        if (constraint.contains("fk_review_buyer")) {
+            return new ResourceNotFoundException("Buyer dengan ID " + buyerId + " tidak ditemukan");
+        }
+        throw e;
+    }
+
+    // Nama constraint dari Hibernate, ditambah pesan driver sebagai cadangan
+    // (ekstraksi nama constraint tidak selalu akurat di setiap dialect)
+    private static String constraintName(DataIntegrityViolationException e) {
+        StringBuilder text = new StringBuilder();
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                text.append(violation.getConstraintName()).append(' ');
+            }
+        }
+        String message = e.getMostSpecificCause().getMessage();
+        if (message != null) {
+            text.append(message);
+        }
+        return text.toString().toLowerCase(Locale.ROOT);
+    }
+
+    private static ReviewSubmissionResponse written(ReviewResponse review) {
+        return new ReviewSubmissionResponse(null, ReviewSubmissionResponse.Status.WRITTEN, review.getReviewId(), null);
+    }
+
+    private static ResourceNotFoundException propertyNotFound(Long propertyId) {
+        return new ResourceNotFoundException("Property dengan ID " + propertyId + " tidak ditemukan");
+    }
+
+    private void validatePageRequest(Integer rating, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Size harus antara 1 hingga " + MAX_PAGE_SIZE);
+        }
+        if (rating != null && (rating < 1 || rating > 5)) {
+            throw new BadRequestException("Filter rating harus antara 1 hingga 5");
+        }
+    }
+
+    private static <T> CursorPage<T> toPage(List<T> rows, int size,
+                                            Function<T, LocalDateTime> createdAt, Function<T, Long> id) {
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> page = new ArrayList<>(rows.subList(0, size));
+        T last = page.get(size - 1);
+        return new CursorPage<>(page, new ReviewCursor(createdAt.apply(last), id.apply(last)).encode());
+    }
+
+    private void publish(ReviewChangedEvent.Type type, Review review, int previousRating, int rating) {
+        Property property = review.getProperty();
+        eventPublisher.publishEvent(new ReviewChangedEvent(
+                type,
+                review.getId(),
+                property.getPropertyId(),
+                property.getSeller().getUserId(),
+                review.getBuyer().getUserId(),
+                previousRating,
+                rating,
+                property.getStatus() == PropertyStatus.ACTIVE
+        ));
     }
 }
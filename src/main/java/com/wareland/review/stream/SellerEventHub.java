@@ -0,0 +1,423 @@
+package com.wareland.review.stream;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.wareland.review.dto.SellerReviewEvent;
+import com.wareland.review.event.ReviewChangedEvent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Hub fan-out notifikasi review ke koneksi SSE seller.
+ *
+ * Koneksi memakai async request servlet (SseEmitter): koneksi idle tidak memegang thread,
+ * sehingga puluhan ribu seller bisa terhubung sekaligus. Setiap koneksi memiliki antrian
+ * kirim sendiri yang terbatas; antrian dikosongkan oleh pool dispatcher kecil, paling banyak
+ * satu thread per koneksi pada satu waktu, sehingga urutan event per koneksi terjaga dan
+ * thread commit transaksi tidak pernah menunggu I/O jaringan. Client lambat hanya menahan
+ * antriannya sendiri; jika antrian itu penuh koneksinya ditutup dan client reconnect dengan
+ * Last-Event-ID. Heartbeat masuk antrian koneksi masing-masing hanya saat antrian kosong,
+ * sehingga tidak pernah menggeser event review dan client macet tidak menahan heartbeat koneksi lain.
+ *
+ * Pengiriman yang tertahan lebih lama dari batas waktu tulis dianggap macet: koneksinya dilepas
+ * dari channel dan pool mendapat thread pengganti sampai write tersebut gagal oleh timeout tulis
+ * socket container (server.tomcat.connection-timeout), sehingga client lambat tidak menghabiskan pool.
+ *
+ * Setiap seller memiliki ring buffer event terakhir untuk replay saat client reconnect
+ * dengan Last-Event-ID. Jika event yang diminta sudah keluar dari buffer, client menerima
+ * event "resync" dan sebaiknya memuat ulang data lewat endpoint REST.
+ */
+@Component
+public class SellerEventHub {
+
+    private static final Logger log = LoggerFactory.getLogger(SellerEventHub.class);
+
+    private final int bufferSize;
+    private final int maxConnectionsPerSeller;
+    private final long connectionTimeoutMs;
+    private final long retentionMs;
+    private final int connectionQueueCapacity;
+    private final int dispatchThreads;
+    private final long writeTimeoutMs;
+    // Antrian pool tidak perlu dibatasi: setiap koneksi paling banyak punya satu task terjadwal
+    private final ThreadPoolExecutor dispatcher;
+    // Jumlah pengiriman macet yang threadnya sedang diganti; dijaga lock dispatcher
+    private int stalledSends;
+    private final Map<Long, Channel> channels = new ConcurrentHashMap<>();
+    // Diawali dari waktu start agar ID tetap naik setelah restart (Last-Event-ID lama dianggap kedaluwarsa)
+    private final AtomicLong sequence = new AtomicLong(System.currentTimeMillis() * 1000);
+
+    private final Counter droppedCounter;
+
+    public SellerEventHub(
+            MeterRegistry meterRegistry,
+            @Value("${app.seller.events.buffer-size:100}") int bufferSize,
+            @Value("${app.seller.events.max-connections-per-seller:5}") int maxConnectionsPerSeller,
+            @Value("${app.seller.events.timeout-ms:1800000}") long connectionTimeoutMs,
+            @Value("${app.seller.events.retention-ms:600000}") long retentionMs,
+            @Value("${app.seller.events.dispatch-threads:4}") int dispatchThreads,
+            @Value("${app.seller.events.connection-queue-capacity:128}") int connectionQueueCapacity,
+            @Value("${app.seller.events.write-timeout-ms:10000}") long writeTimeoutMs
+    ) {
+        this.bufferSize = bufferSize;
+        this.maxConnectionsPerSeller = maxConnectionsPerSeller;
+        this.connectionTimeoutMs = connectionTimeoutMs;
+        this.retentionMs = retentionMs;
+        // Replay penuh (isi ring buffer + event resync) harus muat di antrian koneksi baru
+        this.connectionQueueCapacity = Math.max(connectionQueueCapacity, bufferSize + 1);
+        this.dispatchThreads = dispatchThreads;
+        this.writeTimeoutMs = writeTimeoutMs;
+
+        CustomizableThreadFactory threads = new CustomizableThreadFactory("seller-events-");
+        threads.setDaemon(true);
+        this.dispatcher = new ThreadPoolExecutor(
+                dispatchThreads, dispatchThreads,
+                0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                threads
+        );
+
+        this.droppedCounter = Counter.builder("seller.events.dropped")
+                .description("Koneksi SSE yang ditutup karena antrian kirimnya penuh (client terlalu lambat)")
+                .register(meterRegistry);
+        Gauge.builder("seller.events.connections", channels,
+                        map -> map.values().stream().mapToInt(channel -> channel.subscribers.size()).sum())
+                .description("Jumlah koneksi SSE seller yang aktif")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Membuka stream untuk seller. Event setelah lastEventId (jika ada) dikirim ulang lebih dulu.
+     */
+    public SseEmitter subscribe(Long sellerId, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(connectionTimeoutMs);
+        Channel channel = channel(sellerId);
+        Subscriber subscriber = new Subscriber(channel, emitter);
+
+        emitter.onCompletion(subscriber::detach);
+        emitter.onTimeout(subscriber::detach);
+        emitter.onError(error -> subscriber.detach());
+
+        synchronized (channel) {
+            // Koneksi tertua ditutup jika seller membuka terlalu banyak koneksi
+            while (channel.subscribers.size() >= maxConnectionsPerSeller) {
+                channel.subscribers.remove(0).close();
+            }
+            // Replay masuk antrian koneksi di bawah lock channel, sehingga tidak tersusul event baru
+            if (lastEventId != null) {
+                if (lastEventId < channel.evictedUpTo) {
+                    subscriber.enqueue(SseEmitter.event().name("resync").data("{}"));
+                }
+                for (SellerReviewEvent event : channel.buffer) {
+                    if (event.getEventId() > lastEventId) {
+                        subscriber.enqueue(toSse(event));
+                    }
+                }
+            }
+            channel.subscribers.add(subscriber);
+            channel.touch();
+        }
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReviewChanged(ReviewChangedEvent event) {
+        if (event.getSellerId() == null) {
+            return;
+        }
+        Channel channel = channel(event.getSellerId());
+        synchronized (channel) {
+            SellerReviewEvent payload = new SellerReviewEvent(
+                    sequence.incrementAndGet(),
+                    event.getType().name(),
+                    event.getReviewId(),
+                    event.getPropertyId(),
+                    event.getPreviousRating(),
+                    event.getRating(),
+                    LocalDateTime.now()
+            );
+            channel.append(payload, bufferSize);
+            for (Subscriber subscriber : channel.subscribers) {
+                subscriber.enqueue(toSse(payload));
+            }
+        }
+    }
+
+    /**
+     * Heartbeat menjaga koneksi tetap hidup melewati proxy/load balancer dan mendeteksi client
+     * yang putus. Heartbeat masuk antrian setiap koneksi dan dikirim oleh task koneksi itu
+     * sendiri; koneksi yang sedang mengirim event dilewati karena koneksinya sudah aktif.
+     */
+    @Scheduled(fixedDelayString = "${app.seller.events.heartbeat-ms:15000}")
+    public void heartbeat() {
+        long now = System.currentTimeMillis();
+        for (Long sellerId : channels.keySet()) {
+            channels.computeIfPresent(sellerId, (id, channel) -> channel.isExpired(now, retentionMs) ? null : channel);
+        }
+        for (Channel channel : channels.values()) {
+            for (Subscriber subscriber : channel.subscribers) {
+                subscriber.heartbeat();
+            }
+        }
+    }
+
+    /**
+     * Melepas koneksi yang pengirimannya tertahan lebih lama dari batas waktu tulis.
+     */
+    @Scheduled(fixedDelayString = "${app.seller.events.write-timeout-ms:10000}")
+    public void closeStalled() {
+        long now = System.currentTimeMillis();
+        for (Channel channel : channels.values()) {
+            for (Subscriber subscriber : channel.subscribers) {
+                subscriber.closeIfStalled(now);
+            }
+        }
+    }
+
+    // Dijalankan saat ContextClosedEvent, sebelum graceful shutdown web server: koneksi SSE yang
+    // masih terbuka dihitung sebagai request aktif dan akan ditunggu sampai batas waktu shutdown
+    @EventListener(ContextClosedEvent.class)
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        for (Channel channel : channels.values()) {
+            for (Subscriber subscriber : channel.subscribers) {
+                subscriber.emitter.complete();
+            }
+        }
+    }
+
+    // touch() di dalam compute: channel yang baru dipakai tidak mungkin dibuang heartbeat
+    // sebelum subscriber/event sempat didaftarkan
+    private Channel channel(Long sellerId) {
+        return channels.compute(sellerId, (id, channel) -> {
+            Channel result = channel != null ? channel : new Channel(sequence.get());
+            result.touch();
+            return result;
+        });
+    }
+
+    private void execute(Runnable task) {
+        try {
+            dispatcher.execute(task);
+        } catch (RejectedExecutionException e) {
+            // Hanya terjadi saat shutdown
+            log.debug("Pengiriman SSE dilewati: dispatcher sudah berhenti");
+        }
+    }
+
+    // Thread yang tertahan di socket diganti sementara, paling banyak sebanyak ukuran pool semula
+    private void adjustStalled(int delta) {
+        synchronized (dispatcher) {
+            stalledSends += delta;
+            int size = dispatchThreads + Math.min(stalledSends, dispatchThreads);
+            if (size > dispatcher.getMaximumPoolSize()) {
+                dispatcher.setMaximumPoolSize(size);
+                dispatcher.setCorePoolSize(size);
+            } else {
+                dispatcher.setCorePoolSize(size);
+                dispatcher.setMaximumPoolSize(size);
+            }
+        }
+    }
+
+    private static SseEmitter.SseEventBuilder toSse(SellerReviewEvent event) {
+        return SseEmitter.event()
+                .id(Long.toString(event.getEventId()))
+                .name("review")
+                .data(event);
+    }
+
+    /**
+     * Satu koneksi SSE beserta antrian kirimnya. Paling banyak satu thread yang mengirim
+     * ke emitter pada satu waktu (flag active), sehingga urutan event terjaga.
+     */
+    private final class Subscriber {
+        private final Channel channel;
+        private final SseEmitter emitter;
+        private final ArrayDeque<SseEmitter.SseEventBuilder> outbox = new ArrayDeque<>();
+        // Dijaga lock objek ini
+        private boolean active;
+        private boolean closed;
+        // Waktu mulai pengiriman yang sedang berjalan (0 jika tidak ada) dan apakah sudah dianggap macet
+        private long sendingSince;
+        private boolean stalled;
+
+        private Subscriber(Channel channel, SseEmitter emitter) {
+            this.channel = channel;
+            this.emitter = emitter;
+        }
+
+        private void enqueue(SseEmitter.SseEventBuilder event) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (outbox.size() >= connectionQueueCapacity) {
+                    // Event tetap ada di ring buffer dan terkirim lewat replay saat client reconnect
+                    droppedCounter.increment();
+                    closeLocked();
+                } else {
+                    outbox.addLast(event);
+                }
+                if (active) {
+                    return;
+                }
+                active = true;
+            }
+            execute(this::drain);
+        }
+
+        // Heartbeat hanya diantrikan jika koneksi sedang tidak mengirim apa pun
+        private void heartbeat() {
+            synchronized (this) {
+                if (active || closed) {
+                    return;
+                }
+                outbox.addLast(SseEmitter.event().comment("heartbeat"));
+                active = true;
+            }
+            execute(this::drain);
+        }
+
+        // Emitter tidak bisa ditutup dari thread lain selama send berjalan (lock emitter yang sama);
+        // koneksi dilepas di sini dan emitter ditutup thread pengirim setelah write gagal
+        private void closeIfStalled(long now) {
+            synchronized (this) {
+                if (sendingSince == 0 || now - sendingSince <= writeTimeoutMs || stalled) {
+                    return;
+                }
+                stalled = true;
+                closeLocked();
+            }
+            channel.subscribers.remove(this);
+            droppedCounter.increment();
+            adjustStalled(1);
+            log.debug("Koneksi SSE seller ditutup: pengiriman tertahan lebih dari {} ms", writeTimeoutMs);
+        }
+
+        private void close() {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closeLocked();
+                if (active) {
+                    return;
+                }
+                active = true;
+            }
+            execute(this::drain);
+        }
+
+        // Antrian dibuang; emitter ditutup oleh thread yang memegang flag active
+        private void closeLocked() {
+            closed = true;
+            outbox.clear();
+        }
+
+        // Dijalankan oleh thread yang memegang flag active sampai antrian kosong
+        private void drain() {
+            while (true) {
+                SseEmitter.SseEventBuilder next;
+                synchronized (this) {
+                    next = outbox.pollFirst();
+                    if (next == null) {
+                        active = false;
+                        if (closed) {
+                            break;
+                        }
+                        return;
+                    }
+                }
+                send(next);
+            }
+            channel.subscribers.remove(this);
+            emitter.complete();
+        }
+
+        private void send(SseEmitter.SseEventBuilder event) {
+            synchronized (this) {
+                sendingSince = System.currentTimeMillis();
+            }
+            try {
+                emitter.send(event);
+            } catch (IOException | IllegalStateException e) {
+                // Client sudah putus; koneksi dilepas dan client diharapkan reconnect dengan Last-Event-ID
+                detach();
+                log.debug("Koneksi SSE seller ditutup: {}", e.getMessage());
+            } finally {
+                boolean wasStalled;
+                synchronized (this) {
+                    sendingSince = 0;
+                    wasStalled = stalled;
+                    stalled = false;
+                }
+                if (wasStalled) {
+                    adjustStalled(-1);
+                }
+            }
+        }
+
+        // Koneksi selesai dari sisi container atau client: tidak ada lagi yang perlu dikirim
+        private void detach() {
+            synchronized (this) {
+                closed = true;
+                outbox.clear();
+            }
+            channel.subscribers.remove(this);
+        }
+    }
+
+    private static final class Channel {
+        private final ArrayDeque<SellerReviewEvent> buffer = new ArrayDeque<>();
+        private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+        // Event dengan ID <= nilai ini tidak lagi bisa di-replay
+        private long evictedUpTo;
+        private volatile long lastActivity = System.currentTimeMillis();
+
+        private Channel(long createdAtSequence) {
+            this.evictedUpTo = createdAtSequence;
+        }
+
+        private void append(SellerReviewEvent event, int capacity) {
+            buffer.addLast(event);
+            if (buffer.size() > capacity) {
+                evictedUpTo = buffer.removeFirst().getEventId();
+            }
+            touch();
+        }
+
+        private void touch() {
+            lastActivity = System.currentTimeMillis();
+        }
+
+        // Buffer seller tanpa koneksi dibuang setelah masa retensi agar memori tidak tumbuh terus
+        private boolean isExpired(long now, long retentionMs) {
+            return subscribers.isEmpty() && now - lastActivity > retentionMs;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.wareland.review.writebehind;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Review yang sudah divalidasi dan di-acknowledge (202) tetapi belum ditulis ke database.
+ * Diserialisasi apa adanya ke journal agar bisa dipulihkan setelah crash.
+ */
+public final class PendingReview {
+
+    private final String handle;
+    private final Long buyerId;
+    private final Integer propertyId;
+    private final Long sellerId;
+    private final int rating;
+    private final String comment;
+    private final String buyerName;
+    private final LocalDateTime createdAt;
+    // ID review di database setelah ditulis (sebelum commit); tidak disimpan di journal
+    private volatile Long writtenId;
+
+    @JsonCreator
+    public PendingReview(
+            @JsonProperty("handle") String handle,
+            @JsonProperty("buyerId") Long buyerId,
+            @JsonProperty("propertyId") Integer propertyId,
+            @JsonProperty("sellerId") Long sellerId,
+            @JsonProperty("rating") int rating,
+            @JsonProperty("comment") String comment,
+            @JsonProperty("buyerName") String buyerName,
+            @JsonProperty("createdAt") LocalDateTime createdAt
+    ) {
+        this.handle = handle;
+        this.buyerId = buyerId;
+        this.propertyId = propertyId;
+        this.sellerId = sellerId;
+        this.rating = rating;
+        this.comment = comment;
+        this.buyerName = buyerName;
+        this.createdAt = createdAt;
+    }
+
+    public String getHandle() {
+        return handle;
+    }
+
+    public Long getBuyerId() {
+        return buyerId;
+    }
+
+    public Integer getPropertyId() {
+        return propertyId;
+    }
+
+    public Long getSellerId() {
+        return sellerId;
+    }
+
+    public int getRating() {
+        return rating;
+    }
+
+    public String getComment() {
+        return comment;
+    }
+
+    public String getBuyerName() {
+        return buyerName;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * ID review setelah writer menyimpannya, atau null. Feed memakainya agar review yang
+     * sudah ditulis tetapi belum dilepas dari antrian tidak tampil dua kali.
+     */
+    @JsonIgnore
+    public Long getWrittenId() {
+        return writtenId;
+    }
+
+    void markWritten(Long reviewId) {
+        this.writtenId = reviewId;
+    }
+
+    String key() {
+        return buyerId + ":" + propertyId;
+    }
+}
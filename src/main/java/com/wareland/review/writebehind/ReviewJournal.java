@@ -0,0 +1,184 @@
+package com.wareland.review.writebehind;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Journal append-only untuk review write-behind.
+ *
+ * Format per baris: "A {json}" saat review diterima, "C {handle}" setelah review commit
+ * ke database. Setiap append sudah di-fsync sebelum request di-acknowledge, sehingga review
+ * yang sudah menerima 202 tidak hilang walau proses crash.
+ *
+ * Fsync dilakukan bersama (group commit): append hanya menulis ke file dan mengembalikan
+ * nomor urut, lalu {@link #awaitDurable(long)} dipanggil di luar lock append. Satu fsync
+ * mencakup seluruh append yang sudah ditulis saat fsync dimulai; request yang datang selama
+ * fsync berjalan menunggu dan ditutup oleh fsync berikutnya. Append, recover, dan truncate
+ * tidak thread-safe; pemanggil ({@link ReviewWriteBehindBuffer}) menjaganya dengan satu lock.
+ */
+final class ReviewJournal implements AutoCloseable {
+
+    private static final String ACCEPTED = "A ";
+    private static final String COMPLETED = "C ";
+
+    private final Path file;
+    private final ObjectMapper objectMapper;
+    private volatile FileChannel channel;
+    // Nomor urut append terakhir yang ditulis, dan yang sudah dijamin tersimpan di disk
+    private volatile long appendedSeq;
+    private volatile long durableSeq;
+    private final Object forceLock = new Object();
+
+    ReviewJournal(Path file, ObjectMapper objectMapper) {
+        this.file = file;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Membaca journal dan mengembalikan review yang diterima tetapi belum tercatat commit,
+     * lalu menulis ulang journal hanya berisi review tersebut.
+     */
+    List<PendingReview> recover() throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Map<String, PendingReview> pending = new LinkedHashMap<>();
+        if (Files.exists(file)) {
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.startsWith(ACCEPTED)) {
+                        PendingReview review = parse(line.substring(ACCEPTED.length()));
+                        if (review != null) {
+                            pending.put(review.getHandle(), review);
+                        }
+                    } else if (line.startsWith(COMPLETED)) {
+                        pending.remove(line.substring(COMPLETED.length()));
+                    }
+                }
+            }
+        }
+        List<PendingReview> recovered = new ArrayList<>(pending.values());
+        rewrite(recovered);
+        return recovered;
+    }
+
+    /**
+     * Menulis review yang diterima; belum tentu tersimpan di disk sebelum
+     * {@link #awaitDurable(long)} dengan nomor urut yang dikembalikan selesai.
+     */
+    long appendAccepted(PendingReview review) {
+        try {
+            return append(ACCEPTED + objectMapper.writeValueAsString(review) + "\n");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Review tidak dapat diserialisasi ke journal", e);
+        }
+    }
+
+    long appendCompleted(Collection<String> handles) {
+        if (handles.isEmpty()) {
+            return durableSeq;
+        }
+        StringBuilder lines = new StringBuilder();
+        for (String handle : handles) {
+            lines.append(COMPLETED).append(handle).append('\n');
+        }
+        return append(lines.toString());
+    }
+
+    /**
+     * Menunggu sampai append dengan nomor urut seq tersimpan di disk. Thread-safe dan tidak
+     * boleh dipanggil sambil memegang lock append, agar append lain bisa ikut fsync berikutnya.
+     */
+    void awaitDurable(long seq) {
+        if (durableSeq >= seq) {
+            return;
+        }
+        synchronized (forceLock) {
+            // Fsync oleh thread sebelumnya mungkin sudah mencakup append ini
+            if (durableSeq >= seq) {
+                return;
+            }
+            long target = appendedSeq;
+            try {
+                channel.force(false);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            durableSeq = target;
+        }
+    }
+
+    /**
+     * Mengosongkan journal; hanya aman dipanggil saat tidak ada review yang menunggu.
+     */
+    void truncate() {
+        try {
+            channel.truncate(0);
+            channel.force(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    private long append(String text) {
+        ByteBuffer buffer = ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return ++appendedSeq;
+    }
+
+    // Ditulis ke file sementara lalu di-rename agar journal lama tetap utuh jika proses mati di tengah
+    private void rewrite(List<PendingReview> pending) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        StringBuilder content = new StringBuilder();
+        for (PendingReview review : pending) {
+            content.append(ACCEPTED).append(objectMapper.writeValueAsString(review)).append('\n');
+        }
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.wrap(content.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            out.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    // Baris terakhir bisa terpotong jika proses mati saat menulis; baris itu belum pernah di-acknowledge
+    private PendingReview parse(String json) {
+        try {
+            return objectMapper.readValue(json, PendingReview.class);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,422 @@
+package com.wareland.review.writebehind;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wareland.property.dto.ListingSellerView;
+import com.wareland.property.model.Property;
+import com.wareland.property.repository.PropertyRepository;
+import com.wareland.review.dto.ReviewKeyView;
+import com.wareland.review.dto.ReviewSubmissionResponse;
+import com.wareland.review.event.ReviewChangedEvent;
+import com.wareland.review.model.Review;
+import com.wareland.review.repository.ReviewRepository;
+import com.wareland.user.model.Buyer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Buffer write-behind untuk pembuatan review saat lonjakan trafik (opsional,
+ * app.review.write-behind.enabled=true).
+ *
+ * Review yang sudah divalidasi dicatat ke journal (fsync) dan antrian in-memory terbatas,
+ * lalu satu thread writer menulisnya per batch dalam satu transaksi. Jumlah koneksi
+ * database untuk penulisan review menjadi paling banyak satu, berapa pun jumlah request.
+ * Review yang menunggu tetap terlihat di feed property dan feed buyer (read-your-writes).
+ */
+@Component
+@ConditionalOnProperty(name = "app.review.write-behind.enabled", havingValue = "true")
+public class ReviewWriteBehindBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(ReviewWriteBehindBuffer.class);
+    // Jumlah status review yang sudah diproses yang tetap bisa ditanyakan lewat handle
+    private static final int MAX_COMPLETED_STATUSES = 10_000;
+
+    private final ReviewRepository reviewRepository;
+    private final PropertyRepository propertyRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ReviewJournal journal;
+    private final BlockingQueue<PendingReview> queue;
+    private final int batchSize;
+    private final long retryDelayMs;
+
+    private final Map<String, PendingReview> pending = new ConcurrentHashMap<>();
+    private final Map<String, String> pendingKeys = new ConcurrentHashMap<>();
+    // Index review yang menunggu per property dan per buyer untuk read-your-writes di feed
+    private final Map<Integer, Set<PendingReview>> pendingByProperty = new ConcurrentHashMap<>();
+    private final Map<Long, Set<PendingReview>> pendingByBuyer = new ConcurrentHashMap<>();
+    private final Map<String, ReviewSubmissionResponse> completed =
+            new LinkedHashMap<>(16, 0.75f, false) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, ReviewSubmissionResponse> eldest) {
+                    return size() > MAX_COMPLETED_STATUSES;
+                }
+            };
+    private final List<PendingReview> recovered;
+    // Handle hasil pemulihan journal: review-nya mungkin sudah tertulis sebelum crash
+    private final Set<String> replayed = ConcurrentHashMap.newKeySet();
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    private final Counter writtenCounter;
+    private final Counter rejectedCounter;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ReviewWriteBehindBuffer(
+            ReviewRepository reviewRepository,
+            PropertyRepository propertyRepository,
+            ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${app.review.write-behind.journal-dir:./data/review-journal}") String journalDir,
+            @Value("${app.review.write-behind.queue-capacity:10000}") int queueCapacity,
+            @Value("${app.review.write-behind.batch-size:200}") int batchSize,
+            @Value("${app.review.write-behind.retry-delay-ms:1000}") long retryDelayMs
+    ) throws IOException {
+        this.reviewRepository = reviewRepository;
+        this.propertyRepository = propertyRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.retryDelayMs = retryDelayMs;
+
+        Path journalFile = Paths.get(journalDir).resolve("reviews.journal");
+        this.journal = new ReviewJournal(journalFile, objectMapper);
+        // Review yang di-acknowledge sebelum crash ditulis lebih dulu, di luar batas kapasitas antrian
+        this.recovered = new ArrayList<>(journal.recover());
+        for (PendingReview review : recovered) {
+            track(review);
+            replayed.add(review.getHandle());
+        }
+        if (!recovered.isEmpty()) {
+            log.info("{} review write-behind dipulihkan dari journal {}", recovered.size(), journalFile);
+        }
+
+        this.writtenCounter = Counter.builder("review.write_behind.rows")
+                .tag("result", "written")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("review.write_behind.rows")
+                .tag("result", "rejected")
+                .register(meterRegistry);
+        Gauge.builder("review.write_behind.pending", pending, Map::size)
+                .description("Jumlah review yang sudah diterima tetapi belum ditulis ke database")
+                .register(meterRegistry);
+
+        this.writer = new Thread(this::runWriter, "review-write-behind");
+        this.writer.setDaemon(true);
+    }
+
+    // Writer baru berjalan setelah seluruh listener agregat review siap menerima event
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        writer.start();
+    }
+
+    /**
+     * Mencatat review ke journal dan antrian. Mengembalikan null jika antrian penuh
+     * (pemanggil menulis langsung secara sinkron). Kembali setelah review tersimpan di disk.
+     */
+    public PendingReview offer(Long buyerId, Integer propertyId, Long sellerId,
+                               int rating, String comment, String buyerName) {
+        PendingReview review = new PendingReview(UUID.randomUUID().toString(), buyerId, propertyId,
+                sellerId, rating, comment, buyerName, LocalDateTime.now());
+        long seq;
+        // Satu lock untuk journal + antrian: writer tidak bisa mengosongkan journal
+        // di antara append dan pendaftaran review ke antrian
+        synchronized (journal) {
+            if (!running || queue.remainingCapacity() == 0) {
+                return null;
+            }
+            seq = journal.appendAccepted(review);
+            track(review);
+            queue.add(review);
+        }
+        // Fsync di luar lock: request yang datang bersamaan ikut fsync yang sama
+        journal.awaitDurable(seq);
+        return review;
+    }
+
+    public boolean isPending(Long buyerId, Integer propertyId) {
+        return pendingKeys.containsKey(buyerId + ":" + propertyId);
+    }
+
+    /**
+     * Review property yang belum ditulis, terbaru lebih dulu.
+     */
+    public List<PendingReview> pendingForProperty(Integer propertyId, Integer rating) {
+        return select(pendingByProperty.get(propertyId), rating);
+    }
+
+    /**
+     * Review buyer yang belum ditulis, terbaru lebih dulu.
+     */
+    public List<PendingReview> pendingForBuyer(Long buyerId, Integer rating) {
+        return select(pendingByBuyer.get(buyerId), rating);
+    }
+
+    /**
+     * Status review berdasarkan handle; null jika handle tidak dikenal (atau sudah terlalu lama).
+     */
+    public ReviewSubmissionResponse status(String handle) {
+        if (pending.containsKey(handle)) {
+            return ReviewSubmissionResponse.pending(handle);
+        }
+        synchronized (completed) {
+            return completed.get(handle);
+        }
+    }
+
+    // Sisa antrian tetap tercatat di journal dan ditulis saat aplikasi start berikutnya
+    @PreDestroy
+    public void shutdown() throws IOException, InterruptedException {
+        running = false;
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        synchronized (journal) {
+            journal.close();
+        }
+    }
+
+    private void runWriter() {
+        List<PendingReview> batch = new ArrayList<>(batchSize);
+        for (int from = 0; from < recovered.size(); from += batchSize) {
+            writeWithRetry(new ArrayList<>(recovered.subList(from, Math.min(from + batchSize, recovered.size()))));
+        }
+        recovered.clear();
+
+        while (running) {
+            try {
+                PendingReview first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                writeWithRetry(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                // Shutdown
+                return;
+            }
+        }
+    }
+
+    // Error sementara (misal database tidak tersedia) diulang terus: review sudah di-acknowledge
+    private void writeWithRetry(List<PendingReview> batch) {
+        while (true) {
+            try {
+                write(batch);
+                return;
+            } catch (DataIntegrityViolationException e) {
+                // Konflik data pada salah satu baris: tulis satu per satu agar baris lain tetap masuk
+                for (PendingReview review : batch) {
+                    try {
+                        write(List.of(review));
+                    } catch (DataIntegrityViolationException single) {
+                        reject(review, "Review tidak dapat disimpan: konflik data");
+                    }
+                }
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Penulisan {} review write-behind gagal, dicoba lagi: {}", batch.size(), e.getMessage());
+                try {
+                    Thread.sleep(retryDelayMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (!running) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void write(List<PendingReview> batch) {
+        Map<String, Long> written = new LinkedHashMap<>();
+        Map<String, String> rejected = new LinkedHashMap<>();
+        transactionTemplate.executeWithoutResult(status -> insertBatch(batch, written, rejected));
+
+        // Status akhir dicatat sebelum review keluar dari pending, agar handle tidak sempat "tidak ditemukan"
+        synchronized (completed) {
+            written.forEach((handle, id) -> completed.put(handle,
+                    new ReviewSubmissionResponse(handle, ReviewSubmissionResponse.Status.WRITTEN, id, null)));
+            rejected.forEach((handle, reason) -> completed.put(handle,
+                    new ReviewSubmissionResponse(handle, ReviewSubmissionResponse.Status.REJECTED, null, reason)));
+        }
+        List<String> handles = new ArrayList<>(written.keySet());
+        handles.addAll(rejected.keySet());
+        long seq;
+        synchronized (journal) {
+            seq = journal.appendCompleted(handles);
+            for (PendingReview review : batch) {
+                untrack(review);
+            }
+            if (pending.isEmpty()) {
+                journal.truncate();
+            }
+        }
+        journal.awaitDurable(seq);
+        writtenCounter.increment(written.size());
+        rejectedCounter.increment(rejected.size());
+    }
+
+    private void insertBatch(List<PendingReview> batch, Map<String, Long> written, Map<String, String> rejected) {
+        Set<Long> buyerIds = new HashSet<>();
+        Set<Integer> propertyIds = new HashSet<>();
+        for (PendingReview review : batch) {
+            buyerIds.add(review.getBuyerId());
+            propertyIds.add(review.getPropertyId());
+        }
+        // Listing bisa di-delist dan review bisa sudah tertulis (pemulihan journal) sejak review diterima
+        Map<Integer, Long> activeListings = new HashMap<>();
+        for (ListingSellerView listing : propertyRepository.findActiveListingSellers(propertyIds)) {
+            activeListings.put(listing.getPropertyId(), listing.getSellerId());
+        }
+        Map<String, Long> existingIds = new HashMap<>();
+        for (ReviewKeyView key : reviewRepository.findExistingKeys(buyerIds, propertyIds)) {
+            existingIds.put(key.getBuyerId() + ":" + key.getPropertyId(), key.getReviewId());
+        }
+        Set<String> existing = new HashSet<>(existingIds.keySet());
+
+        List<Review> reviews = new ArrayList<>();
+        List<PendingReview> accepted = new ArrayList<>();
+        for (PendingReview pendingReview : batch) {
+            if (!activeListings.containsKey(pendingReview.getPropertyId())) {
+                rejected.put(pendingReview.getHandle(),
+                        "Property dengan ID " + pendingReview.getPropertyId() + " tidak ditemukan");
+                continue;
+            }
+            if (!existing.add(pendingReview.key())) {
+                // Review pulihan yang sudah ada adalah dirinya sendiri (ditulis sebelum crash, status
+                // akhirnya belum sempat dicatat); review baru tidak bisa masuk selama key masih pending
+                Long existingId = existingIds.get(pendingReview.key());
+                if (existingId != null && replayed.contains(pendingReview.getHandle())) {
+                    written.put(pendingReview.getHandle(), existingId);
+                    continue;
+                }
+                rejected.put(pendingReview.getHandle(), "Anda sudah memberikan review untuk properti ini");
+                continue;
+            }
+            Review review = new Review();
+            review.setBuyer(entityManager.getReference(Buyer.class, pendingReview.getBuyerId()));
+            review.setProperty(entityManager.getReference(Property.class, pendingReview.getPropertyId()));
+            review.setRating(pendingReview.getRating());
+            review.setComment(pendingReview.getComment());
+            review.setCreatedAt(pendingReview.getCreatedAt());
+            reviews.add(review);
+            accepted.add(pendingReview);
+        }
+        // Lewat repository agar pelanggaran constraint diterjemahkan menjadi DataIntegrityViolationException
+        reviewRepository.saveAll(reviews);
+        reviewRepository.flush();
+
+        for (int i = 0; i < reviews.size(); i++) {
+            Review review = reviews.get(i);
+            PendingReview pendingReview = accepted.get(i);
+            written.put(pendingReview.getHandle(), review.getId());
+            pendingReview.markWritten(review.getId());
+            // Listener agregat berjalan seperti pembuatan review sinkron (BEFORE/AFTER_COMMIT batch ini)
+            eventPublisher.publishEvent(new ReviewChangedEvent(
+                    ReviewChangedEvent.Type.CREATED,
+                    review.getId(),
+                    pendingReview.getPropertyId(),
+                    activeListings.get(pendingReview.getPropertyId()),
+                    pendingReview.getBuyerId(),
+                    0,
+                    review.getRating(),
+                    true
+            ));
+        }
+        entityManager.clear();
+    }
+
+    private void reject(PendingReview review, String reason) {
+        synchronized (completed) {
+            completed.put(review.getHandle(), new ReviewSubmissionResponse(
+                    review.getHandle(), ReviewSubmissionResponse.Status.REJECTED, null, reason));
+        }
+        long seq;
+        synchronized (journal) {
+            seq = journal.appendCompleted(List.of(review.getHandle()));
+            untrack(review);
+        }
+        journal.awaitDurable(seq);
+        rejectedCounter.increment();
+        log.warn("Review write-behind {} ditolak: {}", review.getHandle(), reason);
+    }
+
+    // Dipanggil di dalam lock journal (atau konstruktor), bersama pencatatan ke journal
+    private void track(PendingReview review) {
+        pending.put(review.getHandle(), review);
+        pendingKeys.put(review.key(), review.getHandle());
+        pendingByProperty.computeIfAbsent(review.getPropertyId(), id -> ConcurrentHashMap.newKeySet()).add(review);
+        pendingByBuyer.computeIfAbsent(review.getBuyerId(), id -> ConcurrentHashMap.newKeySet()).add(review);
+    }
+
+    private void untrack(PendingReview review) {
+        pending.remove(review.getHandle());
+        replayed.remove(review.getHandle());
+        pendingKeys.remove(review.key(), review.getHandle());
+        pendingByProperty.computeIfPresent(review.getPropertyId(), (id, reviews) -> {
+            reviews.remove(review);
+            return reviews.isEmpty() ? null : reviews;
+        });
+        pendingByBuyer.computeIfPresent(review.getBuyerId(), (id, reviews) -> {
+            reviews.remove(review);
+            return reviews.isEmpty() ? null : reviews;
+        });
+    }
+
+    private static List<PendingReview> select(Set<PendingReview> reviews, Integer rating) {
+        if (reviews == null) {
+            return List.of();
+        }
+        List<PendingReview> result = new ArrayList<>(reviews.size());
+        for (PendingReview review : reviews) {
+            if (rating == null || review.getRating() == rating) {
+                result.add(review);
+            }
+        }
+        result.sort(Comparator.comparing(PendingReview::getCreatedAt).reversed());
+        return result;
+    }
+}
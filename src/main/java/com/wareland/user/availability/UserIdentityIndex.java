@@ -0,0 +1,288 @@
+package com.wareland.user.availability;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.wareland.common.util.BloomFilter;
+import com.wareland.user.event.UserIdentityChangedEvent;
+import com.wareland.user.repository.UserRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Bloom filter berisi seluruh username dan email yang terdaftar, untuk pengecekan
+ * ketersediaan tanpa query database.
+ *
+ * Jawaban "pasti belum ada" langsung dipercaya; hanya jawaban "mungkin ada" yang perlu
+ * dicek ke database. Nilai dinormalisasi (trim, huruf kecil) sehingga filter selalu
+ * mencakup nilai asli; perbedaan huruf besar/kecil hanya menambah false positive.
+ *
+ * Elemen tidak bisa dihapus dari Bloom filter: email lama dan akun yang dihapus tetap
+ * "mungkin ada" (dicek ke database) sampai filter dibangun ulang dari tabel users.
+ * Registrasi dan ganti email di instance lain ditarik berkala berdasarkan updated_at,
+ * dengan jendela overlap agar transaksi yang commit terlambat tetap terbaca.
+ */
+@Component
+public class UserIdentityIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(UserIdentityIndex.class);
+    private static final int LOAD_PAGE_SIZE = 1000;
+    private static final String USERNAME_PREFIX = "u:";
+    private static final String EMAIL_PREFIX = "e:";
+    // Dua seed berbeda menghasilkan dua hash independen untuk double hashing Bloom filter
+    private static final long HASH_SEED_1 = 0xcbf29ce484222325L;
+    private static final long HASH_SEED_2 = 0x84222325cbf29ce4L;
+
+    private final UserRepository userRepository;
+    private final int expectedUsers;
+    private final double falsePositiveRate;
+    private final long syncOverlapMs;
+    private final Counter absentCounter;
+    private final Counter maybePresentCounter;
+
+    private volatile BloomFilter filter;
+    private volatile boolean loaded;
+    // Perkiraan jumlah elemen di filter; user dihitung sekali berdasarkan ID tertinggi yang pernah dihitung
+    private int entries;
+    private long lastCountedId;
+    // Elemen yang ditambahkan selama rebuild dicatat untuk diputar ulang ke filter baru
+    private List<String> captured;
+    // Rebuild dan sinkronisasi membaca database di luar lock filter, tapi tidak boleh berjalan bersamaan.
+    // syncedUntil (updated_at terbaru yang sudah dibaca) dijaga lock ini
+    private final Object refreshLock = new Object();
+    private LocalDateTime syncedUntil;
+
+    public UserIdentityIndex(
+            UserRepository userRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.user.availability.expected-users:100000}") int expectedUsers,
+            @Value("${app.user.availability.false-positive-rate:0.01}") double falsePositiveRate,
+            @Value("${app.user.availability.sync-overlap-ms:60000}") long syncOverlapMs
+    ) {
+        this.userRepository = userRepository;
+        this.expectedUsers = expectedUsers;
+        this.falsePositiveRate = falsePositiveRate;
+        this.syncOverlapMs = syncOverlapMs;
+        // Setiap user menyumbang dua elemen (username dan email)
+        this.filter = new BloomFilter(expectedUsers * 2, falsePositiveRate);
+
+        this.absentCounter = lookupCounter(meterRegistry, "absent");
+        this.maybePresentCounter = lookupCounter(meterRegistry, "maybe_present");
+        Gauge.builder("user.availability.entries", this, UserIdentityIndex::size)
+                .description("Jumlah username/email di Bloom filter availability")
+                .register(meterRegistry);
+    }
+
+    /**
+     * False berarti username pasti belum terdaftar; true berarti perlu dicek ke database.
+     */
+    public boolean mightContainUsername(String username) {
+        return mightContain(USERNAME_PREFIX + normalize(username));
+    }
+
+    public boolean mightContainEmail(String email) {
+        return mightContain(EMAIL_PREFIX + normalize(email));
+    }
+
+    // Dijalankan sebelum commit: selama transaksi berjalan filter sudah memuat nilai baru,
+    // sehingga tidak ada jeda di mana nilai yang baru terdaftar dijawab "tersedia".
+    // Jika transaksi rollback, elemen tersisa hanya menjadi false positive.
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onIdentityChanged(UserIdentityChangedEvent event) {
+        switch (event.getType()) {
+            // Elemen dihitung saat sinkronisasi menarik barisnya, agar tidak terhitung dua kali
+            case REGISTERED -> {
+                add(USERNAME_PREFIX + normalize(event.getUsername()));
+                add(EMAIL_PREFIX + normalize(event.getEmail()));
+            }
+            case EMAIL_CHANGED -> add(EMAIL_PREFIX + normalize(event.getEmail()));
+            // Nilai akun yang dihapus tetap "mungkin ada" (dicek ke database) sampai rebuild berikutnya
+            case DELETED -> {
+            }
+        }
+    }
+
+    // Dijalankan sekali saat aplikasi siap; sebelum itu seluruh pengecekan memakai database
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadFromDatabase() {
+        rebuild();
+    }
+
+    /**
+     * Menarik user yang dibuat atau diubah sejak sinkronisasi terakhir (registrasi dan
+     * ganti email di instance lain). Jendela dimulai "sync-overlap-ms" sebelum updated_at
+     * terbaru yang sudah dibaca, sehingga baris yang commit terlambat (ID lebih kecil atau
+     * updated_at lebih awal dari baris yang sudah terbaca) tetap tertarik. Baris yang terbaca
+     * dua kali hanya ditambahkan ulang ke filter tanpa efek apa pun.
+     */
+    @Scheduled(fixedDelayString = "${app.user.availability.sync-interval-ms:5000}")
+    public void syncFromDatabase() {
+        if (!loaded) {
+            return;
+        }
+        synchronized (refreshLock) {
+            LocalDateTime since = syncedUntil.minusNanos(syncOverlapMs * 1_000_000L);
+            long afterId = 0;
+            List<Object[]> page;
+            do {
+                page = userRepository.findIdentitiesChangedSince(since, afterId, PageRequest.of(0, LOAD_PAGE_SIZE));
+                for (Object[] row : page) {
+                    long userId = (Long) row[0];
+                    addSynced(userId, USERNAME_PREFIX + normalize((String) row[1]),
+                            EMAIL_PREFIX + normalize((String) row[2]));
+                    LocalDateTime updatedAt = (LocalDateTime) row[3];
+                    if (updatedAt.isAfter(syncedUntil)) {
+                        syncedUntil = updatedAt;
+                    }
+                    afterId = userId;
+                }
+            } while (page.size() == LOAD_PAGE_SIZE);
+        }
+    }
+
+    /**
+     * Membangun ulang filter secara berkala dari tabel users: membuang email lama dan akun
+     * yang dihapus, menyesuaikan kapasitas dengan jumlah user, dan sekaligus menjadi jaring
+     * pengaman untuk perubahan yang terlewat oleh sinkronisasi.
+     */
+    @Scheduled(
+            initialDelayString = "${app.user.availability.rebuild-interval-ms:3600000}",
+            fixedDelayString = "${app.user.availability.rebuild-interval-ms:3600000}"
+    )
+    public void rebuildPeriodically() {
+        if (loaded) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Membangun filter baru dari tabel users. Pengecekan dan registrasi tetap berjalan
+     * memakai filter lama selama proses ini.
+     */
+    public void rebuild() {
+        synchronized (refreshLock) {
+            int capacity;
+            synchronized (this) {
+                captured = new ArrayList<>();
+                // Kapasitas tumbuh dua kali lipat dari isi saat ini agar false positive rate tetap terjaga
+                capacity = Math.max(expectedUsers * 2, entries * 2);
+            }
+            // Perubahan yang commit selama pembacaan ditarik sinkronisasi berikutnya (jendela overlap)
+            LocalDateTime startedAt = LocalDateTime.now();
+
+            BloomFilter rebuilt = new BloomFilter(capacity, falsePositiveRate);
+            int count = 0;
+            long lastId = 0;
+            try {
+                List<Object[]> page;
+                do {
+                    page = userRepository.findIdentitiesAfter(lastId, PageRequest.of(0, LOAD_PAGE_SIZE));
+                    for (Object[] row : page) {
+                        put(rebuilt, USERNAME_PREFIX + normalize((String) row[1]));
+                        put(rebuilt, EMAIL_PREFIX + normalize((String) row[2]));
+                        lastId = (Long) row[0];
+                    }
+                    count += page.size() * 2;
+                } while (page.size() == LOAD_PAGE_SIZE);
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    captured = null;
+                }
+                throw e;
+            }
+
+            synchronized (this) {
+                for (String key : captured) {
+                    put(rebuilt, key);
+                }
+                captured = null;
+                filter = rebuilt;
+                entries = count;
+                lastCountedId = Math.max(lastCountedId, lastId);
+                loaded = true;
+            }
+            if (syncedUntil == null || startedAt.isAfter(syncedUntil)) {
+                syncedUntil = startedAt;
+            }
+            log.info("Index availability username/email dibangun ulang: {} elemen", count);
+        }
+    }
+
+    public synchronized int size() {
+        return entries;
+    }
+
+    private boolean mightContain(String key) {
+        if (!loaded) {
+            return true;
+        }
+        if (filter.mightContain(hash(key, HASH_SEED_1), hash(key, HASH_SEED_2))) {
+            maybePresentCounter.increment();
+            return true;
+        }
+        absentCounter.increment();
+        return false;
+    }
+
+    // Sinkron dengan pergantian filter di rebuild agar elemen baru tidak hilang
+    private synchronized void add(String key) {
+        put(filter, key);
+        if (captured != null) {
+            captured.add(key);
+        }
+    }
+
+    private synchronized void addSynced(long userId, String usernameKey, String emailKey) {
+        add(usernameKey);
+        add(emailKey);
+        if (userId > lastCountedId) {
+            entries += 2;
+            lastCountedId = userId;
+        }
+    }
+
+    private static void put(BloomFilter target, String key) {
+        target.put(hash(key, HASH_SEED_1), hash(key, HASH_SEED_2));
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // FNV-1a 64-bit, diakhiri finalizer MurmurHash3 agar bit tersebar merata
+    private static long hash(String key, long seed) {
+        long h = seed;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("user.availability.lookups")
+                .description("Jumlah pengecekan availability berdasarkan jawaban Bloom filter")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
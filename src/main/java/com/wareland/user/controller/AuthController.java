@@ -8,10 +8,16 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.wareland.common.exception.InvalidCredentialException;
+import com.wareland.common.ratelimit.LoginRateLimiter;
 import com.wareland.common.response.ApiResponse;
+import com.wareland.common.security.AuthenticatedUser;
 import com.wareland.common.security.JwtTokenProvider;
+import com.wareland.common.security.TokenEpochRegistry;
+import com.wareland.user.dto.AvailabilityResponse;
 import com.wareland.user.dto.LoginRequest;
 import com.wareland.user.dto.LoginResponse;
 import com.wareland.user.dto.UserProfileResponse;
@@ -19,6 +25,7 @@ import com.wareland.user.dto.UserRegisterRequest;
 import com.wareland.user.service.AuthService;
 import com.wareland.user.service.UserService;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 /**
@@ -32,15 +39,21 @@ public class AuthController {
     private final UserService userService;
     private final JwtTokenProvider jwtTokenProvider;
     private final AuthService authService;
+    private final TokenEpochRegistry tokenEpochRegistry;
+    private final LoginRateLimiter loginRateLimiter;
 
     public AuthController(
             UserService userService,
             JwtTokenProvider jwtTokenProvider,
-            AuthService authService
+            AuthService authService,
+            TokenEpochRegistry tokenEpochRegistry,
+            LoginRateLimiter loginRateLimiter
     ) {
         this.userService = userService;
         this.jwtTokenProvider = jwtTokenProvider;
         this.authService = authService;
+        this.tokenEpochRegistry = tokenEpochRegistry;
+        this.loginRateLimiter = loginRateLimiter;
     }
 
     /**
@@ -56,15 +69,44 @@ public class AuthController {
         );
     }
 
+    /**
+     * Endpoint pengecekan ketersediaan username/email untuk form registrasi.
+     */
+    @GetMapping("/availability")
+    public ResponseEntity<ApiResponse<AvailabilityResponse>> availability(
+            @RequestParam(required = false) String username,
+            @RequestParam(required = false) String email
+    ) {
+        return ResponseEntity.ok(
+                ApiResponse.success(userService.checkAvailability(username, email))
+        );
+    }
+
     /**
      * Endpoint login user dan pembuatan JWT token.
      */
     @PostMapping("/login")
     public ResponseEntity<ApiResponse<LoginResponse>> login(
-            @Valid @RequestBody LoginRequest request
+            @Valid @RequestBody LoginRequest request,
+            HttpServletRequest httpRequest
     ) {
-        UserProfileResponse profile = userService.login(request);
-        String token = jwtTokenProvider.generateToken(profile.getUsername());
+        // Rate limit dicek sebelum query user dan verifikasi password.
+        // Di belakang proxy, remote address sudah diganti IP client asli dari X-Forwarded-For
+        String clientIp = httpRequest.getRemoteAddr();
+        loginRateLimiter.checkAllowed(request.getUsername(), clientIp);
+
+        UserProfileResponse profile;
+        try {
+            profile = userService.login(request);
+        } catch (InvalidCredentialException e) {
+            loginRateLimiter.recordFailure(request.getUsername(), clientIp);
+            throw e;
+        }
+        loginRateLimiter.recordSuccess(request.getUsername());
+
+        String token = jwtTokenProvider.generateToken(
+                profile.getId(), profile.getUsername(), profile.getRole(), profile.getName(),
+                tokenEpochRegistry.currentEpoch(profile.getId()));
 
         LoginResponse response = new LoginResponse(token, profile);
         return ResponseEntity.ok(
@@ -103,4 +145,29 @@ public class AuthController {
                 ApiResponse.success("Logout berhasil", null)
         );
     }
+
+    /**
+     * Endpoint logout dari semua perangkat: seluruh token milik user dicabut sekaligus.
+     */
+    @PostMapping("/logout-all")
+    public ResponseEntity<ApiResponse<Void>> logoutAll() {
+        authService.revokeAllTokens(getCurrentUserId());
+        return ResponseEntity.ok(
+                ApiResponse.success("Logout dari semua perangkat berhasil", null)
+        );
+    }
+
+    // Token lama tanpa claim uid dimuat sekali dari database
+    private Long getCurrentUserId() {
+        Authentication authentication =
+                SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null
+                || !(authentication.getPrincipal() instanceof AuthenticatedUser principal)) {
+            throw new InvalidCredentialException("Tidak terautentikasi");
+        }
+        if (principal.getUserId() != null) {
+            return principal.getUserId();
+        }
+        return userService.getProfileByUsername(principal.getUsername()).getId();
+    }
 }
@@ -1,5 +1,6 @@
 package com.wareland.user.controller;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -7,13 +8,22 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
 import com.wareland.common.response.ApiResponse;
+import com.wareland.common.response.CursorPage;
+import com.wareland.common.security.JwtTokenProvider;
+import com.wareland.common.security.TokenEpochRegistry;
+import com.wareland.user.dto.LoginResponse;
 import com.wareland.user.dto.UpdateProfileRequest;
 import com.wareland.user.dto.UserProfileResponse;
+import com.wareland.user.export.UserNdjsonExporter;
+import com.wareland.user.model.UserRole;
 import com.wareland.user.service.UserService;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
 /**
@@ -24,22 +34,49 @@ import jakarta.validation.Valid;
 @RequestMapping("/api/users")
 public class UserController {
 
+    private static final String NDJSON = "application/x-ndjson";
+
     private final UserService userService;
+    private final UserNdjsonExporter userNdjsonExporter;
+    private final JwtTokenProvider jwtTokenProvider;
+    private final TokenEpochRegistry tokenEpochRegistry;
+    private final long exportTimeoutMs;
 
-    public UserController(UserService userService) {
+    public UserController(
+            UserService userService,
+            UserNdjsonExporter userNdjsonExporter,
+            JwtTokenProvider jwtTokenProvider,
+            TokenEpochRegistry tokenEpochRegistry,
+            @Value("${app.user.export.timeout-ms:1800000}") long exportTimeoutMs
+    ) {
         this.userService = userService;
+        this.userNdjsonExporter = userNdjsonExporter;
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.tokenEpochRegistry = tokenEpochRegistry;
+        this.exportTimeoutMs = exportTimeoutMs;
     }
 
     /**
-     * Mengambil seluruh data user.
+     * Mengambil data user per halaman; halaman berikutnya via ?cursor=<nextCursor>.
      */
     @GetMapping
-    public ResponseEntity<ApiResponse<?>> getAllUsers() {
+    public ResponseEntity<ApiResponse<CursorPage<UserProfileResponse>>> getAllUsers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) {
         return ResponseEntity.ok(
-                ApiResponse.success(userService.getAllUsers())
+                ApiResponse.success(userService.getAllUsers(cursor, size))
         );
     }
 
+    /**
+     * Export seluruh user sebagai NDJSON (Accept: application/x-ndjson), dikirim streaming.
+     */
+    @GetMapping(produces = NDJSON)
+    public WebAsyncTask<Void> exportAllUsers(HttpServletResponse response) {
+        return export(null, response);
+    }
+
     /**
      * Mengambil profil user berdasarkan ID.
      * (Saat ini belum dibatasi autentikasi)
@@ -54,15 +91,27 @@ public class UserController {
 
     /**
      * Update profil user berdasarkan ID.
+     *
+     * Jika password diganti, seluruh token user (termasuk token yang dipakai request ini)
+     * dicabut; response berisi token baru beserta profil (format sama dengan response login)
+     * agar client tidak perlu login ulang.
      */
     @PutMapping("/{id}")
-    public ResponseEntity<ApiResponse<UserProfileResponse>> updateProfile(
+    public ResponseEntity<ApiResponse<?>> updateProfile(
             @PathVariable Long id,
             @Valid @RequestBody UpdateProfileRequest request
     ) {
         UserProfileResponse updated =
                 userService.updateProfile(id, request);
 
+        if (request.getNewPassword() != null) {
+            String token = jwtTokenProvider.generateToken(
+                    updated.getId(), updated.getUsername(), updated.getRole(), updated.getName(),
+                    tokenEpochRegistry.currentEpoch(updated.getId()));
+            return ResponseEntity.ok(
+                    ApiResponse.success("Password berhasil diubah", new LoginResponse(token, updated))
+            );
+        }
         return ResponseEntity.ok(
                 ApiResponse.success("Profil berhasil diperbarui", updated)
         );
@@ -82,14 +131,38 @@ public class UserController {
     }
 
     /**
-     * Mengambil daftar user berdasarkan role.
+     * Mengambil daftar user berdasarkan role per halaman.
      */
     @GetMapping("/role/{role}")
-    public ResponseEntity<ApiResponse<?>> getUsersByRole(
-            @PathVariable String role
+    public ResponseEntity<ApiResponse<CursorPage<UserProfileResponse>>> getUsersByRole(
+            @PathVariable String role,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
     ) {
         return ResponseEntity.ok(
-                ApiResponse.success(userService.getUsersByRole(role))
+                ApiResponse.success(userService.getUsersByRole(role, cursor, size))
         );
     }
+
+    /**
+     * Export user dengan role tertentu sebagai NDJSON (Accept: application/x-ndjson).
+     */
+    @GetMapping(value = "/role/{role}", produces = NDJSON)
+    public WebAsyncTask<Void> exportUsersByRole(
+            @PathVariable String role,
+            HttpServletResponse response
+    ) {
+        return export(userService.parseRole(role), response);
+    }
+
+    // Role divalidasi sebelum response dimulai, agar error tetap dikirim sebagai ApiResponse.
+    // Timeout sendiri (bukan timeout async default container) agar export besar tidak terpotong
+    private WebAsyncTask<Void> export(UserRole role, HttpServletResponse response) {
+        return new WebAsyncTask<>(exportTimeoutMs, () -> {
+            response.setContentType(NDJSON);
+            userNdjsonExporter.export(role, response.getOutputStream());
+            response.flushBuffer();
+            return null;
+        });
+    }
 }
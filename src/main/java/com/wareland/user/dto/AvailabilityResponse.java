@@ -0,0 +1,35 @@
+package com.wareland.user.dto;
+
+/**
+ * DTO untuk response pengecekan ketersediaan username/email.
+ * Field bernilai null jika parameter terkait tidak dikirim.
+ */
+public class AvailabilityResponse {
+
+    private Boolean usernameAvailable;
+    private Boolean emailAvailable;
+
+    public AvailabilityResponse() {
+    }
+
+    public AvailabilityResponse(Boolean usernameAvailable, Boolean emailAvailable) {
+        this.usernameAvailable = usernameAvailable;
+        this.emailAvailable = emailAvailable;
+    }
+
+    public Boolean getUsernameAvailable() {
+        return usernameAvailable;
+    }
+
+    public void setUsernameAvailable(Boolean usernameAvailable) {
+        this.usernameAvailable = usernameAvailable;
+    }
+
+    public Boolean getEmailAvailable() {
+        return emailAvailable;
+    }
+
+    public void setEmailAvailable(Boolean emailAvailable) {
+        this.emailAvailable = emailAvailable;
+    }
+}
@@ -0,0 +1,30 @@
+package com.wareland.user.dto;
+
+/**
+ * Agregat reputasi seller untuk ditampilkan: jumlah review, rata-rata mentah, dan skor berbobot.
+ * Rata-rata dan skor bernilai null jika seller belum memiliki review.
+ */
+public class SellerReputation {
+
+    private final long reviewCount;
+    private final Double averageRating;
+    private final Double reputationScore;
+
+    public SellerReputation(long reviewCount, Double averageRating, Double reputationScore) {
+        this.reviewCount = reviewCount;
+        this.averageRating = averageRating;
+        this.reputationScore = reputationScore;
+    }
+
+    public long getReviewCount() {
+        return reviewCount;
+    }
+
+    public Double getAverageRating() {
+        return averageRating;
+    }
+
+    public Double getReputationScore() {
+        return reputationScore;
+    }
+}
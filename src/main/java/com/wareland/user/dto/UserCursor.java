@@ -0,0 +1,34 @@
+package com.wareland.user.dto;
+
+import com.wareland.common.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Posisi terakhir pada listing user (user_id), dikodekan sebagai string opaque untuk client.
+ */
+public final class UserCursor {
+
+    private UserCursor() {
+    }
+
+    public static String encode(Long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(String.valueOf(lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Null jika cursor kosong (halaman pertama).
+     */
+    public static Long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Cursor tidak valid");
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.wareland.user.dto;
 
 import java.time.LocalDateTime;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.wareland.user.model.UserRole;
 
 /**
@@ -18,6 +19,13 @@ public class UserProfileResponse {
     private String imageUrl;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    // Hanya diisi untuk seller
+    private Long reviewCount;
+    private Double averageRating;
+    private Double reputationScore;
+    // Agregat mentah kolom seller pada projection listing, tanpa delta reputasi yang belum ditulis
+    private long storedReviewCount;
+    private long storedRatingSum;
 
     public UserProfileResponse() {
     }
@@ -44,6 +52,36 @@ public class UserProfileResponse {
         this.updatedAt = updatedAt;
     }
 
+    /**
+     * Dipakai projection JPQL pada listing user (tanpa memuat entity maupun kolom password).
+     * Agregat reputasi mentah hanya diolah untuk seller, sama seperti getter di Seller.
+     */
+    public UserProfileResponse(
+            Long id,
+            String username,
+            String name,
+            String email,
+            String phoneNumber,
+            UserRole role,
+            String imageUrl,
+            LocalDateTime createdAt,
+            LocalDateTime updatedAt,
+            Long reviewCount,
+            Long ratingSum,
+            Double reputationScore
+    ) {
+        this(id, username, name, email, phoneNumber, role, imageUrl, createdAt, updatedAt);
+        if (role == UserRole.SELLER) {
+            long count = reviewCount != null ? reviewCount : 0L;
+            long sum = ratingSum != null ? ratingSum : 0L;
+            this.storedReviewCount = count;
+            this.storedRatingSum = sum;
+            setReputation(count,
+                    count == 0 ? null : (double) sum / count,
+                    count == 0 ? null : reputationScore);
+        }
+    }
+
     public Long getId() {
         return id;
     }
@@ -79,4 +117,32 @@ public class UserProfileResponse {
     public LocalDateTime getUpdatedAt() {
         return updatedAt;
     }
+
+    public Long getReviewCount() {
+        return reviewCount;
+    }
+
+    public Double getAverageRating() {
+        return averageRating;
+    }
+
+    public Double getReputationScore() {
+        return reputationScore;
+    }
+
+    @JsonIgnore
+    public long getStoredReviewCount() {
+        return storedReviewCount;
+    }
+
+    @JsonIgnore
+    public long getStoredRatingSum() {
+        return storedRatingSum;
+    }
+
+    public void setReputation(long reviewCount, Double averageRating, Double reputationScore) {
+        this.reviewCount = reviewCount;
+        this.averageRating = averageRating;
+        this.reputationScore = reputationScore;
+    }
 }
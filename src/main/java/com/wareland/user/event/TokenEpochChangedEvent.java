@@ -0,0 +1,23 @@
+package com.wareland.user.event;
+
+/**
+ * Event yang dipublikasikan saat token epoch user dinaikkan (logout semua perangkat, ganti password).
+ */
+public class TokenEpochChangedEvent {
+
+    private final Long userId;
+    private final int tokenEpoch;
+
+    public TokenEpochChangedEvent(Long userId, int tokenEpoch) {
+        this.userId = userId;
+        this.tokenEpoch = tokenEpoch;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public int getTokenEpoch() {
+        return tokenEpoch;
+    }
+}
@@ -0,0 +1,42 @@
+package com.wareland.user.event;
+
+/**
+ * Event yang dipublikasikan UserService saat username/email tersimpan berubah
+ * (registrasi, ganti email, hapus akun). Digunakan index availability in-memory.
+ */
+public class UserIdentityChangedEvent {
+
+    public enum Type {
+        REGISTERED,
+        EMAIL_CHANGED,
+        DELETED
+    }
+
+    private final Type type;
+    private final Long userId;
+    private final String username;
+    private final String email;
+
+    public UserIdentityChangedEvent(Type type, Long userId, String username, String email) {
+        this.type = type;
+        this.userId = userId;
+        this.username = username;
+        this.email = email;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+}
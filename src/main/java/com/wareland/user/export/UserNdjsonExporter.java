@@ -0,0 +1,105 @@
+package com.wareland.user.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.wareland.user.dto.UserProfileResponse;
+import com.wareland.user.model.UserRole;
+import com.wareland.user.repository.UserRepository;
+import com.wareland.user.service.SellerReputationService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Export data user sebagai NDJSON (satu profil per baris) untuk admin panel.
+ *
+ * Data dibaca per batch dengan keyset pagination dan setiap batch langsung ditulis ke
+ * response, sehingga memori yang dipakai konstan berapa pun jumlah user. Setiap batch
+ * adalah transaksi read-only pendek dengan EntityManager sendiri; koneksi sudah kembali
+ * ke pool sebelum batch ditulis, sehingga tidak ada koneksi atau cursor database yang
+ * ditahan selama client membaca response.
+ */
+@Component
+public class UserNdjsonExporter {
+
+    private final UserRepository userRepository;
+    private final SellerReputationService sellerReputationService;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter rowWriter;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int batchSize;
+
+    public UserNdjsonExporter(
+            UserRepository userRepository,
+            SellerReputationService sellerReputationService,
+            ObjectMapper objectMapper,
+            EntityManagerFactory entityManagerFactory,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.user.export.batch-size:500}") int batchSize
+    ) {
+        this.userRepository = userRepository;
+        this.sellerReputationService = sellerReputationService;
+        this.objectMapper = objectMapper;
+        // Flush dilakukan sekali per batch, bukan setiap baris
+        this.rowWriter = objectMapper.writerFor(UserProfileResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.entityManagerFactory = entityManagerFactory;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Menulis seluruh user (atau satu role saja jika role diisi) ke output, terurut user_id.
+     * Output tidak ditutup; pemanggil (container servlet) yang menutupnya.
+     */
+    public long export(UserRole role, OutputStream output) throws IOException {
+        long written = 0;
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(output);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // Baris dipisah '\n' yang ditulis sendiri, tanpa separator default (spasi) antar root value
+        generator.setRootValueSeparator(null);
+
+        // Open-in-view mengikat EntityManager request ke thread streaming, sehingga satu koneksi
+        // tertahan sampai download selesai. Selama export ikatan itu dilepas agar setiap batch
+        // memakai EntityManager dan koneksi sendiri, lalu dipasang kembali untuk cleanup request.
+        Object boundEntityManager = TransactionSynchronizationManager.unbindResourceIfPossible(entityManagerFactory);
+        try (generator) {
+            Long afterId = null;
+            List<UserProfileResponse> batch;
+            do {
+                Long cursor = afterId;
+                batch = readOnlyTransaction.execute(status -> userRepository.findProfilePage(role, cursor, batchSize));
+                for (UserProfileResponse profile : batch) {
+                    // Reputasi sama dengan listing dan profil (termasuk delta yang masih di-buffer)
+                    if (profile.getRole() == UserRole.SELLER) {
+                        sellerReputationService.applyTo(profile);
+                    }
+                    rowWriter.writeValue(generator, profile);
+                    generator.writeRaw('\n');
+                    afterId = profile.getId();
+                }
+                written += batch.size();
+                // Dikirim per batch agar client menerima data bertahap
+                generator.flush();
+            } while (batch.size() == batchSize);
+        } finally {
+            if (boundEntityManager != null) {
+                TransactionSynchronizationManager.bindResource(entityManagerFactory, boundEntityManager);
+            }
+        }
+        return written;
+    }
+}
@@ -12,15 +12,26 @@ import jakarta.persistence.Table;
 
 /**
  * Entity untuk menyimpan token JWT yang sudah di-revoke (logout).
+ *
+ * Yang disimpan hanya hash SHA-256 token (ukuran tetap) beserta waktu kedaluwarsa JWT-nya,
+ * sehingga baris bisa dihapus begitu token tersebut sudah tidak mungkin lolos validasi.
  */
 @Entity
 @Table(
         name = "revoked_tokens",
         indexes = {
                 @Index(
-                        name = "idx_revoked_token_token",
-                        columnList = "token",
+                        name = "idx_revoked_token_hash",
+                        columnList = "token_hash",
                         unique = true
+                ),
+                @Index(
+                        name = "idx_revoked_token_expires_at",
+                        columnList = "expires_at"
+                ),
+                @Index(
+                        name = "idx_revoked_token_revoked_at",
+                        columnList = "revoked_at"
                 )
         }
 )
@@ -30,18 +41,23 @@ public class RevokedToken {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false, unique = true, length = 512)
-    private String token;
+    // Hex SHA-256 dari token mentah
+    @Column(name = "token_hash", nullable = false, unique = true, length = 64)
+    private String tokenHash;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
 
-    @Column(nullable = false)
+    @Column(name = "revoked_at", nullable = false)
     private Instant revokedAt;
 
     protected RevokedToken() {
         // Constructor khusus untuk JPA
     }
 
-    public RevokedToken(String token) {
-        this.token = token;
+    public RevokedToken(String tokenHash, Instant expiresAt) {
+        this.tokenHash = tokenHash;
+        this.expiresAt = expiresAt;
         this.revokedAt = Instant.now();
     }
 
@@ -49,8 +65,12 @@ public class RevokedToken {
         return id;
     }
 
-    public String getToken() {
-        return token;
+    public String getTokenHash() {
+        return tokenHash;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
     }
 
     public Instant getRevokedAt() {
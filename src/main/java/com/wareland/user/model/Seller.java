@@ -6,6 +6,7 @@ import java.util.List;
 import com.wareland.property.model.Property;
 
 import jakarta.persistence.CascadeType;
+import jakarta.persistence.Column;
 import jakarta.persistence.DiscriminatorValue;
 import jakarta.persistence.Entity;
 import jakarta.persistence.OneToMany;
@@ -21,6 +22,17 @@ public class Seller extends User {
     @OneToMany(mappedBy = "seller", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Property> properties = new ArrayList<>();
 
+    // Agregat reputasi dari review seluruh listing ACTIVE milik seller.
+    // Hanya diubah lewat UPDATE delta (SellerReputationService), tidak pernah ditimpa dirty-checking
+    @Column(name = "review_count", updatable = false)
+    private Long reviewCount = 0L;
+
+    @Column(name = "rating_sum", updatable = false)
+    private Long ratingSum = 0L;
+
+    @Column(name = "reputation_score", updatable = false)
+    private Double reputationScore;
+
     /**
      * Inisialisasi khusus saat proses registrasi seller.
      */
@@ -37,4 +49,27 @@ public class Seller extends User {
     public void setProperties(List<Property> properties) {
         this.properties = properties;
     }
+
+    public long getReviewCount() {
+        return reviewCount != null ? reviewCount : 0L;
+    }
+
+    public long getRatingSum() {
+        return ratingSum != null ? ratingSum : 0L;
+    }
+
+    /**
+     * Rata-rata rating mentah, null jika seller belum memiliki review.
+     */
+    public Double getAverageRating() {
+        long count = getReviewCount();
+        return count == 0 ? null : (double) getRatingSum() / count;
+    }
+
+    /**
+     * Skor reputasi berbobot (rata-rata Bayesian), null jika seller belum memiliki review.
+     */
+    public Double getReputationScore() {
+        return getReviewCount() == 0 ? null : reputationScore;
+    }
 }
@@ -1,19 +1,24 @@
 package com.wareland.user.model;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.DiscriminatorColumn;
 import jakarta.persistence.DiscriminatorType;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Inheritance;
 import jakarta.persistence.InheritanceType;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 
@@ -21,7 +26,22 @@ import jakarta.validation.constraints.NotBlank;
  * Abstract entity User sebagai root dari Buyer dan Seller.
  */
 @Entity
-@Table(name = "users")
+@Table(
+        name = "users",
+        // Nama constraint dipakai UserService untuk menerjemahkan pelanggaran menjadi pesan yang jelas
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_users_username", columnNames = "username"),
+                @UniqueConstraint(name = "uk_users_email", columnNames = "email")
+        },
+        indexes = {
+                // Listing per role memakai keyset (role, user_id)
+                @Index(name = "idx_users_role_id", columnList = "role, user_id"),
+                // Sinkronisasi token epoch; NULL untuk user yang belum pernah mencabut token
+                @Index(name = "idx_users_token_epoch_changed_at", columnList = "token_epoch_changed_at"),
+                // Sinkronisasi index availability (registrasi dan ganti email di instance lain)
+                @Index(name = "idx_users_updated_at", columnList = "updated_at")
+        }
+)
 @Inheritance(strategy = InheritanceType.SINGLE_TABLE)
 @DiscriminatorColumn(
         name = "role",
@@ -34,7 +54,7 @@ public abstract class User {
     private Long userId;
 
     @NotBlank
-    @Column(nullable = false, unique = true, length = 50)
+    @Column(nullable = false, length = 50)
     private String username;
 
     @NotBlank
@@ -47,7 +67,7 @@ public abstract class User {
 
     @Email
     @NotBlank
-    @Column(nullable = false, unique = true, length = 100)
+    @Column(nullable = false, length = 100)
     private String email;
 
     @NotBlank
@@ -57,6 +77,21 @@ public abstract class User {
     @Column(length = 500)
     private String imageUrl;
 
+    // Kolom discriminator dipetakan read-only agar bisa dipakai di filter & projection query.
+    // Nilainya tetap ditulis Hibernate dari subclass (@DiscriminatorValue)
+    @Enumerated(EnumType.STRING)
+    @Column(name = "role", insertable = false, updatable = false)
+    private UserRole role;
+
+    // Dinaikkan untuk mencabut seluruh token user sekaligus (claim "tep" di JWT).
+    // Hanya diubah lewat UPDATE atomik di repository, tidak pernah ditimpa dirty-checking
+    @Column(name = "token_epoch", nullable = false, updatable = false)
+    private int tokenEpoch;
+
+    // Waktu epoch terakhir dinaikkan, dipakai sebagai watermark sinkronisasi antar instance
+    @Column(name = "token_epoch_changed_at", updatable = false)
+    private Instant tokenEpochChangedAt;
+
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
@@ -180,6 +215,10 @@ public abstract class User {
         return null;
     }
 
+    public int getTokenEpoch() {
+        return tokenEpoch;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -1,6 +1,14 @@
 package com.wareland.user.repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.wareland.user.model.RevokedToken;
 
@@ -11,7 +19,26 @@ public interface RevokedTokenRepository
         extends JpaRepository<RevokedToken, Long> {
 
     /**
-     * Mengecek apakah token tertentu sudah di-revoke.
+     * Mengecek apakah hash token tertentu sudah di-revoke.
      */
-    boolean existsByToken(String token);
+    boolean existsByTokenHash(String tokenHash);
+
+    /**
+     * Token yang di-revoke setelah ID tertentu, untuk memuat/sinkronisasi cache revocation per halaman.
+     */
+    List<RevokedToken> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    /**
+     * Token yang di-revoke sejak waktu tertentu, per halaman ID (sinkronisasi dengan jendela tumpang tindih).
+     */
+    List<RevokedToken> findByRevokedAtGreaterThanEqualAndIdGreaterThanOrderByIdAsc(
+            Instant since, Long id, Pageable pageable);
+
+    // ID baris yang JWT-nya sudah kedaluwarsa, untuk satu batch purge (memakai index expires_at)
+    @Query("SELECT t.id FROM RevokedToken t WHERE t.expiresAt < :now ORDER BY t.expiresAt")
+    List<Long> findExpiredIds(@Param("now") Instant now, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM RevokedToken t WHERE t.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
 }
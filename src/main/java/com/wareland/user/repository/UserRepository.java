@@ -1,12 +1,18 @@
 package com.wareland.user.repository;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.wareland.user.model.User;
 
@@ -14,7 +20,7 @@ import com.wareland.user.model.User;
  * Repository untuk mengelola data User.
  */
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
 
     /**
      * Mencari user berdasarkan username.
@@ -36,9 +42,86 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     boolean existsByEmail(String email);
 
+    // Username & email per halaman (keyset berdasarkan ID) untuk index availability
+    @Query("SELECT u.userId, u.username, u.email FROM User u WHERE u.userId > :afterId ORDER BY u.userId")
+    List<Object[]> findIdentitiesAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Username & email yang dibuat/diubah sejak "since", per halaman (keyset berdasarkan ID)
+    @Query("SELECT u.userId, u.username, u.email, u.updatedAt FROM User u "
+            + "WHERE u.updatedAt >= :since AND u.userId > :afterId ORDER BY u.userId")
+    List<Object[]> findIdentitiesChangedSince(
+            @Param("since") LocalDateTime since,
+            @Param("afterId") Long afterId,
+            Pageable pageable
+    );
+
+    // ID buyer yang benar-benar ada dari sekumpulan ID (validasi import review)
+    @Query("SELECT b.userId FROM Buyer b WHERE b.userId IN :ids")
+    List<Long> findBuyerIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Menambahkan delta jumlah & total rating ke agregat reputasi seller
+     * dan menghitung ulang skor berbobot dalam satu UPDATE.
+     * CAST parameter: di PostgreSQL pgJDBC sudah mengikat long/double sebagai int8/float8, jadi
+     * CAST tidak mengubah apa pun. H2 (database embedded untuk test) menentukan tipe parameter
+     * saat prepare, sebelum nilai terikat, dan menghitung "kolom + ?" sebagai DECFLOAT,
+     * sehingga pembagian skor berjalan dengan presisi desimal besar dan sangat lambat.
+     */
+    @Modifying
+    @Query(value = "UPDATE users SET "
+            + "review_count = review_count + CAST(:countDelta AS BIGINT), "
+            + "rating_sum = rating_sum + CAST(:sumDelta AS BIGINT), "
+            + "reputation_score = (CAST(:priorWeight AS DOUBLE PRECISION) * CAST(:priorMean AS DOUBLE PRECISION) "
+            + "+ rating_sum + CAST(:sumDelta AS BIGINT)) "
+            + "/ (CAST(:priorWeight AS DOUBLE PRECISION) + review_count + CAST(:countDelta AS BIGINT)) "
+            + "WHERE user_id = :sellerId",
+            nativeQuery = true)
+    int applyReputationDelta(@Param("sellerId") Long sellerId,
+                             @Param("countDelta") long countDelta,
+                             @Param("sumDelta") long sumDelta,
+                             @Param("priorWeight") double priorWeight,
+                             @Param("priorMean") double priorMean);
+
     /**
-     * Mengambil daftar user berdasarkan role (menggunakan discriminator column).
+     * Menghitung ulang agregat reputasi seluruh seller dari tabel reviews (koreksi penuh).
      */
-    @Query("SELECT u FROM User u WHERE TYPE(u) = :userType")
-    List<User> findByType(@Param("userType") Class<? extends User> userType);
+    @Modifying
+    @Query(value = "UPDATE users SET "
+            + "review_count = (SELECT COUNT(*) FROM reviews r JOIN properties p ON p.property_id = r.property_id "
+            + "WHERE p.seller_id = users.user_id AND p.status = 'ACTIVE'), "
+            + "rating_sum = (SELECT COALESCE(SUM(r.rating), 0) FROM reviews r JOIN properties p ON p.property_id = r.property_id "
+            + "WHERE p.seller_id = users.user_id AND p.status = 'ACTIVE') "
+            + "WHERE role = 'SELLER'", nativeQuery = true)
+    int recalculateReputationCounts();
+
+    @Modifying
+    @Query(value = "UPDATE users SET reputation_score = "
+            + "(CAST(:priorWeight AS DOUBLE PRECISION) * CAST(:priorMean AS DOUBLE PRECISION) + rating_sum) "
+            + "/ (CAST(:priorWeight AS DOUBLE PRECISION) + review_count) "
+            + "WHERE role = 'SELLER'", nativeQuery = true)
+    int refreshReputationScores(@Param("priorWeight") double priorWeight,
+                                @Param("priorMean") double priorMean);
+
+    // Token epoch dinaikkan secara atomik; seluruh JWT dengan epoch lebih kecil menjadi tidak berlaku
+    @Modifying
+    @Query("UPDATE User u SET u.tokenEpoch = u.tokenEpoch + 1, u.tokenEpochChangedAt = :now "
+            + "WHERE u.userId = :userId")
+    int incrementTokenEpoch(@Param("userId") Long userId, @Param("now") Instant now);
+
+    @Query("SELECT u.tokenEpoch FROM User u WHERE u.userId = :userId")
+    Optional<Integer> findTokenEpoch(@Param("userId") Long userId);
+
+    // (userId, epoch, waktu perubahan) yang berubah sejak waktu tertentu. Kolom waktu bernilai NULL
+    // untuk user yang belum pernah mencabut token, jadi range scan index hanya menyentuh user dengan epoch > 0
+    @Query("SELECT u.userId, u.tokenEpoch, u.tokenEpochChangedAt FROM User u "
+            + "WHERE u.tokenEpochChangedAt >= :since")
+    List<Object[]> findTokenEpochsChangedSince(@Param("since") Instant since);
+
+    // Rehash saat login: hanya berhasil jika password belum diganti sejak hash lama dibaca
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :newHash WHERE u.userId = :userId AND u.password = :oldHash")
+    int replacePasswordHash(@Param("userId") Long userId,
+                            @Param("oldHash") String oldHash,
+                            @Param("newHash") String newHash);
 }
@@ -0,0 +1,16 @@
+package com.wareland.user.repository;
+
+import com.wareland.user.dto.UserProfileResponse;
+import com.wareland.user.model.UserRole;
+
+import java.util.List;
+
+/**
+ * Query listing user dengan keyset pagination pada user_id.
+ * Hasil langsung berupa DTO sehingga kolom password tidak pernah ikut dibaca.
+ */
+public interface UserRepositoryCustom {
+
+    // role null = seluruh user; afterId null = halaman pertama
+    List<UserProfileResponse> findProfilePage(UserRole role, Long afterId, int limit);
+}
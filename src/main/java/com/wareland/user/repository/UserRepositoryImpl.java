@@ -0,0 +1,48 @@
+package com.wareland.user.repository;
+
+import com.wareland.user.dto.UserProfileResponse;
+import com.wareland.user.model.UserRole;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.util.List;
+
+/**
+ * Implementasi {@link UserRepositoryCustom}. Filter role memakai kolom discriminator
+ * yang dipetakan read-only (bukan TYPE(u)), sehingga listing per role memakai index
+ * (role, user_id) dan berhenti setelah "limit" baris.
+ */
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+    // Atribut reputasi milik Seller dibaca lewat TREAT; untuk buyer nilainya null
+    private static final String PROFILE_LIST = "SELECT new com.wareland.user.dto.UserProfileResponse("
+            + "u.userId, u.username, u.name, u.email, u.phoneNumber, u.role, u.imageUrl, u.createdAt, u.updatedAt, "
+            + "TREAT(u AS Seller).reviewCount, TREAT(u AS Seller).ratingSum, TREAT(u AS Seller).reputationScore) "
+            + "FROM User u WHERE 1 = 1";
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public List<UserProfileResponse> findProfilePage(UserRole role, Long afterId, int limit) {
+        StringBuilder jpql = new StringBuilder(PROFILE_LIST);
+        if (role != null) {
+            jpql.append(" AND u.role = :role");
+        }
+        if (afterId != null) {
+            jpql.append(" AND u.userId > :afterId");
+        }
+        jpql.append(" ORDER BY u.userId");
+
+        TypedQuery<UserProfileResponse> q = em.createQuery(jpql.toString(), UserProfileResponse.class);
+        if (role != null) {
+            q.setParameter("role", role);
+        }
+        if (afterId != null) {
+            q.setParameter("afterId", afterId);
+        }
+        q.setMaxResults(limit);
+        return q.getResultList();
+    }
+}
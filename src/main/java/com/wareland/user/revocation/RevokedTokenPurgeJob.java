@@ -0,0 +1,107 @@
+package com.wareland.user.revocation;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.wareland.user.repository.RevokedTokenRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Job background yang menghapus baris revoked_tokens yang JWT-nya sudah kedaluwarsa.
+ *
+ * Token tersebut sudah ditolak oleh validasi expiration, jadi barisnya tidak diperlukan lagi.
+ * Penghapusan dilakukan per batch kecil dalam transaksi terpisah agar lock tidak ditahan lama,
+ * sehingga ukuran tabel (dan index-nya) hanya sebanding dengan token yang masih berlaku.
+ */
+@Component
+public class RevokedTokenPurgeJob {
+
+    private static final Logger log = LoggerFactory.getLogger(RevokedTokenPurgeJob.class);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Counter purgedRows;
+    private final Timer purgeTimer;
+    // Jumlah baris terakhir yang diketahui, diperbarui setiap kali job berjalan
+    private final AtomicLong tableRows = new AtomicLong();
+
+    public RevokedTokenPurgeJob(
+            RevokedTokenRepository revokedTokenRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.security.revocation.purge-batch-size:1000}") int batchSize,
+            @Value("${app.security.revocation.purge-max-batches-per-run:50}") int maxBatchesPerRun
+    ) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.purgedRows = Counter.builder("auth.revoked_tokens.purged")
+                .description("Jumlah baris revoked_tokens kedaluwarsa yang dihapus")
+                .register(meterRegistry);
+        this.purgeTimer = Timer.builder("auth.revoked_tokens.purge")
+                .description("Durasi satu kali purge revoked_tokens")
+                .register(meterRegistry);
+        Gauge.builder("auth.revoked_tokens.rows", tableRows, AtomicLong::get)
+                .description("Jumlah baris tabel revoked_tokens")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(
+            fixedDelayString = "${app.security.revocation.purge-interval-ms:3600000}",
+            initialDelayString = "${app.security.revocation.purge-initial-delay-ms:60000}"
+    )
+    public void scheduledPurge() {
+        long start = System.nanoTime();
+        int purged = purgeExpired(Instant.now());
+        purgeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        tableRows.set(revokedTokenRepository.count());
+        if (purged > 0) {
+            log.info("Purge revoked token selesai dalam {} ms: {} baris dihapus, {} baris tersisa",
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), purged, tableRows.get());
+        }
+    }
+
+    /**
+     * Menghapus baris yang kedaluwarsa sebelum waktu tertentu. Mengembalikan jumlah baris yang dihapus.
+     * Sisa baris (jika melebihi batas batch per run) dikerjakan pada jadwal berikutnya.
+     */
+    public int purgeExpired(Instant now) {
+        int total = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            Integer deleted = transactionTemplate.execute(status -> purgeBatch(now));
+            int count = deleted == null ? 0 : deleted;
+            total += count;
+            purgedRows.increment(count);
+            if (count < batchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    private int purgeBatch(Instant now) {
+        List<Long> ids = revokedTokenRepository.findExpiredIds(now, PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return revokedTokenRepository.deleteByIds(ids);
+    }
+}
@@ -1,10 +1,19 @@
 package com.wareland.user.service;
 
+import java.time.Instant;
+
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.wareland.common.security.JwtTokenProvider;
+import com.wareland.common.security.RevokedTokenRegistry;
+import com.wareland.common.exception.ResourceNotFoundException;
+import com.wareland.common.security.TokenDigest;
+import com.wareland.user.event.TokenEpochChangedEvent;
 import com.wareland.user.model.RevokedToken;
 import com.wareland.user.repository.RevokedTokenRepository;
+import com.wareland.user.repository.UserRepository;
 
 /**
  * Service untuk menangani proses autentikasi tambahan
@@ -14,9 +23,21 @@ import com.wareland.user.repository.RevokedTokenRepository;
 public class AuthService {
 
     private final RevokedTokenRepository revokedTokenRepository;
+    private final RevokedTokenRegistry revokedTokenRegistry;
+    private final JwtTokenProvider tokenProvider;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public AuthService(RevokedTokenRepository revokedTokenRepository) {
+    public AuthService(RevokedTokenRepository revokedTokenRepository,
+                       RevokedTokenRegistry revokedTokenRegistry,
+                       JwtTokenProvider tokenProvider,
+                       UserRepository userRepository,
+                       ApplicationEventPublisher eventPublisher) {
         this.revokedTokenRepository = revokedTokenRepository;
+        this.revokedTokenRegistry = revokedTokenRegistry;
+        this.tokenProvider = tokenProvider;
+        this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -35,8 +56,36 @@ public class AuthService {
             token = bearerToken.substring(7);
         }
 
-        if (!token.isBlank() && !revokedTokenRepository.existsByToken(token)) {
-            revokedTokenRepository.save(new RevokedToken(token));
+        if (token.isBlank()) {
+            return;
+        }
+
+        // Token dengan signature tidak valid atau sudah kedaluwarsa tidak perlu dicatat
+        Instant expiresAt = tokenProvider.getExpiration(token);
+        if (expiresAt == null || !expiresAt.isAfter(Instant.now())) {
+            return;
+        }
+
+        TokenDigest digest = TokenDigest.of(token);
+        if (!revokedTokenRepository.existsByTokenHash(digest.hex())) {
+            revokedTokenRepository.save(new RevokedToken(digest.hex(), expiresAt));
+        }
+        // Cache in-memory diperbarui langsung agar request berikutnya di instance ini ditolak
+        revokedTokenRegistry.revoke(digest, expiresAt);
+    }
+
+    /**
+     * Mencabut seluruh token milik user (logout dari semua perangkat) dengan menaikkan
+     * token epoch-nya. Tidak ada baris yang disimpan per token.
+     */
+    @Transactional
+    public int revokeAllTokens(Long userId) {
+        if (userRepository.incrementTokenEpoch(userId, Instant.now()) == 0) {
+            throw new ResourceNotFoundException("User dengan ID " + userId + " tidak ditemukan");
         }
+        int epoch = userRepository.findTokenEpoch(userId).orElse(0);
+        // Cache epoch di memori diperbarui setelah commit
+        eventPublisher.publishEvent(new TokenEpochChangedEvent(userId, epoch));
+        return epoch;
     }
 }
@@ -0,0 +1,345 @@
+package com.wareland.user.service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.wareland.property.event.PropertyChangedEvent;
+import com.wareland.review.event.ReviewChangedEvent;
+import com.wareland.review.repository.ReviewRepository;
+import com.wareland.user.dto.SellerReputation;
+import com.wareland.user.dto.UserProfileResponse;
+import com.wareland.user.model.Seller;
+import com.wareland.user.repository.UserRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Memelihara agregat reputasi seller (jumlah review, total rating, skor berbobot) secara inkremental.
+ *
+ * Perubahan review dicatat sebagai delta per listing setelah commit, lalu ditulis berkala ke
+ * tabel users dengan satu UPDATE per seller. Transaksi review tidak lagi mengunci baris users,
+ * sehingga review yang masuk bersamaan untuk seller populer tidak saling menunggu.
+ * Delta selalu ditulis ke seller pemilik listing, apa pun status listing saat flush.
+ *
+ * Delisting disesuaikan setelah commit, di bawah lock yang sama dengan flush (tidak ada batch
+ * yang sedang ditulis): delta tertunda listing tersebut dibuang dan seller dikurangi seluruh
+ * review listing yang sudah commit dikurangi delta yang dibuang tadi.
+ *
+ * Delta yang tertunda ditulis saat shutdown; yang hilang karena crash dikoreksi oleh
+ * penghitungan ulang terjadwal dari tabel reviews.
+ *
+ * Agregat per seller di-cache beserta delta yang belum ditulis, sehingga seller info di katalog
+ * dan profil langsung menampilkan nilai terbaru tanpa query tambahan.
+ * Skor = (w * m + total rating) / (w + jumlah review), agar seller dengan sedikit review
+ * tidak langsung berada di puncak.
+ */
+@Service
+public class SellerReputationService {
+
+    private static final Logger log = LoggerFactory.getLogger(SellerReputationService.class);
+
+    private final UserRepository userRepository;
+    private final ReviewRepository reviewRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final double priorWeight;
+    private final double priorMean;
+    private final long cacheTtlMs;
+
+    // Flush, penyesuaian delisting, dan penghitungan ulang tidak boleh berjalan bersamaan
+    private final Object writeLock = new Object();
+    // Delta per listing yang belum ditulis, total per seller, dan delta yang sedang ditulis; dijaga lock
+    private final Object lock = new Object();
+    private Map<Integer, PendingDelta> pending = new HashMap<>();
+    private final Map<Long, long[]> pendingBySeller = new HashMap<>();
+    private Map<Long, long[]> flushingBySeller = new HashMap<>();
+    private final Map<Long, CachedReputation> cache = new ConcurrentHashMap<>();
+
+    public SellerReputationService(
+            UserRepository userRepository,
+            ReviewRepository reviewRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.seller.reputation.prior-weight:5}") double priorWeight,
+            @Value("${app.seller.reputation.prior-mean:3.0}") double priorMean,
+            @Value("${app.seller.reputation.cache-ttl-ms:60000}") long cacheTtlMs
+    ) {
+        this.userRepository = userRepository;
+        this.reviewRepository = reviewRepository;
+        // Transaksi baru: penyesuaian delisting berjalan dari listener AFTER_COMMIT
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.priorWeight = priorWeight;
+        this.priorMean = priorMean;
+        this.cacheTtlMs = cacheTtlMs;
+    }
+
+    // Review listing yang sudah di-delist sudah dikurangkan saat delisting
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReviewChanged(ReviewChangedEvent event) {
+        if (!event.isListingActive()) {
+            return;
+        }
+        long countDelta = (event.getRating() > 0 ? 1 : 0) - (event.getPreviousRating() > 0 ? 1 : 0);
+        long sumDelta = event.getRating() - event.getPreviousRating();
+        addListingDelta(event.getPropertyId(), event.getSellerId(), countDelta, sumDelta);
+    }
+
+    // Listing yang di-delist tidak lagi dihitung dalam reputasi seller
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPropertyChanged(PropertyChangedEvent event) {
+        if (event.getType() != PropertyChangedEvent.Type.DELETED) {
+            return;
+        }
+        synchronized (writeLock) {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Object[]> rows = reviewRepository.aggregateByProperty(event.getPropertyId());
+                Object[] aggregate = rows.get(0);
+                long count = ((Number) aggregate[0]).longValue();
+                long sum = ((Number) aggregate[1]).longValue();
+                // Delta yang belum ditulis belum masuk tabel users, jadi tidak ikut dikurangkan
+                synchronized (lock) {
+                    PendingDelta delta = pending.remove(event.getPropertyId());
+                    if (delta != null) {
+                        addTo(pendingBySeller, delta.sellerId, -delta.count, -delta.sum);
+                        count -= delta.count;
+                        sum -= delta.sum;
+                    }
+                }
+                if (count != 0 || sum != 0) {
+                    userRepository.applyReputationDelta(event.getSellerId(), -count, -sum, priorWeight, priorMean);
+                }
+            });
+            cache.remove(event.getSellerId());
+        }
+    }
+
+    /**
+     * Mencatat delta (jumlah, total rating) untuk listing; ditulis ke tabel users pada flush berikutnya.
+     */
+    public void addListingDelta(Integer propertyId, Long sellerId, long countDelta, long sumDelta) {
+        if (countDelta == 0 && sumDelta == 0) {
+            return;
+        }
+        synchronized (lock) {
+            PendingDelta delta = pending.computeIfAbsent(propertyId, id -> new PendingDelta(sellerId));
+            delta.count += countDelta;
+            delta.sum += sumDelta;
+            addTo(pendingBySeller, sellerId, countDelta, sumDelta);
+            cache.computeIfPresent(sellerId, (id, cached) -> cached.plus(countDelta, sumDelta));
+        }
+    }
+
+    /**
+     * Menerapkan delta (jumlah, total rating) per seller langsung ke tabel users, misalnya review
+     * hasil import massal setelah batch-nya commit. Status listing tidak dicek: delisting
+     * mengurangkan seluruh review yang sudah commit, termasuk review import.
+     */
+    public void applySellerDeltas(Map<Long, long[]> deltas) {
+        synchronized (writeLock) {
+            transactionTemplate.executeWithoutResult(status -> deltas.forEach((sellerId, delta) ->
+                    userRepository.applyReputationDelta(sellerId, delta[0], delta[1], priorWeight, priorMean)));
+            evict(deltas.keySet());
+        }
+    }
+
+    /**
+     * Reputasi seller dari cache; saat belum ada atau kedaluwarsa, dihitung dari kolom agregat
+     * seller yang sudah dimuat ditambah delta yang belum ditulis (tanpa query).
+     */
+    public SellerReputation reputationOf(Seller seller) {
+        long now = System.currentTimeMillis();
+        CachedReputation cached = cache.get(seller.getUserId());
+        if (cached == null || cached.expiresAt <= now) {
+            synchronized (lock) {
+                long[] unwritten = unwrittenDelta(seller.getUserId());
+                cached = new CachedReputation(seller.getReviewCount() + unwritten[0],
+                        seller.getRatingSum() + unwritten[1], now + cacheTtlMs);
+                cache.put(seller.getUserId(), cached);
+            }
+        }
+        return toReputation(cached.count, cached.sum);
+    }
+
+    /**
+     * Menimpa reputasi baris listing/export seller (dibaca dari kolom agregat mentah) dengan nilai
+     * yang sama seperti reputationOf, agar listing dan profil tidak berbeda. Cache tidak diisi,
+     * karena export membaca seluruh seller.
+     */
+    public void applyTo(UserProfileResponse profile) {
+        CachedReputation cached = cache.get(profile.getId());
+        SellerReputation reputation;
+        if (cached != null && cached.expiresAt > System.currentTimeMillis()) {
+            reputation = toReputation(cached.count, cached.sum);
+        } else {
+            long[] unwritten = unwrittenDelta(profile.getId());
+            reputation = toReputation(profile.getStoredReviewCount() + unwritten[0],
+                    profile.getStoredRatingSum() + unwritten[1]);
+        }
+        profile.setReputation(reputation.getReviewCount(), reputation.getAverageRating(),
+                reputation.getReputationScore());
+    }
+
+    private SellerReputation toReputation(long count, long sum) {
+        return new SellerReputation(count,
+                count == 0 ? null : (double) sum / count,
+                count == 0 ? null : (priorWeight * priorMean + sum) / (priorWeight + count));
+    }
+
+    // Delta (jumlah, total rating) seller yang belum masuk tabel users
+    private long[] unwrittenDelta(Long sellerId) {
+        synchronized (lock) {
+            long[] unwritten = new long[2];
+            addTo(unwritten, pendingBySeller.get(sellerId));
+            addTo(unwritten, flushingBySeller.get(sellerId));
+            return unwritten;
+        }
+    }
+
+    /**
+     * Menulis delta yang terkumpul ke tabel users dalam satu transaksi, satu UPDATE per seller.
+     */
+    @Scheduled(fixedDelayString = "${app.seller.reputation.flush-interval-ms:1000}")
+    public void flush() {
+        synchronized (writeLock) {
+            Map<Integer, PendingDelta> batch;
+            synchronized (lock) {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch = pending;
+                pending = new HashMap<>();
+                flushingBySeller = new HashMap<>(pendingBySeller);
+                pendingBySeller.clear();
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> write(batch));
+            } catch (RuntimeException e) {
+                // Delta dikembalikan dan dicoba lagi pada jadwal berikutnya. Delisting menunggu writeLock,
+                // jadi listing dalam batch belum ada yang dibuang
+                synchronized (lock) {
+                    batch.forEach((propertyId, delta) -> {
+                        PendingDelta current = pending.computeIfAbsent(propertyId, id -> new PendingDelta(delta.sellerId));
+                        current.count += delta.count;
+                        current.sum += delta.sum;
+                        addTo(pendingBySeller, delta.sellerId, delta.count, delta.sum);
+                    });
+                }
+                log.warn("Flush reputasi seller gagal untuk {} listing: {}", batch.size(), e.getMessage());
+            } finally {
+                synchronized (lock) {
+                    flushingBySeller = new HashMap<>();
+                }
+            }
+        }
+    }
+
+    // Delta yang tertunda tidak boleh hilang saat aplikasi berhenti normal
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Menghitung ulang reputasi seluruh seller dari data review (koreksi penuh), memperbaiki
+     * selisih akibat delta yang hilang saat crash. Delta tertunda dibuang karena review-nya
+     * sudah commit dan ikut terhitung.
+     */
+    @Scheduled(cron = "${app.seller.reputation.recalculate-cron:0 15 4 * * *}")
+    public void recalculateAll() {
+        synchronized (writeLock) {
+            Map<Integer, PendingDelta> discarded;
+            synchronized (lock) {
+                discarded = pending;
+                pending = new HashMap<>();
+                pendingBySeller.clear();
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    userRepository.recalculateReputationCounts();
+                    userRepository.refreshReputationScores(priorWeight, priorMean);
+                });
+            } catch (RuntimeException e) {
+                synchronized (lock) {
+                    discarded.forEach((propertyId, delta) -> {
+                        PendingDelta current = pending.computeIfAbsent(propertyId, id -> new PendingDelta(delta.sellerId));
+                        current.count += delta.count;
+                        current.sum += delta.sum;
+                        addTo(pendingBySeller, delta.sellerId, delta.count, delta.sum);
+                    });
+                }
+                throw e;
+            }
+            cache.clear();
+            log.info("Reputasi seller dihitung ulang dari tabel reviews");
+        }
+    }
+
+    private void write(Map<Integer, PendingDelta> batch) {
+        Map<Long, long[]> bySeller = new HashMap<>();
+        for (PendingDelta delta : batch.values()) {
+            addTo(bySeller, delta.sellerId, delta.count, delta.sum);
+        }
+        bySeller.forEach((sellerId, delta) -> {
+            if (delta[0] != 0 || delta[1] != 0) {
+                userRepository.applyReputationDelta(sellerId, delta[0], delta[1], priorWeight, priorMean);
+            }
+        });
+    }
+
+    private void evict(Collection<Long> sellerIds) {
+        for (Long sellerId : sellerIds) {
+            cache.remove(sellerId);
+        }
+    }
+
+    private static void addTo(Map<Long, long[]> totals, Long sellerId, long count, long sum) {
+        long[] total = totals.computeIfAbsent(sellerId, id -> new long[2]);
+        total[0] += count;
+        total[1] += sum;
+    }
+
+    private static void addTo(long[] total, long[] delta) {
+        if (delta != null) {
+            total[0] += delta[0];
+            total[1] += delta[1];
+        }
+    }
+
+    private static final class PendingDelta {
+        private final Long sellerId;
+        private long count;
+        private long sum;
+
+        private PendingDelta(Long sellerId) {
+            this.sellerId = sellerId;
+        }
+    }
+
+    private static final class CachedReputation {
+        private final long count;
+        private final long sum;
+        private final long expiresAt;
+
+        private CachedReputation(long count, long sum, long expiresAt) {
+            this.count = count;
+            this.sum = sum;
+            this.expiresAt = expiresAt;
+        }
+
+        private CachedReputation plus(long countDelta, long sumDelta) {
+            return new CachedReputation(count + countDelta, sum + sumDelta, expiresAt);
+        }
+    }
+}
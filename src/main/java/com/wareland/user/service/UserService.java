@@ -1,19 +1,38 @@
 package com.wareland.user.service;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
-
-import org.springframework.security.crypto.password.PasswordEncoder;
+import java.util.Locale;
+import java.util.Objects;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.wareland.common.exception.BadRequestException;
+import com.wareland.common.exception.BusinessException;
 import com.wareland.common.exception.InvalidCredentialException;
 import com.wareland.common.exception.ResourceNotFoundException;
+import com.wareland.common.exception.ServiceUnavailableException;
+import com.wareland.common.response.CursorPage;
+import com.wareland.common.security.PasswordHasher;
+import com.wareland.common.security.TokenEpochRegistry;
+import com.wareland.user.availability.UserIdentityIndex;
+import com.wareland.user.dto.AvailabilityResponse;
 import com.wareland.user.dto.LoginRequest;
+import com.wareland.user.dto.SellerReputation;
 import com.wareland.user.dto.UpdateProfileRequest;
+import com.wareland.user.dto.UserCursor;
 import com.wareland.user.dto.UserProfileResponse;
 import com.wareland.user.dto.UserRegisterRequest;
+import com.wareland.user.event.UserIdentityChangedEvent;
 import com.wareland.user.model.Buyer;
 import com.wareland.user.model.Seller;
 import com.wareland.user.model.User;
@@ -28,39 +47,52 @@ import com.wareland.user.repository.UserRepository;
 @Transactional
 public class UserService {
 
+    private static final Logger log = LoggerFactory.getLogger(UserService.class);
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
+    private final AuthService authService;
+    private final TokenEpochRegistry tokenEpochRegistry;
+    private final UserIdentityIndex userIdentityIndex;
+    private final SellerReputationService sellerReputationService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
 
     public UserService(
             UserRepository userRepository,
-            PasswordEncoder passwordEncoder
+            PasswordHasher passwordHasher,
+            AuthService authService,
+            TokenEpochRegistry tokenEpochRegistry,
+            UserIdentityIndex userIdentityIndex,
+            SellerReputationService sellerReputationService,
+            ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager
     ) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHasher = passwordHasher;
+        this.authService = authService;
+        this.tokenEpochRegistry = tokenEpochRegistry;
+        this.userIdentityIndex = userIdentityIndex;
+        this.sellerReputationService = sellerReputationService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     /**
-     * Mengambil seluruh data user.
+     * Mengambil data user per halaman (keyset pada user_id), tanpa membaca kolom password.
      */
     @Transactional(readOnly = true)
-    public List<UserProfileResponse> getAllUsers() {
-        return userRepository.findAll()
-                .stream()
-                .map(this::mapToProfile)
-                .collect(Collectors.toList());
+    public CursorPage<UserProfileResponse> getAllUsers(String cursor, int size) {
+        return findUserPage(null, cursor, size);
     }
 
     /**
      * Registrasi user baru berdasarkan role.
+     * Password di-hash sebelum transaksi dibuka, sehingga antrean hashing tidak menahan koneksi database.
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public UserProfileResponse register(UserRegisterRequest request) {
-        if (userRepository.existsByUsername(request.getUsername())) {
-            throw new BadRequestException("Username sudah digunakan");
-        }
-        if (userRepository.existsByEmail(request.getEmail())) {
-            throw new BadRequestException("Email sudah digunakan");
-        }
-
         User user;
         if (request.getRole() == UserRole.BUYER) {
             Buyer buyer = new Buyer();
@@ -75,18 +107,56 @@ public class UserService {
         }
 
         user.setUsername(request.getUsername());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(passwordHasher.encode(request.getPassword()));
         user.setName(request.getName());
         user.setEmail(request.getEmail());
         user.setPhoneNumber(request.getPhoneNumber());
 
-        User saved = userRepository.save(user);
-        return mapToProfile(saved);
+        return transactionTemplate.execute(status -> {
+            // Insert langsung; username/email ganda ditolak oleh unique constraint (satu round trip, tanpa race)
+            User saved;
+            try {
+                saved = userRepository.saveAndFlush(user);
+            } catch (DataIntegrityViolationException e) {
+                throw translateConstraintViolation(e);
+            }
+            eventPublisher.publishEvent(new UserIdentityChangedEvent(
+                    UserIdentityChangedEvent.Type.REGISTERED, saved.getUserId(), saved.getUsername(), saved.getEmail()));
+            return mapToProfile(saved);
+        });
+    }
+
+    /**
+     * Mengecek ketersediaan username dan/atau email untuk form registrasi.
+     * Nilai yang pasti belum terdaftar dijawab dari Bloom filter tanpa query database;
+     * hanya jawaban "mungkin terdaftar" yang dicek ke database.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public AvailabilityResponse checkAvailability(String username, String email) {
+        String trimmedUsername = username != null ? username.trim() : "";
+        String trimmedEmail = email != null ? email.trim() : "";
+        if (trimmedUsername.isEmpty() && trimmedEmail.isEmpty()) {
+            throw new BadRequestException("Username atau email harus diisi");
+        }
+
+        Boolean usernameAvailable = null;
+        if (!trimmedUsername.isEmpty()) {
+            usernameAvailable = !userIdentityIndex.mightContainUsername(trimmedUsername)
+                    || !userRepository.existsByUsername(trimmedUsername);
+        }
+        Boolean emailAvailable = null;
+        if (!trimmedEmail.isEmpty()) {
+            emailAvailable = !userIdentityIndex.mightContainEmail(trimmedEmail)
+                    || !userRepository.existsByEmail(trimmedEmail);
+        }
+        return new AvailabilityResponse(usernameAvailable, emailAvailable);
     }
 
     /**
      * Proses login menggunakan username atau email.
+     * Berjalan tanpa transaksi agar koneksi database tidak ditahan selama verifikasi password.
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public UserProfileResponse login(LoginRequest request) {
         String identifier =
                 request.getUsername() != null
@@ -111,13 +181,37 @@ public class UserService {
                             new InvalidCredentialException("Username atau password salah"));
         }
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        if (!passwordHasher.matches(request.getPassword(), user.getPassword())) {
             throw new InvalidCredentialException("Kredensial login salah");
         }
 
+        rehashIfNeeded(user, request.getPassword());
+
+        // Epoch dari database dicatat agar token baru tidak tertinggal dari sinkronisasi antar instance
+        tokenEpochRegistry.update(user.getUserId(), user.getTokenEpoch());
+
         return mapToProfile(user);
     }
 
+    /**
+     * Memperbarui hash password jika format/cost-nya berbeda dari konfigurasi saat ini.
+     * Gagal rehash (misal executor hashing penuh) tidak menggagalkan login; dicoba lagi di login berikutnya.
+     */
+    private void rehashIfNeeded(User user, String rawPassword) {
+        String storedHash = user.getPassword();
+        if (!passwordHasher.needsRehash(storedHash)) {
+            return;
+        }
+        try {
+            String newHash = passwordHasher.encode(rawPassword);
+            if (userRepository.replacePasswordHash(user.getUserId(), storedHash, newHash) > 0) {
+                user.setPassword(newHash);
+            }
+        } catch (ServiceUnavailableException e) {
+            log.debug("Rehash password user {} ditunda: {}", user.getUserId(), e.getMessage());
+        }
+    }
+
     /**
      * Validasi format email sederhana untuk kebutuhan login.
      */
@@ -157,27 +251,17 @@ public class UserService {
 
     /**
      * Update profil user (parsial).
+     * Verifikasi dan hashing password berjalan di luar transaksi; perubahan disimpan
+     * dalam transaksi singkat setelahnya.
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public UserProfileResponse updateProfile(
             Long id,
             UpdateProfileRequest request
     ) {
-        User user = getUserById(id);
-
-        if (request.getEmail() != null &&
-                !request.getEmail().equals(user.getEmail()) &&
-                userRepository.existsByEmail(request.getEmail())) {
-            throw new BadRequestException("Email sudah digunakan");
-        }
-
-        user.updateBasicProfile(
-                request.getName(),
-                request.getEmail(),
-                request.getPhoneNumber(),
-                request.getImageUrl()
-        );
-
-        // Update password jika diminta
+        // Update password jika diminta (divalidasi sebelum data lain diubah)
+        String verifiedPasswordHash = null;
+        String newPasswordHash = null;
         if (request.getOldPassword() != null || request.getNewPassword() != null) {
 
             if (request.getOldPassword() == null ||
@@ -186,18 +270,65 @@ public class UserService {
                         "Password lama dan baru harus diisi");
             }
 
-            if (!passwordEncoder.matches(
+            verifiedPasswordHash = getUserById(id).getPassword();
+            if (!passwordHasher.matches(
                     request.getOldPassword(),
-                    user.getPassword())) {
+                    verifiedPasswordHash)) {
                 throw new InvalidCredentialException(
                         "Password lama tidak sesuai");
             }
 
-            user.setPassword(
-                    passwordEncoder.encode(request.getNewPassword()));
+            newPasswordHash = passwordHasher.encode(request.getNewPassword());
+        }
+
+        String expectedPasswordHash = verifiedPasswordHash;
+        String replacementPasswordHash = newPasswordHash;
+        return transactionTemplate.execute(status ->
+                saveProfile(id, request, expectedPasswordHash, replacementPasswordHash));
+    }
+
+    private UserProfileResponse saveProfile(
+            Long id,
+            UpdateProfileRequest request,
+            String expectedPasswordHash,
+            String newPasswordHash
+    ) {
+        User user = getUserById(id);
+        String previousEmail = user.getEmail();
+
+        // Password diganti request lain setelah password lama diverifikasi
+        if (expectedPasswordHash != null && !expectedPasswordHash.equals(user.getPassword())) {
+            throw new InvalidCredentialException(
+                    "Password lama tidak sesuai");
         }
 
-        User updated = userRepository.save(user);
+        user.updateBasicProfile(
+                request.getName(),
+                request.getEmail(),
+                request.getPhoneNumber(),
+                request.getImageUrl()
+        );
+        if (newPasswordHash != null) {
+            user.setPassword(newPasswordHash);
+        }
+
+        // Email ganda ditolak oleh unique constraint saat flush, tanpa query pengecekan terpisah
+        User updated;
+        try {
+            updated = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw translateConstraintViolation(e);
+        }
+
+        if (!Objects.equals(previousEmail, updated.getEmail())) {
+            eventPublisher.publishEvent(new UserIdentityChangedEvent(
+                    UserIdentityChangedEvent.Type.EMAIL_CHANGED, updated.getUserId(), updated.getUsername(),
+                    updated.getEmail()));
+        }
+        if (newPasswordHash != null) {
+            // Seluruh token yang diterbitkan dengan password lama tidak berlaku lagi
+            authService.revokeAllTokens(user.getUserId());
+        }
         return mapToProfile(updated);
     }
 
@@ -205,7 +336,37 @@ public class UserService {
      * Menghapus akun user berdasarkan ID.
      */
     public void deleteAccount(Long id) {
-        userRepository.delete(getUserById(id));
+        User user = getUserById(id);
+        userRepository.delete(user);
+        eventPublisher.publishEvent(new UserIdentityChangedEvent(
+                UserIdentityChangedEvent.Type.DELETED, user.getUserId(), user.getUsername(), user.getEmail()));
+    }
+
+    private BusinessException translateConstraintViolation(DataIntegrityViolationException e) {
+        String constraint = constraintName(e);
+        if (constraint.contains("uk_users_username")) {
+            return new BadRequestException("Username sudah digunakan");
+        }
+        if (constraint.contains("uk_users_email")) {
+            return new BadRequestException("Email sudah digunakan");
+        }
+        throw e;
+    }
+
+    // Nama constraint dari Hibernate, ditambah pesan driver sebagai cadangan
+    // (ekstraksi nama constraint tidak selalu akurat di setiap dialect)
+    private static String constraintName(DataIntegrityViolationException e) {
+        StringBuilder text = new StringBuilder();
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                text.append(violation.getConstraintName()).append(' ');
+            }
+        }
+        String message = e.getMostSpecificCause().getMessage();
+        if (message != null) {
+            text.append(message);
+        }
+        return text.toString().toLowerCase(Locale.ROOT);
     }
 
     /**
@@ -219,30 +380,52 @@ public class UserService {
     }
 
     /**
-     * Mengambil daftar user berdasarkan role.
+     * Mengambil daftar user berdasarkan role per halaman.
+     * Filter memakai kolom discriminator (index role, user_id), bukan TYPE(u).
      */
     @Transactional(readOnly = true)
-    public List<UserProfileResponse> getUsersByRole(String role) {
-        Class<? extends User> userType;
+    public CursorPage<UserProfileResponse> getUsersByRole(String role, String cursor, int size) {
+        return findUserPage(parseRole(role), cursor, size);
+    }
+
+    /**
+     * Role dari path variable; melempar BadRequestException jika tidak dikenal.
+     */
+    public UserRole parseRole(String role) {
         if ("SELLER".equalsIgnoreCase(role)) {
-            userType = Seller.class;
-        } else if ("BUYER".equalsIgnoreCase(role)) {
-            userType = Buyer.class;
-        } else {
-            throw new BadRequestException("Role tidak dikenal: " + role);
+            return UserRole.SELLER;
+        }
+        if ("BUYER".equalsIgnoreCase(role)) {
+            return UserRole.BUYER;
         }
+        throw new BadRequestException("Role tidak dikenal: " + role);
+    }
 
-        return userRepository.findByType(userType)
-                .stream()
-                .map(this::mapToProfile)
-                .collect(Collectors.toList());
+    private CursorPage<UserProfileResponse> findUserPage(UserRole role, String cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Size harus antara 1 hingga " + MAX_PAGE_SIZE);
+        }
+        // Ambil size + 1 baris: baris ekstra hanya penanda masih ada halaman berikutnya
+        List<UserProfileResponse> rows =
+                userRepository.findProfilePage(role, UserCursor.decode(cursor), size + 1);
+        // Kolom agregat seller belum memuat delta reputasi yang masih di-buffer
+        for (UserProfileResponse row : rows) {
+            if (row.getRole() == UserRole.SELLER) {
+                sellerReputationService.applyTo(row);
+            }
+        }
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        List<UserProfileResponse> page = new ArrayList<>(rows.subList(0, size));
+        return new CursorPage<>(page, UserCursor.encode(page.get(size - 1).getId()));
     }
 
     /**
      * Mapper internal dari entity User ke UserProfileResponse.
      */
     private UserProfileResponse mapToProfile(User user) {
-        return new UserProfileResponse(
+        UserProfileResponse profile = new UserProfileResponse(
                 user.getUserId(),
                 user.getUsername(),
                 user.getName(),
@@ -253,5 +436,11 @@ public class UserService {
                 user.getCreatedAt(),
                 user.getUpdatedAt()
         );
+        if (user instanceof Seller seller) {
+            SellerReputation reputation = sellerReputationService.reputationOf(seller);
+            profile.setReputation(reputation.getReviewCount(), reputation.getAverageRating(),
+                    reputation.getReputationScore());
+        }
+        return profile;
     }
 }
@@ -0,0 +1,85 @@
+package com.wareland.common.security;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.SecretKey;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.wareland.user.model.UserRole;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Benchmark biaya autentikasi JWT per request di JwtAuthenticationFilter.
+ *
+ * - legacyParseTwice: perilaku lama, parser dibuat ulang dan signature diverifikasi dua kali
+ * - singleParse: satu parser bersama, satu kali verifikasi (cache claim dinonaktifkan)
+ * - cachedClaims: digest token + lookup cache claim yang sudah diverifikasi
+ *
+ * Tidak ikut dijalankan oleh surefire. Jalankan manual, misalnya:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=com.wareland.common.security.JwtAuthenticationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-benchmark-secret-key";
+    private static final long EXPIRATION_MS = 3_600_000L;
+
+    private SecretKey key;
+    private String token;
+    private JwtTokenProvider uncachedProvider;
+    private JwtTokenProvider cachedProvider;
+
+    @Setup
+    public void setup() {
+        key = Keys.hmacShaKeyFor(SECRET.getBytes());
+        uncachedProvider = new JwtTokenProvider(SECRET, EXPIRATION_MS, 0, 300_000L);
+        cachedProvider = new JwtTokenProvider(SECRET, EXPIRATION_MS, 10_000, 300_000L);
+        token = cachedProvider.generateToken(42L, "benchmark-user", UserRole.BUYER, "Benchmark User", 0);
+    }
+
+    @Benchmark
+    public Object legacyParseTwice() {
+        // validateToken lalu getAuthenticatedUser, masing-masing membangun parser baru
+        Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+        Claims claims = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+        return claims.getSubject();
+    }
+
+    @Benchmark
+    public AuthenticatedUser singleParse() {
+        return uncachedProvider.authenticate(token, TokenDigest.of(token));
+    }
+
+    @Benchmark
+    public AuthenticatedUser cachedClaims() {
+        return cachedProvider.authenticate(token, TokenDigest.of(token));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtAuthenticationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
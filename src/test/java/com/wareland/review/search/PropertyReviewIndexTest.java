@@ -0,0 +1,87 @@
+package com.wareland.review.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tokenizer komentar review dan ranking BM25 index per property, tanpa Spring context.
+ */
+class PropertyReviewIndexTest {
+
+    @Test
+    void tokenizerLowercasesAndSplitsOnNonAlphanumerics() {
+        assertEquals(List.of("rumah", "bagus", "dekat", "stasiun"),
+                ReviewTokenizer.tokenize("Rumah BAGUS, dekat-stasiun!"));
+    }
+
+    @Test
+    void tokenizerDropsStopwordsAndSingleCharacters() {
+        assertEquals(List.of("rumah", "bersih"), ReviewTokenizer.tokenize("rumah ini dan a bersih"));
+        assertEquals(List.of("kamar", "café", "24jam"), ReviewTokenizer.tokenize("2 kamar, café 24jam"));
+        assertTrue(ReviewTokenizer.tokenize(null).isEmpty());
+        assertTrue(ReviewTokenizer.tokenize("   ").isEmpty());
+    }
+
+    @Test
+    void higherTermFrequencyRanksFirst() {
+        PropertyReviewIndex index = new PropertyReviewIndex();
+        index.put(1L, "parkir luas sempit banjir");
+        index.put(2L, "banjir banjir parkir luas");
+
+        assertEquals(List.of(2L, 1L), index.search("banjir"));
+    }
+
+    @Test
+    void rarerTermWeighsMore() {
+        PropertyReviewIndex index = new PropertyReviewIndex();
+        index.put(1L, "parkir aman");
+        index.put(2L, "kolam renang");
+        index.put(3L, "parkir luas");
+        index.put(4L, "parkir sempit");
+
+        assertEquals(List.of(2L, 4L, 3L, 1L), index.search("parkir kolam"));
+    }
+
+    @Test
+    void shorterReviewRanksFirstForSameFrequency() {
+        PropertyReviewIndex index = new PropertyReviewIndex();
+        index.put(1L, "banjir rumah luas bersih nyaman");
+        index.put(2L, "banjir");
+
+        assertEquals(List.of(2L, 1L), index.search("banjir"));
+    }
+
+    @Test
+    void tiesAreBrokenByNewestReview() {
+        PropertyReviewIndex index = new PropertyReviewIndex();
+        index.put(5L, "bersih");
+        index.put(7L, "bersih");
+
+        assertEquals(List.of(7L, 5L), index.search("BERSIH"));
+    }
+
+    @Test
+    void putReplacesAndRemoveDropsReview() {
+        PropertyReviewIndex index = new PropertyReviewIndex();
+        index.put(1L, "banjir");
+        index.put(1L, "kering");
+        assertTrue(index.search("banjir").isEmpty());
+        assertEquals(List.of(1L), index.search("kering"));
+
+        index.remove(1L);
+        assertTrue(index.search("kering").isEmpty());
+    }
+
+    @Test
+    void queryWithoutIndexedTermsMatchesNothing() {
+        PropertyReviewIndex index = new PropertyReviewIndex();
+        index.put(1L, "rumah bersih");
+
+        assertTrue(index.search("dan yang").isEmpty());
+        assertTrue(index.search("kolam").isEmpty());
+    }
+}
@@ -0,0 +1,107 @@
+package com.wareland.review.service;
+
+import com.wareland.common.response.CursorPage;
+import com.wareland.property.model.Property;
+import com.wareland.review.dto.ReviewBuyerResponse;
+import com.wareland.review.dto.ReviewResponse;
+import com.wareland.review.mapper.ReviewMapper;
+import com.wareland.review.model.Review;
+import com.wareland.user.model.Buyer;
+import com.wareland.user.model.Seller;
+import com.wareland.user.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Memastikan listing review tidak memicu N+1: satu halaman feed = satu statement SQL.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({ReviewService.class, ReviewMapper.class})
+class ReviewServiceQueryCountTest {
+
+    private static final int REVIEW_COUNT = 5;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Property property;
+    private Buyer firstBuyer;
+
+    @BeforeEach
+    void setUp() {
+        Seller seller = em.persist(fill(new Seller(), "seller"));
+        property = new Property();
+        property.setAddress("Jl. Mawar No. 1");
+        property.setPrice(1_000_000);
+        property.setSeller(seller);
+        em.persist(property);
+
+        for (int i = 0; i < REVIEW_COUNT; i++) {
+            Buyer buyer = em.persist(fill(new Buyer(), "buyer" + i));
+            if (firstBuyer == null) {
+                firstBuyer = buyer;
+            }
+            Review review = new Review();
+            review.setBuyer(buyer);
+            review.setProperty(property);
+            review.setRating(i % 5 + 1);
+            review.setComment("Review " + i);
+            em.persist(review);
+        }
+        em.flush();
+        em.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void propertyFeedUsesSingleStatementPerPage() {
+        CursorPage<ReviewResponse> page = reviewService.getReviewsByProperty(
+                property.getPropertyId().longValue(), null, null, 3);
+        assertEquals(3, page.getItems().size());
+        assertNotNull(page.getItems().get(0).getBuyerName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        statistics.clear();
+        CursorPage<ReviewResponse> next = reviewService.getReviewsByProperty(
+                property.getPropertyId().longValue(), null, page.getNextCursor(), 3);
+        assertEquals(REVIEW_COUNT - 3, next.getItems().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void buyerFeedUsesSingleStatementPerPage() {
+        CursorPage<ReviewBuyerResponse> page = reviewService.getReviewsByBuyer(
+                firstBuyer.getUserId(), null, null, 10);
+        assertEquals(1, page.getItems().size());
+        assertEquals("Jl. Mawar No. 1", page.getItems().get(0).getPropertyTitle());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private static <T extends User> T fill(T user, String username) {
+        user.setUsername(username);
+        user.setPassword("password");
+        user.setName("Nama " + username);
+        user.setEmail(username + "@wareland.test");
+        user.setPhoneNumber("08123456789");
+        return user;
+    }
+}
@@ -0,0 +1,132 @@
+package com.wareland.user.availability;
+
+import com.wareland.user.dto.UpdateProfileRequest;
+import com.wareland.user.dto.UserProfileResponse;
+import com.wareland.user.dto.UserRegisterRequest;
+import com.wareland.user.model.Buyer;
+import com.wareland.user.model.User;
+import com.wareland.user.model.UserRole;
+import com.wareland.user.repository.UserRepository;
+import com.wareland.user.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Memastikan Bloom filter availability tidak pernah menjawab "pasti belum ada" untuk
+ * username/email yang terdaftar: registrasi di instance ini, perubahan dari instance lain
+ * (ditarik sinkronisasi, termasuk commit terlambat), hapus akun, dan rebuild.
+ * Datasource diganti database embedded (H2) agar test tidak menyentuh database profil aktif.
+ */
+@AutoConfigureTestDatabase
+@SpringBootTest(properties = {
+        "app.security.password-hashing.bcrypt-strength=4",
+        // Sinkronisasi dan rebuild dipanggil langsung oleh test
+        "app.user.availability.sync-interval-ms=3600000",
+        "app.user.availability.rebuild-interval-ms=3600000"
+})
+class UserIdentityIndexTest {
+
+    @Autowired
+    private UserIdentityIndex index;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void registeredUserIsTakenUntilDeletedAndDroppedOnRebuild() {
+        String username = unique("reg");
+        UserProfileResponse registered = userService.register(request(username, username + "@wareland.test"));
+
+        assertTrue(index.mightContainUsername(username));
+        assertTrue(index.mightContainEmail(username.toUpperCase() + "@WARELAND.TEST"));
+        assertFalse(userService.checkAvailability(username, username + "@wareland.test").getUsernameAvailable());
+
+        UpdateProfileRequest update = new UpdateProfileRequest();
+        ReflectionTestUtils.setField(update, "email", username + "-new@wareland.test");
+        userService.updateProfile(registered.getId(), update);
+        assertFalse(userService.checkAvailability(null, username + "-new@wareland.test").getEmailAvailable());
+        assertTrue(userService.checkAvailability(null, username + "@wareland.test").getEmailAvailable());
+
+        // Filter masih menjawab "mungkin ada", jawaban akhirnya dari database
+        userService.deleteAccount(registered.getId());
+        assertTrue(index.mightContainUsername(username));
+        assertTrue(userService.checkAvailability(username, null).getUsernameAvailable());
+
+        index.rebuild();
+        assertFalse(index.mightContainUsername(username));
+        assertTrue(userService.checkAvailability(username, null).getUsernameAvailable());
+    }
+
+    @Test
+    void changesFromAnotherInstanceArePulledBySync() {
+        // Disimpan langsung lewat repository: tidak ada event, seperti registrasi di instance lain
+        String username = unique("remote");
+        User remote = userRepository.save(buyer(username, username + "@wareland.test"));
+        index.syncFromDatabase();
+        assertTrue(index.mightContainUsername(username));
+        assertFalse(userService.checkAvailability(username, null).getUsernameAvailable());
+
+        remote.setEmail(username + "-changed@wareland.test");
+        userRepository.save(remote);
+        index.syncFromDatabase();
+        assertTrue(index.mightContainEmail(username + "-changed@wareland.test"));
+        assertFalse(userService.checkAvailability(null, username + "-changed@wareland.test").getEmailAvailable());
+    }
+
+    @Test
+    void lateCommitWithOlderTimestampIsStillPulled() {
+        index.syncFromDatabase();
+
+        // Baris yang baru terlihat setelah sinkronisasi, dengan updated_at lebih awal dari yang sudah terbaca
+        String username = unique("late");
+        User late = userRepository.save(buyer(username, username + "@wareland.test"));
+        jdbcTemplate.update("UPDATE users SET updated_at = ? WHERE user_id = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusSeconds(30)), late.getUserId());
+
+        index.syncFromDatabase();
+        assertTrue(index.mightContainUsername(username));
+        assertTrue(index.mightContainEmail(username + "@wareland.test"));
+    }
+
+    private static String unique(String prefix) {
+        return prefix + System.nanoTime() % 1_000_000_000L;
+    }
+
+    private static UserRegisterRequest request(String username, String email) {
+        UserRegisterRequest request = new UserRegisterRequest();
+        request.setUsername(username);
+        request.setPassword("Password123!");
+        request.setName("Nama " + username);
+        request.setEmail(email);
+        request.setPhoneNumber("08123456789");
+        request.setRole(UserRole.BUYER);
+        return request;
+    }
+
+    private static Buyer buyer(String username, String email) {
+        Buyer buyer = new Buyer();
+        buyer.register();
+        buyer.setUsername(username);
+        buyer.setPassword("{noop}tidak-dipakai");
+        buyer.setName("Nama " + username);
+        buyer.setEmail(email);
+        buyer.setPhoneNumber("08123456789");
+        return buyer;
+    }
+}
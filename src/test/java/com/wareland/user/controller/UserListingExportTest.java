@@ -0,0 +1,176 @@
+package com.wareland.user.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wareland.common.response.CursorPage;
+import com.wareland.common.security.JwtTokenProvider;
+import com.wareland.user.dto.UserProfileResponse;
+import com.wareland.user.model.Buyer;
+import com.wareland.user.model.Seller;
+import com.wareland.user.model.User;
+import com.wareland.user.model.UserRole;
+import com.wareland.user.repository.UserRepository;
+import com.wareland.user.service.SellerReputationService;
+import com.wareland.user.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Listing user dengan cursor (melewati batas halaman, filter role, cursor tidak valid) dan
+ * export NDJSON yang terdiri dari beberapa batch. Batch export dikecilkan agar beberapa
+ * user saja sudah melewati lebih dari satu batch.
+ * Datasource diganti database embedded (H2) agar test tidak menyentuh database profil aktif.
+ */
+@AutoConfigureTestDatabase
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.user.export.batch-size=2",
+        // Delta reputasi tetap di buffer selama test
+        "app.seller.reputation.flush-interval-ms=3600000"
+})
+class UserListingExportTest {
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SellerReputationService sellerReputationService;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final List<Long> buyerIds = new ArrayList<>();
+    private final List<Long> sellerIds = new ArrayList<>();
+    private String token;
+
+    @BeforeEach
+    void createUsers() {
+        String prefix = unique("list");
+        for (int i = 0; i < 3; i++) {
+            buyerIds.add(userRepository.save(fill(new Buyer(), prefix + "b" + i)).getUserId());
+            sellerIds.add(userRepository.save(fill(new Seller(), prefix + "s" + i)).getUserId());
+        }
+        token = jwtTokenProvider.generateToken(buyerIds.get(0), prefix + "b0", UserRole.BUYER, "Nama", 0);
+    }
+
+    @Test
+    void pagesCoverEveryUserOnceAcrossPageBoundaries() {
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<UserProfileResponse> page = userService.getAllUsers(cursor, 2);
+            assertTrue(page.getItems().size() <= 2);
+            page.getItems().forEach(profile -> seen.add(profile.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(seen.stream().distinct().sorted().toList(), seen);
+        assertTrue(seen.containsAll(buyerIds));
+        assertTrue(seen.containsAll(sellerIds));
+    }
+
+    @Test
+    void roleFilterReturnsOnlyThatRole() {
+        List<UserProfileResponse> sellers = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<UserProfileResponse> page = userService.getUsersByRole("seller", cursor, 2);
+            sellers.addAll(page.getItems());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertTrue(sellers.stream().allMatch(profile -> profile.getRole() == UserRole.SELLER));
+        assertTrue(sellers.stream().map(UserProfileResponse::getId).toList().containsAll(sellerIds));
+        assertTrue(sellers.stream().noneMatch(profile -> buyerIds.contains(profile.getId())));
+    }
+
+    @Test
+    void listingIncludesBufferedReputationDeltas() {
+        Long sellerId = sellerIds.get(0);
+        sellerReputationService.addListingDelta(Integer.MAX_VALUE, sellerId, 1, 5);
+
+        UserProfileResponse listed = userService.getUsersByRole("seller", null, 100).getItems().stream()
+                .filter(profile -> profile.getId().equals(sellerId))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(1L, listed.getReviewCount());
+        assertEquals(5.0, listed.getAverageRating());
+        assertEquals(userService.getProfile(sellerId).getReputationScore(), listed.getReputationScore());
+    }
+
+    @Test
+    void invalidCursorIsBadRequest() {
+        ResponseEntity<String> response = restTemplate.exchange(
+                "/api/users?cursor=bukan-cursor", HttpMethod.GET, request("application/json"), String.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    void exportStreamsEveryUserAcrossBatches() throws Exception {
+        ResponseEntity<String> response = restTemplate.exchange(
+                "/api/users/role/seller", HttpMethod.GET, request(NDJSON), String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertTrue(response.getBody().endsWith("\n"));
+        List<Long> exported = new ArrayList<>();
+        for (String line : response.getBody().split("\n")) {
+            JsonNode row = objectMapper.readTree(line);
+            assertEquals("SELLER", row.get("role").asText());
+            assertTrue(row.get("password") == null);
+            exported.add(row.get("id").asLong());
+        }
+        // Lebih dari satu batch (batch-size=2), tetap terurut dan tanpa duplikat
+        assertTrue(exported.size() > 2);
+        assertEquals(exported.stream().distinct().sorted().toList(), exported);
+        assertTrue(exported.containsAll(sellerIds));
+    }
+
+    private HttpEntity<Void> request(String accept) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        headers.set(HttpHeaders.ACCEPT, accept);
+        return new HttpEntity<>(headers);
+    }
+
+    private static String unique(String prefix) {
+        return prefix + System.nanoTime() % 1_000_000_000L;
+    }
+
+    private static <T extends User> T fill(T user, String username) {
+        user.register();
+        user.setUsername(username);
+        user.setPassword("{noop}tidak-dipakai");
+        user.setName("Nama " + username);
+        user.setEmail(username + "@wareland.test");
+        user.setPhoneNumber("08123456789");
+        return user;
+    }
+}
@@ -0,0 +1,84 @@
+package com.wareland.user.service;
+
+import com.wareland.common.exception.BadRequestException;
+import com.wareland.user.dto.UserRegisterRequest;
+import com.wareland.user.model.UserRole;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Memastikan registrasi serentak dengan username yang sama hanya menghasilkan satu user:
+ * unique constraint database menjadi satu-satunya penentu, tanpa pengecekan exists terpisah.
+ * Datasource diganti database embedded (H2) agar test tidak menyentuh database profil aktif.
+ */
+@AutoConfigureTestDatabase
+@SpringBootTest(properties = {
+        "app.security.password-hashing.bcrypt-strength=4",
+        "app.security.password-hashing.queue-capacity=200"
+})
+class UserServiceConcurrentRegistrationTest {
+
+    private static final int THREADS = 100;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void concurrentRegistrationWithSameUsernameCreatesSingleUser() throws Exception {
+        String username = "race" + System.nanoTime() % 1_000_000_000L;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<Boolean>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                UserRegisterRequest request = request(username, username + "-" + i + "@wareland.test");
+                results.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        userService.register(request);
+                        return true;
+                    } catch (BadRequestException e) {
+                        assertEquals("Username sudah digunakan", e.getMessage());
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+
+            int succeeded = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get(60, TimeUnit.SECONDS)) {
+                    succeeded++;
+                }
+            }
+            assertEquals(1, succeeded);
+        } finally {
+            pool.shutdownNow();
+            assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+        }
+    }
+
+    private static UserRegisterRequest request(String username, String email) {
+        UserRegisterRequest request = new UserRegisterRequest();
+        request.setUsername(username);
+        request.setPassword("Password123!");
+        request.setName("Nama " + username);
+        request.setEmail(email);
+        request.setPhoneNumber("08123456789");
+        request.setRole(UserRole.BUYER);
+        return request;
+    }
+}